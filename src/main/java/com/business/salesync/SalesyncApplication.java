@@ -4,11 +4,13 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication(scanBasePackages = "com.business.salesync")
 @EntityScan(basePackages = "com.business.salesync.models")
 @EnableJpaRepositories(basePackages = "com.business.salesync.repository")
+@EnableScheduling
 public class SalesyncApplication {
 
 	public static void main(String[] args) {
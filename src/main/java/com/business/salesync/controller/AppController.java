@@ -1,15 +1,13 @@
 package com.business.salesync.controller;
 
-import java.time.LocalDate;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
-import com.business.salesync.repository.CustomerRepository;
-import com.business.salesync.repository.OrderRepository;
-import com.business.salesync.repository.ProductRepository;
+import com.business.salesync.service.PartyNameIndex;
+import com.business.salesync.service.ProductScanIndex;
+import com.business.salesync.service.SalesMetricsService;
 
 
 
@@ -17,47 +15,35 @@ import com.business.salesync.repository.ProductRepository;
 public class AppController {
 
     @Autowired
-    private ProductRepository productRepository;
+    private ProductScanIndex productScanIndex;
 
     @Autowired
-    private CustomerRepository customerRepository;
+    private PartyNameIndex partyNameIndex;
 
     @Autowired
-    private OrderRepository orderRepository;
+    private SalesMetricsService salesMetricsService;
 
+    // Every figure comes from an in-memory index or counter; no queries per render
     @GetMapping("/")
     public String home(Model model) {
 
-        long productCount = productRepository.count();
-        long customerCount = customerRepository.count();
-        long orderCount = orderRepository.count();
+        SalesMetricsService.Totals sales = salesMetricsService.totals();
 
-        model.addAttribute("product_count", productCount);
-        model.addAttribute("customer_count", customerCount);
-        model.addAttribute("order_count", orderCount);
+        model.addAttribute("product_count", productScanIndex.size());
+        model.addAttribute("customer_count", partyNameIndex.size(PartyNameIndex.CUSTOMER));
+        model.addAttribute("order_count", sales.orders());
 
         // Today
-        LocalDate today = LocalDate.now();
-        double salesToday = orderRepository.totalSalesToday(today);
-        String formattedSalesToday = String.format("%.2f", salesToday);
-        model.addAttribute("sales_today", formattedSalesToday);
-
-        // This week (Monday to Sunday)
-        LocalDate startOfWeek = today.with(java.time.DayOfWeek.MONDAY);
-        LocalDate endOfWeek = today.with(java.time.DayOfWeek.SUNDAY);
-        double salesThisWeek = orderRepository.totalSalesThisWeek(startOfWeek, endOfWeek);
-        String formattedSalesThisWeek = String.format("%.2f", salesToday);
-        model.addAttribute("sales_week", formattedSalesThisWeek);
+        model.addAttribute("sales_today", String.format("%.2f", sales.today()));
+
+        // This week (Monday to today)
+        model.addAttribute("sales_week", String.format("%.2f", sales.thisWeek()));
 
         // This month
-        LocalDate startOfMonth = today.withDayOfMonth(1);
-        LocalDate endOfMonth = today.withDayOfMonth(today.lengthOfMonth());
-        double salesThisMonth = orderRepository.totalSalesThisMonth(startOfMonth, endOfMonth);
-        String formattedSalesThisMonth = String.format("%.2f", salesToday);
-        model.addAttribute("sales_month", formattedSalesThisMonth);
+        model.addAttribute("sales_month", String.format("%.2f", sales.thisMonth()));
 
         return "fragments/home";
     }
 
 
-}
\ No newline at end of file
+}
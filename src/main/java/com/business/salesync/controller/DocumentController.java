@@ -0,0 +1,76 @@
+package com.business.salesync.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.business.salesync.dto.DocumentNodeDTO;
+import com.business.salesync.models.DocumentLink.DocumentType;
+import com.business.salesync.service.DocumentLinkService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔗 Document Controller - drill-down across linked documents
+ */
+@RestController
+@RequestMapping("/api/documents")
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentController {
+
+    private final DocumentLinkService documentLinkService;
+
+    /**
+     * 🔹 GET Linked Documents
+     *
+     * Endpoint: GET /api/documents/{type}/{id}/links
+     *   type = sale_order | purchase_order | payment | sale_return | purchase_return | expense | ledger
+     * Query Params:
+     *   - depth (optional): Links to follow, default 4, max 6
+     *
+     * Returns the document and everything linked to it (payments, returns, ledger
+     * postings, ...) nearest first.
+     *
+     * Example: GET /api/documents/sale_order/1024/links
+     */
+    @GetMapping("/{type}/{id}/links")
+    public ResponseEntity<Map<String, Object>> getLinkedDocuments(
+            @PathVariable String type,
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "" + DocumentLinkService.DEFAULT_DEPTH) int depth) {
+
+        Map<String, Object> response = new HashMap<>();
+        DocumentType documentType;
+        try {
+            documentType = DocumentType.valueOf(type.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", "Unknown document type: " + type);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            List<DocumentNodeDTO> documents = documentLinkService.neighbourhood(documentType, id, depth);
+            response.put("success", true);
+            response.put("documents", documents);
+            response.put("count", documents.size());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("❌ Error fetching linked documents: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Error: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
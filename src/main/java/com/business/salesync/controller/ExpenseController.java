@@ -30,6 +30,7 @@ import com.business.salesync.models.Expense.PaymentStatus;
 import com.business.salesync.models.ExpenseItem;
 import com.business.salesync.repository.ExpenseItemRepository;
 import com.business.salesync.repository.ExpenseRepository;
+import com.business.salesync.service.DocumentNumberService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -46,6 +47,7 @@ public class ExpenseController {
 
     private final ExpenseRepository expenseRepository;
     private final ExpenseItemRepository expenseItemRepository;
+    private final DocumentNumberService documentNumberService;
 
     // ========================================
     // 📄 VIEW PAGES
@@ -531,13 +533,7 @@ public class ExpenseController {
     // ========================================
 
     private String generateExpenseRefNo() {
-        LocalDate today = LocalDate.now();
-        String dateStr = today.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        Optional<Expense> lastExpense = expenseRepository.findTopByOrderByIdDesc();
-        long nextId = lastExpense.map(e -> e.getId() + 1).orElse(1L);
-        
-        return String.format("EXP-%s-%04d", dateStr, nextId);
+        return documentNumberService.next(DocumentNumberService.DocumentType.EXPENSE);
     }
 
     private Expense buildExpenseFromPayload(Map<String, Object> payload) {
@@ -0,0 +1,74 @@
+package com.business.salesync.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.business.salesync.service.ExportService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📤 Export Controller - CSV / XLSX downloads
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private final ExportService exportService;
+
+    /**
+     * 🔹 GET Export
+     *
+     * Endpoint: GET /api/export/{dataset}
+     *   dataset = customer-ledger | supplier-ledger | payments | expenses | sales-orders
+     * Query Params:
+     *   - format (optional): csv (default) | xlsx
+     *   - name (optional): Customer/supplier name, for the ledgers and sales orders
+     *   - fromDate, toDate (optional): Inclusive date range, yyyy-MM-dd
+     *
+     * Example: GET /api/export/customer-ledger?format=xlsx&fromDate=2025-01-01&toDate=2025-12-31
+     */
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+
+        ExportService.Dataset what;
+        ExportService.Format as;
+        try {
+            what = ExportService.Dataset.of(dataset);
+            as = ExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("📤 REST API: Export {} as {} - Name: {}, From: {}, To: {}",
+                what.getSlug(), as.getExtension(), name != null ? name : "ALL", fromDate, toDate);
+
+        StreamingResponseBody body = out -> exportService.export(what, as, name, fromDate, toDate, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(as.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportService.fileName(what, as, fromDate, toDate))
+                        .build().toString())
+                .body(body);
+    }
+}
@@ -15,6 +15,8 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.business.salesync.models.FinancialAccount;
 import com.business.salesync.repository.FinancialAccountRepository;
+import com.business.salesync.service.AccountBalanceService;
+import com.business.salesync.service.FinancialAccountService;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +29,8 @@ import java.util.stream.Collectors;
 public class FinancialAccountController {
 
     private final FinancialAccountRepository financialAccountRepository;
+    private final AccountBalanceService accountBalanceService;
+    private final FinancialAccountService financialAccountService;
 
     // List accounts
     @GetMapping
@@ -53,7 +57,7 @@ public class FinancialAccountController {
     
     @GetMapping("/latest-balance")
     public String latestBalance(Model model) {
-        List<FinancialAccount> latestAccounts = financialAccountRepository.findLatestBalancePerAccount();
+        List<FinancialAccount> latestAccounts = accountBalanceService.findLatestBalancePerAccount();
 
         double totalBalance = latestAccounts.stream()
                 .mapToDouble(FinancialAccount::getCurrentBalance)
@@ -75,7 +79,7 @@ public class FinancialAccountController {
     
     @GetMapping("/tabs")
     public String accountsTabs(Model model) {
-        List<FinancialAccount> latestAccounts = financialAccountRepository.findLatestBalancePerAccount();
+        List<FinancialAccount> latestAccounts = accountBalanceService.findLatestBalancePerAccount();
         List<FinancialAccount> accounts = financialAccountRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
 
         model.addAttribute("latestAccounts", latestAccounts);
@@ -116,11 +120,19 @@ public class FinancialAccountController {
             account.setFinAccId(generateUniqueAccountId());
         }
 
-        financialAccountRepository.save(account);
+        financialAccountService.saveAccount(account);
         redirectAttributes.addFlashAttribute("successMessage", "Account created successfully!");
         return "redirect:/accounts";
     }
 
+    // Regenerate the per-account balance projection from transaction history
+    @PostMapping("/balances/rebuild")
+    public String rebuildBalances(RedirectAttributes redirectAttributes) {
+        int accounts = accountBalanceService.rebuild();
+        redirectAttributes.addFlashAttribute("successMessage", "Balances rebuilt for " + accounts + " accounts");
+        return "redirect:/accounts/tabs";
+    }
+
     // Helper method to generate unique 12-digit ID: FIN-1001-90001
     private String generateUniqueAccountId() {
         String prefix = "FIN-1001-";
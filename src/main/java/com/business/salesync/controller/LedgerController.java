@@ -5,13 +5,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.business.salesync.dto.LedgerSummaryDTO;
+import com.business.salesync.service.LedgerSnapshotService;
 import com.business.salesync.service.LedgerSummaryService;
+import com.business.salesync.service.PartyBalanceService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -28,6 +32,8 @@ import java.util.Map;
 public class LedgerController {
 
 	    private final LedgerSummaryService ledgerService;
+	    private final LedgerSnapshotService ledgerSnapshotService;
+	    private final PartyBalanceService partyBalanceService;
 
 	    // ========================================
 	    // 📊 CUSTOMER LEDGER ENDPOINTS
@@ -35,19 +41,23 @@ public class LedgerController {
 
 	    @GetMapping("/customer")
 	    public ResponseEntity<LedgerSummaryDTO> getCustomerLedger(
-	            @RequestParam(required = false) String name) {
+	            @RequestParam(required = false) String name,
+	            @RequestParam(required = false) String cursor,
+	            @RequestParam(defaultValue = "" + LedgerSummaryService.DEFAULT_PAGE_SIZE) int size) {
 	        
 	        log.info("📊 REST API: Fetching customer ledger for: {}", 
 	                name != null ? name : "ALL CUSTOMERS");
 	        
 	        try {
-	            LedgerSummaryDTO ledger = ledgerService.getCustomerLedger(name);
+	            LedgerSummaryDTO ledger = ledgerService.getCustomerLedger(name, cursor, size);
 	            
 	            log.info("✅ Customer ledger retrieved successfully. Transactions: {}", 
 	                    ledger.getTotalTransactions());
 	            
 	            return ResponseEntity.ok(ledger);
 	            
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.badRequest().body(LedgerSummaryDTO.empty(e.getMessage()));
 	        } catch (Exception e) {
 	            log.error("❌ Error fetching customer ledger: {}", e.getMessage(), e);
 	            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -77,20 +87,24 @@ public class LedgerController {
 	            @RequestParam(required = false) 
 	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
 	            @RequestParam(required = false) 
-	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
+	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+	            @RequestParam(required = false) String cursor,
+	            @RequestParam(defaultValue = "" + LedgerSummaryService.DEFAULT_PAGE_SIZE) int size) {
 	        
 	        log.info("📅 REST API: Fetching customer ledger - Name: {}, From: {}, To: {}", 
 	                name != null ? name : "ALL", fromDate, toDate);
 	        
 	        try {
 	            LedgerSummaryDTO ledger = ledgerService.getCustomerLedgerByDateRange(
-	                    name, fromDate, toDate);
+	                    name, fromDate, toDate, cursor, size);
 	            
 	            log.info("✅ Customer ledger (date range) retrieved. Transactions: {}", 
 	                    ledger.getTotalTransactions());
 	            
 	            return ResponseEntity.ok(ledger);
 	            
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.badRequest().body(LedgerSummaryDTO.empty(e.getMessage()));
 	        } catch (Exception e) {
 	            log.error("❌ Error fetching customer ledger by date: {}", e.getMessage(), e);
 	            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -158,6 +172,8 @@ public class LedgerController {
 	     * Endpoint: GET /api/ledger/supplier
 	     * Query Params:
 	     *   - name (optional): Supplier name (supports partial search)
+	     *   - cursor (optional): nextCursor of the previous page
+	     *   - size (optional): rows per page, default 200, max 1000
 	     * 
 	     * Example: GET /api/ledger/supplier?name=Mizan Agro
 	     * Example: GET /api/ledger/supplier (returns all suppliers)
@@ -167,19 +183,23 @@ public class LedgerController {
 	     */
 	    @GetMapping("/supplier")
 	    public ResponseEntity<LedgerSummaryDTO> getSupplierLedger(
-	            @RequestParam(required = false) String name) {
+	            @RequestParam(required = false) String name,
+	            @RequestParam(required = false) String cursor,
+	            @RequestParam(defaultValue = "" + LedgerSummaryService.DEFAULT_PAGE_SIZE) int size) {
 	        
 	        log.info("🏭 REST API: Fetching supplier ledger for: {}", 
 	                name != null ? name : "ALL SUPPLIERS");
 	        
 	        try {
-	            LedgerSummaryDTO ledger = ledgerService.getSupplierLedger(name);
+	            LedgerSummaryDTO ledger = ledgerService.getSupplierLedger(name, cursor, size);
 	            
 	            log.info("✅ Supplier ledger retrieved successfully. Transactions: {}", 
 	                    ledger.getTotalTransactions());
 	            
 	            return ResponseEntity.ok(ledger);
 	            
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.badRequest().body(LedgerSummaryDTO.empty(e.getMessage()));
 	        } catch (Exception e) {
 	            log.error("❌ Error fetching supplier ledger: {}", e.getMessage(), e);
 	            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -209,20 +229,24 @@ public class LedgerController {
 	            @RequestParam(required = false) 
 	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
 	            @RequestParam(required = false) 
-	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
+	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+	            @RequestParam(required = false) String cursor,
+	            @RequestParam(defaultValue = "" + LedgerSummaryService.DEFAULT_PAGE_SIZE) int size) {
 	        
 	        log.info("📅 REST API: Fetching supplier ledger - Name: {}, From: {}, To: {}", 
 	                name != null ? name : "ALL", fromDate, toDate);
 	        
 	        try {
 	            LedgerSummaryDTO ledger = ledgerService.getSupplierLedgerByDateRange(
-	                    name, fromDate, toDate);
+	                    name, fromDate, toDate, cursor, size);
 	            
 	            log.info("✅ Supplier ledger (date range) retrieved. Transactions: {}", 
 	                    ledger.getTotalTransactions());
 	            
 	            return ResponseEntity.ok(ledger);
 	            
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.badRequest().body(LedgerSummaryDTO.empty(e.getMessage()));
 	        } catch (Exception e) {
 	            log.error("❌ Error fetching supplier ledger by date: {}", e.getMessage(), e);
 	            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -230,6 +254,106 @@ public class LedgerController {
 	        }
 	    }
 
+	    // ========================================
+	    // 🏦 FINANCIAL ACCOUNT BALANCE
+	    // ========================================
+
+	    /**
+	     * 🔹 GET Financial Account Balance As Of a Date
+	     * 
+	     * Endpoint: GET /api/ledger/account/balance
+	     * Query Params:
+	     *   - name: Financial account name
+	     *   - asOf (optional): Moment to value the account at, default now
+	     * 
+	     * Reads the latest month-end snapshot plus the rows after it.
+	     * 
+	     * Example: GET /api/ledger/account/balance?name=Cash at Hand&asOf=2025-10-01T00:00:00
+	     */
+	    @GetMapping("/account/balance")
+	    public ResponseEntity<Map<String, Object>> getAccountBalanceAsOf(
+	            @RequestParam String name,
+	            @RequestParam(required = false) 
+	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+	        
+	        LocalDateTime moment = asOf != null ? asOf : LocalDateTime.now();
+	        Map<String, Object> response = new HashMap<>();
+	        try {
+	            double balance = ledgerSnapshotService.accountBalanceAsOf(name, moment);
+	            response.put("accountName", name);
+	            response.put("asOf", moment);
+	            response.put("balance", balance);
+	            response.put("formattedAmount", String.format("৳ %.2f", balance));
+	            response.put("success", true);
+	            return ResponseEntity.ok(response);
+	            
+	        } catch (Exception e) {
+	            log.error("❌ Error calculating account balance: {}", e.getMessage(), e);
+	            response.put("success", false);
+	            response.put("message", "Error: " + e.getMessage());
+	            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+	        }
+	    }
+
+	    /**
+	     * 🔹 POST Reconcile Receivable / Payable Totals
+	     * 
+	     * Endpoint: POST /api/ledger/balances/reconcile
+	     * 
+	     * Runs the nightly check now: recomputes every customer/supplier total from the
+	     * ledger rows, logs and overwrites the ones that drifted.
+	     */
+	    @PostMapping("/balances/reconcile")
+	    public ResponseEntity<Map<String, Object>> reconcilePartyBalances() {
+	        Map<String, Object> response = new HashMap<>();
+	        try {
+	            int corrected = partyBalanceService.reconcile();
+	            response.put("corrected", corrected);
+	            response.put("success", true);
+	            return ResponseEntity.ok(response);
+	            
+	        } catch (Exception e) {
+	            log.error("❌ Error reconciling party balances: {}", e.getMessage(), e);
+	            response.put("success", false);
+	            response.put("message", "Error: " + e.getMessage());
+	            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+	        }
+	    }
+
+	    // ========================================
+	    // 📤 NDJSON STREAMING ENDPOINTS
+	    // ========================================
+
+	    /**
+	     * 🔹 GET Customer / Supplier Ledger as NDJSON
+	     * 
+	     * Endpoint: GET /api/ledger/{type}/stream  (type = customer | supplier)
+	     * Query Params: name, fromDate, toDate (all optional)
+	     * 
+	     * Writes one transaction per line while reading the ledger in keyset
+	     * chunks, so any number of rows is served in constant memory.
+	     * 
+	     * Example: GET /api/ledger/customer/stream?fromDate=2025-10-01T00:00:00
+	     */
+	    @GetMapping(value = "/{type:customer|supplier}/stream", produces = "application/x-ndjson")
+	    public ResponseEntity<StreamingResponseBody> streamLedger(
+	            @PathVariable String type,
+	            @RequestParam(required = false) String name,
+	            @RequestParam(required = false) 
+	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+	            @RequestParam(required = false) 
+	            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
+	        
+	        String entityType = type.toUpperCase();
+	        log.info("📤 REST API: Streaming {} ledger - Name: {}, From: {}, To: {}", 
+	                type, name != null ? name : "ALL", fromDate, toDate);
+	        
+	        StreamingResponseBody body = out -> ledgerService.streamLedger(entityType, name, fromDate, toDate, out);
+	        return ResponseEntity.ok()
+	                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+	                .body(body);
+	    }
+
 	    /**
 	     * 🔹 GET Supplier Total Payable
 	     * 
@@ -288,18 +412,23 @@ public class LedgerController {
 	     * 🔹 GET All Customer Names (for dropdown/autocomplete)
 	     * 
 	     * Endpoint: GET /api/ledger/customers/names
+	     * Query Params:
+	     *   - q (optional): typed text; prefix matches first, then names containing it
+	     *   - limit (optional): max suggestions when q is given, default 20
 	     * 
-	     * Returns a list of all unique customer names in the system
-	     * Useful for populating dropdowns in frontend
+	     * Served from the in-memory customer name index - no database query.
+	     * Without q, returns every customer name.
 	     * 
 	     * @return List of customer names
 	     */
 	    @GetMapping("/customers/names")
-	    public ResponseEntity<Map<String, Object>> getAllCustomerNames() {
-	        log.info("📋 REST API: Fetching all customer names");
+	    public ResponseEntity<Map<String, Object>> getAllCustomerNames(
+	            @RequestParam(required = false) String q,
+	            @RequestParam(defaultValue = "20") int limit) {
+	        log.info("📋 REST API: Fetching customer names for: {}", q != null ? q : "ALL");
 	        
 	        try {
-	            List<String> names = ledgerService.getAllCustomerNames();
+	            List<String> names = ledgerService.getCustomerNames(q, Math.max(1, limit));
 	            
 	            Map<String, Object> response = new HashMap<>();
 	            response.put("customers", names);
@@ -328,18 +457,23 @@ public class LedgerController {
 	     * 🔹 GET All Supplier Names (for dropdown/autocomplete)
 	     * 
 	     * Endpoint: GET /api/ledger/suppliers/names
+	     * Query Params:
+	     *   - q (optional): typed text; prefix matches first, then names containing it
+	     *   - limit (optional): max suggestions when q is given, default 20
 	     * 
-	     * Returns a list of all unique supplier names in the system
-	     * Useful for populating dropdowns in frontend
+	     * Served from the in-memory supplier name index - no database query.
+	     * Without q, returns every supplier name.
 	     * 
 	     * @return List of supplier names
 	     */
 	    @GetMapping("/suppliers/names")
-	    public ResponseEntity<Map<String, Object>> getAllSupplierNames() {
-	        log.info("📋 REST API: Fetching all supplier names");
+	    public ResponseEntity<Map<String, Object>> getAllSupplierNames(
+	            @RequestParam(required = false) String q,
+	            @RequestParam(defaultValue = "20") int limit) {
+	        log.info("📋 REST API: Fetching supplier names for: {}", q != null ? q : "ALL");
 	        
 	        try {
-	            List<String> names = ledgerService.getAllSupplierNames();
+	            List<String> names = ledgerService.getSupplierNames(q, Math.max(1, limit));
 	            
 	            Map<String, Object> response = new HashMap<>();
 	            response.put("suppliers", names);
@@ -479,7 +613,7 @@ public class LedgerController {
 	        
 	        try {
 	            // Fetch supplier ledger data
-	            var ledgerData = ledgerService.getSupplierLedger(name);
+	            var ledgerData = ledgerService.getSupplierLedger(name, null, LedgerSummaryService.MAX_PAGE_SIZE);
 	            
 	            // Add data to model
 	            model.addAttribute("supplierName", ledgerData.getEntityName());
@@ -525,7 +659,7 @@ public class LedgerController {
 	        
 	        try {
 	            // Fetch customer ledger data
-	            var ledgerData = ledgerService.getCustomerLedger(name);
+	            var ledgerData = ledgerService.getCustomerLedger(name, null, LedgerSummaryService.MAX_PAGE_SIZE);
 	            
 	            // Add data to model
 	            model.addAttribute("customerName", ledgerData.getEntityName());
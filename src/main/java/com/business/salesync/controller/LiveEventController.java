@@ -0,0 +1,53 @@
+package com.business.salesync.controller;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.business.salesync.service.LiveEventService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 📡 Live Event Controller - Server-Sent Events stream for dashboards and POS screens
+ */
+@RestController
+@RequestMapping("/api/live")
+@RequiredArgsConstructor
+public class LiveEventController {
+
+    private final LiveEventService liveEventService;
+
+    /**
+     * 🔹 GET Live Events
+     *
+     * Endpoint: GET /api/live/events
+     * Query Params:
+     *   - topics (optional): Comma separated sales, stock, payments, returns (default all)
+     *
+     * Events (data is JSON):
+     *   - sales-totals: today / thisWeek / thisMonth / orders, latest only
+     *   - sale:         order placed
+     *   - stock:        productId / available, latest per product
+     *   - payment:      payment received
+     *   - return:       sales or purchase return processed
+     *   - resync:       the client fell behind and events were dropped; reload the figures
+     *
+     * Example: new EventSource("/api/live/events?topics=sales,stock")
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestParam(required = false) String topics) {
+        Set<String> requested = topics == null ? Set.of() : Arrays.stream(topics.split(","))
+                .map(topic -> topic.trim().toLowerCase())
+                .filter(LiveEventService.ALL_TOPICS::contains)
+                .collect(Collectors.toSet());
+        return liveEventService.subscribe(requested);
+    }
+}
@@ -1,29 +1,38 @@
 package com.business.salesync.controller;
 
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.business.salesync.dto.BulkCheckoutResultDTO;
+import com.business.salesync.dto.CheckoutDTO;
+import com.business.salesync.dto.CheckoutItemDTO;
+import com.business.salesync.dto.ScanResultDTO;
 import com.business.salesync.models.Customer;
+import com.business.salesync.models.DocumentLink.DocumentType;
 import com.business.salesync.models.FinancialAccount;
 import com.business.salesync.models.OrderDetails;
 import com.business.salesync.models.Payment;
@@ -36,10 +45,15 @@ import com.business.salesync.repository.FinancialAccountRepository;
 import com.business.salesync.repository.OrderRepository;
 import com.business.salesync.repository.PaymentRepository;
 import com.business.salesync.repository.ProductRepository;
+import com.business.salesync.service.BulkCheckoutService;
+import com.business.salesync.service.CatalogSnapshotService;
+import com.business.salesync.service.CheckoutService;
+import com.business.salesync.service.DocumentLinkService;
+import com.business.salesync.service.DocumentNumberService;
 import com.business.salesync.service.FinancialAccountService;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.qrcode.QRCodeWriter;
+import com.business.salesync.service.InvoiceQrService;
+import com.business.salesync.service.ProductScanIndex;
+import com.business.salesync.service.StockService;
 
 
 
@@ -70,14 +84,37 @@ public class PosController {
     
     @Autowired
     private FinancialAccountService financialAccountService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private BulkCheckoutService bulkCheckoutService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private InvoiceQrService invoiceQrService;
+
+    @Autowired
+    private ProductScanIndex productScanIndex;
+
+    @Autowired
+    private DocumentNumberService documentNumberService;
+
+    @Autowired
+    private DocumentLinkService documentLinkService;
     
     
 
     @GetMapping("/pos")
     public String showPosPage(Model model) {
+        // Products and categories are loaded by the page from /pos/catalog
         model.addAttribute("customers", customerRepository.findAll());
-        model.addAttribute("categories", categoryRepository.findAll());
-        model.addAttribute("products", productRepository.findAll());
 
         // Add this line:
         model.addAttribute("customer", new Customer());
@@ -85,6 +122,43 @@ public class PosController {
         return "fragments/pos";
     }
 
+    // ✅ Cached catalog snapshot: 304 when the POS already has the current version
+    @GetMapping("/pos/catalog")
+    @ResponseBody
+    public ResponseEntity<byte[]> getCatalog(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.getSnapshot();
+
+        if (ifNoneMatch != null && ifNoneMatch.contains(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? snapshot.getGzipped() : snapshot.getJson());
+    }
+
+    // ✅ Live sellable stock per product (kept out of the snapshot, it changes on every sale)
+    @GetMapping("/pos/catalog/stock")
+    @ResponseBody
+    public ResponseEntity<Map<Long, Integer>> getCatalogStock() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(stockService.availableQuantities());
+    }
+
 
 	/*
     @PostMapping("/pos/checkout")
@@ -266,154 +340,84 @@ public class PosController {
     @PostMapping("/pos/checkout")
     public String checkout(@RequestParam Map<String, String> formData, RedirectAttributes redirect) {
 
-        // ✅ Debug: Print all form data
-        System.out.println("=== FORM DATA RECEIVED ===");
-        formData.forEach((key, value) -> System.out.println(key + " = " + value));
-        System.out.println("==========================");
-
         try {
-            String invoiceNumber = formData.get("invoiceNumber");
-
-            // ✅ Safe BigDecimal parsing
-            BigDecimal subTotal = parseBigDecimalSafe(formData.get("subTotal"));
-            BigDecimal discount = parseBigDecimalSafe(formData.get("discount"));
-            BigDecimal grandTotal = parseBigDecimalSafe(formData.get("grandTotal"));
-            BigDecimal amountPaid = parseBigDecimalSafe(formData.get("amountPaid"));
-            BigDecimal amountDue = parseBigDecimalSafe(formData.get("amountDue"));
+            CheckoutDTO request = toCheckoutRequest(formData);
 
             // ✅ Validate required fields
-            if (grandTotal == null || amountPaid == null) {
+            if (request.getGrandTotal() == null || request.getAmountPaid() == null) {
                 redirect.addFlashAttribute("error", "Grand total and amount paid are required");
                 return "redirect:/pos";
             }
 
-            Long customerId = formData.get("customerId") != null && !formData.get("customerId").isEmpty()
-                    ? Long.parseLong(formData.get("customerId")) : null;
-
-            Customer customer = (customerId != null)
-                    ? customerRepository.findById(customerId).orElse(null)
-                    : customerRepository.findById(1L).orElse(null); // fallback Walk-in
-
-            SalesOrder order = new SalesOrder();
-            order.setInvoiceNumber(invoiceNumber);
-            order.setTotalAmount(subTotal);
-            order.setDiscount(discount != null ? discount : BigDecimal.ZERO);
-            order.setGrandTotal(grandTotal);
-            order.setAmountPaid(amountPaid);
-            order.setAmountDue(amountDue != null ? amountDue : BigDecimal.ZERO);
-            order.setDateOrdered(LocalDate.now());
-            order.setCustomer(customer);
-
-            List<OrderDetails> details = new ArrayList<>();
-
-            // ✅ Process products
-            formData.entrySet().stream()
-                .filter(e -> e.getKey().startsWith("product_"))
-                .forEach(e -> {
-                    try {
-                        Long productId = Long.parseLong(e.getKey().split("_")[1]);
-                        String quantityStr = formData.get("quantity_" + productId);
-                        String priceStr = formData.get("sellingPrice_" + productId);
-                        if (quantityStr == null || priceStr == null) return;
-
-                        int quantity = Integer.parseInt(quantityStr);
-                        BigDecimal price = parseBigDecimalSafe(priceStr);
-                        if (price == null) return;
+            // ✅ Order, stock, payment and ledger entry commit in one transaction
+            SalesOrder order = checkoutService.checkout(request);
 
-                        Product product = productRepository.findById(productId).orElse(null);
-                        if (product != null) {
-                            int currentStock = product.getQuantity();
-                            if (currentStock < quantity) throw new RuntimeException("Insufficient stock for " + product.getName());
-                            product.setQuantity(currentStock - quantity);
-                            productRepository.save(product);
+            redirect.addFlashAttribute("success", "Order placed successfully. Invoice: " + order.getInvoiceNumber());
+            return "redirect:/pos/invoice/" + order.getId();
 
-                            OrderDetails od = new OrderDetails();
-                            od.setOrder(order);
-                            od.setProduct(product);
-                            od.setQuantity(quantity);
-                            od.setUnitPrice(price);
-                            od.setInvoiceNumber(invoiceNumber);
-                            details.add(od);
-                        }
-                    } catch (Exception ex) {
-                        System.err.println("Error processing product: " + e.getKey() + " - " + ex.getMessage());
-                    }
-                });
+        } catch (Exception e) {
+            e.printStackTrace();
+            redirect.addFlashAttribute("error", "Checkout failed: " + e.getMessage());
+            return "redirect:/pos";
+        }
+    }
 
-            if (details.isEmpty()) {
-                redirect.addFlashAttribute("error", "No valid products in order");
-                return "redirect:/pos";
-            }
+    // ✅ Barcode/SKU scan straight from the in-memory index
+    @GetMapping("/pos/scan/{code}")
+    @ResponseBody
+    public ResponseEntity<ScanResultDTO> scan(@PathVariable String code) {
+        ScanResultDTO result = productScanIndex.lookup(code);
+        return result != null ? ResponseEntity.ok(result) : ResponseEntity.notFound().build();
+    }
 
-            order.setOrderDetails(details);
-            orderRepository.save(order);
+    // ✅ Terminals drain their offline queue here; each sale carries its own idempotency key
+    @PostMapping("/pos/checkout/bulk")
+    @ResponseBody
+    public ResponseEntity<List<BulkCheckoutResultDTO>> bulkCheckout(@RequestBody List<CheckoutDTO> sales) {
+        return ResponseEntity.ok(bulkCheckoutService.process(sales));
+    }
 
-            // ✅ Save Payment using PaymentController helper
-            if (amountPaid.compareTo(BigDecimal.ZERO) > 0) {
-                String entityName = (customer != null) ? customer.getName() : "Walk-in Customer";
-                paymentController.savePaymentRecord(
-                        order.getId(),
-                        Payment.RefType.SALE_ORDER,
-                        order.getTotalAmount(),
-                        order.getTotalVat(),
-                        order.getDiscount(),
-                        order.getGrandTotal(),
-                        order.getAmountPaid(),
-                        order.getAmountDue(),
-                        entityName
-                );
-            }
-            
-            // -------------------------------
-            // 1️⃣ Record financial transaction
-            // -------------------------------
-            if (amountPaid.compareTo(BigDecimal.ZERO) > 0) {
-                String entityName = (customer != null) ? customer.getName() : "Walk-in Customer";
-
-                // Decide account name based on payment method
-                String paymentMethod = formData.get("paymentMethod"); // "Cash", "bKash", "Bank Transfer"
-                String finAccName = switch (paymentMethod) {
-                    case "Cash" -> "Cash at Hand";
-                    case "bKash" -> "bKash";
-                    case "Bank Transfer" -> "Pubali Bank PLC"; // choose appropriate bank
-                    default -> "Cash at Hand";
-                };
-
-                String transactionType = "CASH_IN"; // POS collection is money coming in
-                
-                PaymentStatus poPaymentStatus;
-                if (amountPaid.compareTo(BigDecimal.ZERO) <= 0) {
-                    poPaymentStatus = PaymentStatus.PENDING;
-                } else if (amountPaid.compareTo(grandTotal) < 0) {
-                    poPaymentStatus = PaymentStatus.PARTIALLY_PAID;
-                } else {
-                    poPaymentStatus = PaymentStatus.PAID;
+    // ✅ Convert the flat POS form (product_{id}, quantity_{id}, sellingPrice_{id}) into a checkout request
+    private CheckoutDTO toCheckoutRequest(Map<String, String> formData) {
+        String customerIdStr = formData.get("customerId");
+        String cartToken = formData.get("cartToken");
+
+        CheckoutDTO request = CheckoutDTO.builder()
+                .idempotencyKey(formData.get("idempotencyKey"))
+                .invoiceNumber(formData.get("invoiceNumber"))
+                .customerId(customerIdStr != null && !customerIdStr.isEmpty() ? Long.parseLong(customerIdStr) : null)
+                .subTotal(parseBigDecimalSafe(formData.get("subTotal")))
+                .discount(parseBigDecimalSafe(formData.get("discount")))
+                .grandTotal(parseBigDecimalSafe(formData.get("grandTotal")))
+                .amountPaid(parseBigDecimalSafe(formData.get("amountPaid")))
+                .amountDue(parseBigDecimalSafe(formData.get("amountDue")))
+                .paymentMethod(formData.get("paymentMethod"))
+                .finAccName(formData.get("finAccName"))
+                .cartToken(cartToken != null && !cartToken.isBlank() ? cartToken : null)
+                .build();
+
+        // ✅ A line that cannot be read fails the whole sale rather than dropping out of it
+        for (String key : formData.keySet()) {
+            if (!key.startsWith("product_")) continue;
+            try {
+                Long productId = Long.parseLong(key.split("_")[1]);
+                String quantityStr = formData.get("quantity_" + productId);
+                BigDecimal price = parseBigDecimalSafe(formData.get("sellingPrice_" + productId));
+                if (quantityStr == null || price == null) {
+                    throw new IllegalArgumentException("Missing or invalid quantity/price for product " + productId);
                 }
 
-
-                financialAccountService.recordTransaction(
-                        finAccName,
-                        paymentMethod,        // finAccType
-                        amountPaid.doubleValue(),
-                        transactionType,      // CASH_IN
-                        "SALE_ORDER",         // refType
-                        "CUSTOMER",           // entityType
-                        entityName,
-                        invoiceNumber,        // trnRefNo
-                        order.getId(),        // refId
-                        "POS Sale Payment",   // remarks
-                        poPaymentStatus.name()         // paymentStatus as String
-                );
+                request.getItems().add(CheckoutItemDTO.builder()
+                        .productId(productId)
+                        .quantity(Integer.parseInt(quantityStr.trim()))
+                        .unitPrice(price)
+                        .build());
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                throw new IllegalArgumentException("Invalid cart line " + key + ": " + ex.getMessage());
             }
-
-            redirect.addFlashAttribute("success", "Order placed successfully. Invoice: " + invoiceNumber);
-            return "redirect:/pos/invoice/" + order.getId();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            redirect.addFlashAttribute("error", "Checkout failed: " + e.getMessage());
-            return "redirect:/pos";
         }
+
+        return request;
     }
 
 
@@ -448,19 +452,8 @@ public class PosController {
 
         String invoiceNumber = order.getInvoiceNumber();
 
-        // Create full URL to encode in QR code
-        String url = "http://localhost:8080/pos/invoice/" + order.getId() + "?inv=" + invoiceNumber;
-
-        // Generate QR code
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BufferedImage qrImage = MatrixToImageWriter.toBufferedImage(
-            qrCodeWriter.encode(url, BarcodeFormat.QR_CODE, 200, 200)
-        );
-
-        // Convert QR image to Base64 for embedding in HTML
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        javax.imageio.ImageIO.write(qrImage, "PNG", baos);
-        String qrCodeBase64 = Base64.getEncoder().encodeToString(baos.toByteArray());
+        // QR image is served separately from /pos/invoice/{id}/qr.png
+        String url = invoiceQrService.invoiceUrl(order.getId(), invoiceNumber);
 
         // ✅ Compute display values
         BigDecimal discount = order.getDiscount() != null ? order.getDiscount() : BigDecimal.ZERO;
@@ -472,8 +465,8 @@ public class PosController {
         // ✅ Add all data to model
         model.addAttribute("order", order);
         model.addAttribute("invoiceNumber", invoiceNumber);
-        model.addAttribute("qrCode", qrCodeBase64);
         model.addAttribute("qrUrl", url);
+        model.addAttribute("qrVersion", invoiceQrService.getOrCreate(order.getId(), invoiceNumber).getVersion());
 
         // Financial summary
         model.addAttribute("discount", discount);
@@ -485,6 +478,39 @@ public class PosController {
         return "fragments/invoice"; // invoice.html
     }
 
+    // ✅ Invoice QR as a PNG only the viewer's browser may cache; a URL versioned with the
+    //    image's own hash is kept for good, anything else is revalidated against the ETag
+    @GetMapping("/pos/invoice/{id}/qr.png")
+    @ResponseBody
+    public ResponseEntity<byte[]> getInvoiceQr(
+            @PathVariable Long id,
+            @RequestParam("inv") String invoiceNumber,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        InvoiceQrService.QrImage image = invoiceQrService.getCached(id, invoiceNumber);
+        if (image == null) {
+            // First render: make sure the pair is a real invoice before caching it
+            SalesOrder order = orderRepository.findById(id).orElse(null);
+            if (order == null || !invoiceNumber.equals(order.getInvoiceNumber())) {
+                return ResponseEntity.notFound().build();
+            }
+            image = invoiceQrService.getOrCreate(id, invoiceNumber);
+        }
+
+        CacheControl cacheControl = image.getVersion().equals(version)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+        if (ifNoneMatch != null && ifNoneMatch.contains(image.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(image.getEtag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(image.getEtag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.IMAGE_PNG)
+                .body(image.getPng());
+    }
+
     
     @PostMapping("/pos/receivePayment")
     @ResponseBody
@@ -512,6 +538,7 @@ public class PosController {
 
         // --- 2️⃣ Create Payment Record ---
         Payment payment = new Payment();
+        payment.setPaymentNo(documentNumberService.next(DocumentNumberService.DocumentType.PAYMENT));
         payment.setRefId(order.getId());
         payment.setRefType(Payment.RefType.SALE_ORDER);
         payment.setEntityType("Customer");
@@ -553,39 +580,21 @@ public class PosController {
 
     // Helper to update FinancialAccount
     private void updateFinancialAccountForPayment(SalesOrder order, Payment payment) {
-        String accountName = payment.getFromAccount(); // e.g. "Cash at Hand"
-
-        // Find matching account (master)
-        List<FinancialAccount> accounts = financialAccountRepository.findByFinAccNameIgnoreCase(accountName);
-        if (accounts.isEmpty()) {
-            throw new RuntimeException("Financial account not found: " + accountName);
-        }
-
-        FinancialAccount account = accounts.get(0);
-
-        // Create new transaction row (ledger entry)
-        FinancialAccount trn = new FinancialAccount();
-        trn.setFinAccId(account.getFinAccId());
-        trn.setFinAccName(account.getFinAccName());
-        trn.setFinAccType(account.getFinAccType());
-        trn.setTrnDate(LocalDateTime.now());
-        trn.setRefId(order.getId());
-        trn.setTrnRefNo(order.getInvoiceNumber()); // ✅ Save the actual invoice number
-        trn.setRefType("SALE_ORDER");
-        trn.setTransactionType("CASH_IN");
-        trn.setEntityName(order.getCustomer().getName());
-        trn.setEntityType("CUSTOMER");
-        trn.setPaymentMethod(payment.getMethod());
-        trn.setPaymentStatus(payment.getPaymentStatus().name());
-        trn.setCreditAmount(payment.getPaidAmount().doubleValue());
-        trn.setCurrentBalance(account.getCurrentBalance() + payment.getPaidAmount().doubleValue());
-        trn.setBalanceAfterTransaction(account.getCurrentBalance() + payment.getPaidAmount().doubleValue());
-        trn.setRemarks("Payment received for invoice " + order.getInvoiceNumber());
-
-        // Update main account balance
-        account.setCurrentBalance(account.getCurrentBalance() + payment.getPaidAmount().doubleValue());
-        financialAccountRepository.save(account);
-        financialAccountRepository.save(trn);
+        // Posted through FinancialAccountService so the balance moves atomically in the database
+        FinancialAccount posting = financialAccountService.recordTransaction(
+                payment.getFromAccount(),                        // e.g. "Cash at Hand"
+                payment.getMethod(),
+                payment.getPaidAmount().doubleValue(),
+                "CASH_IN",
+                "SALE_ORDER",
+                "CUSTOMER",
+                order.getCustomer() != null ? order.getCustomer().getName() : "Walk-in Customer",
+                order.getInvoiceNumber(),                        // ✅ Save the actual invoice number
+                order.getId(),
+                "Payment received for invoice " + order.getInvoiceNumber(),
+                payment.getPaymentStatus().name()
+        );
+        documentLinkService.link(DocumentType.PAYMENT, payment.getId(), DocumentType.LEDGER, posting.getId());
     }
 
 
@@ -1,9 +1,18 @@
 package com.business.salesync.controller;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -17,6 +26,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.business.salesync.models.Brand;
 import com.business.salesync.models.Category;
@@ -26,6 +36,10 @@ import com.business.salesync.repository.BrandRepository;
 import com.business.salesync.repository.CategoryRepository;
 import com.business.salesync.repository.ProductRepository;
 import com.business.salesync.repository.SupplierRepository;
+import com.business.salesync.service.ProductSearchIndex;
+import com.business.salesync.service.StockLevelTracker;
+import com.business.salesync.service.StockLevelTracker.StockFilter;
+import com.business.salesync.service.StockValuationService;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -43,6 +57,12 @@ public class ProductController {
     private BrandRepository brandRepository;
     @Autowired
     private SupplierRepository supplierRepository;
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    @Autowired
+    private StockLevelTracker stockLevelTracker;
+    @Autowired
+    private StockValuationService stockValuationService;
 
 	/*-
     @GetMapping("/products")
@@ -69,7 +89,7 @@ public class ProductController {
             @RequestParam(required = false) Long category,
             @RequestParam(required = false) Long brand,
             @RequestParam(required = false) String stockStatus,
-            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "asc") String direction,
             Model model) {
         
@@ -80,14 +100,22 @@ public class ProductController {
         System.out.println("Stock Status: " + stockStatus);
         System.out.println("Sort: " + sort + ", Direction: " + direction);
         
-        // Build dynamic query based on filters
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sort));
-        Page<Product> productPage = productRepository.findWithFilters(search, category, brand, stockStatus, pageable);
+        // Text search ranks by relevance unless a column sort was picked
+        boolean searching = search != null && !search.isBlank();
+        String effectiveSort = sort != null && !sort.isBlank() ? sort : (searching ? "relevance" : "name");
+        Page<Product> productPage;
+        if (searching) {
+            productPage = searchPage(search, category, brand, stockStatus, page, size, effectiveSort, direction, model);
+        } else {
+            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), effectiveSort));
+            StockFilter stock = stockLevelTracker.filter(stockStatus);
+            productPage = productRepository.findWithFilters(category, brand, stock.status(), pageable);
+        }
         
         // Calculate summary statistics
         long totalProducts = productRepository.count();
-        long lowStockCount = productRepository.countLowStockProducts();
-        BigDecimal totalStockValue = productRepository.calculateTotalStockValue();
+        long lowStockCount = stockLevelTracker.lowStockCount();
+        StockValuationService.Value stockValue = stockValuationService.total();
         
         // Add all parameters to model for thymeleaf - handle nulls
         model.addAttribute("product_page", productPage);
@@ -95,14 +123,16 @@ public class ProductController {
         model.addAttribute("brands", brandRepository.findAll());
         model.addAttribute("totalProducts", totalProducts);
         model.addAttribute("lowStockCount", lowStockCount);
-        model.addAttribute("totalStockValue", totalStockValue != null ? totalStockValue : BigDecimal.ZERO);
+        model.addAttribute("totalStockValue", stockValue.atSellingPrice());
+        model.addAttribute("totalStockCost", stockValue.atCost());
         
         // Add filter parameters to maintain state - handle nulls properly
         model.addAttribute("currentSearch", search != null ? search : "");
         model.addAttribute("currentCategory", category);
         model.addAttribute("currentBrand", brand);
         model.addAttribute("currentStockStatus", stockStatus != null ? stockStatus : "");
-        model.addAttribute("currentSort", sort);
+        model.addAttribute("currentSort", effectiveSort);
+        model.addAttribute("requestedSort", sort != null ? sort : "");
         model.addAttribute("currentDirection", direction);
         model.addAttribute("currentPage", page);
         model.addAttribute("currentSize", size);
@@ -167,6 +197,95 @@ public class ProductController {
         return "fragments/products";
     }*/
 
+    /**
+     * 🔍 Ranked product search for typeahead boxes
+     *
+     * Endpoint: GET /products/search?q=green tea&limit=10
+     * Prefix and one-typo matching on name, SKU and barcode; best matches first.
+     */
+    @GetMapping("/products/search")
+    @ResponseBody
+    public List<ProductSearchIndex.Hit> searchProducts(@RequestParam("q") String query,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        return productSearchIndex.search(query, Math.min(Math.max(limit, 1), 50));
+    }
+
+    /**
+     * 💰 Stock value at selling price and at cost, per category and per brand
+     *
+     * Endpoint: GET /products/stock-value
+     * Served from running totals; groups without a category or brand are named "None".
+     */
+    @GetMapping("/products/stock-value")
+    @ResponseBody
+    public Map<String, Object> stockValue() {
+        StockValuationService.Valuation valuation = stockValuationService.valuation();
+        Map<Long, String> categoryNames = new HashMap<>();
+        categoryRepository.findAll().forEach(c -> categoryNames.put(c.getId(), c.getName()));
+        Map<Long, String> brandNames = new HashMap<>();
+        brandRepository.findAll().forEach(b -> brandNames.put(b.getId(), b.getName()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("atSellingPrice", valuation.total().atSellingPrice());
+        response.put("atCost", valuation.total().atCost());
+        response.put("byCategory", valueRows(valuation.byCategory(), categoryNames));
+        response.put("byBrand", valueRows(valuation.byBrand(), brandNames));
+        return response;
+    }
+
+    private static List<Map<String, Object>> valueRows(Map<Long, StockValuationService.Value> values,
+                                                       Map<Long, String> names) {
+        return values.entrySet().stream()
+                .sorted((a, b) -> b.getValue().atSellingPrice().compareTo(a.getValue().atSellingPrice()))
+                .map(e -> {
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("id", e.getKey());
+                    row.put("name", e.getKey() == StockValuationService.NONE ? "None" : names.get(e.getKey()));
+                    row.put("atSellingPrice", e.getValue().atSellingPrice());
+                    row.put("atCost", e.getValue().atCost());
+                    return row;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /** Search hits that pass the list filters, in relevance order or sorted by a column */
+    private Page<Product> searchPage(String search, Long category, Long brand, String stockStatus,
+                                     int page, int size, String sort, String direction, Model model) {
+        ProductSearchIndex.Result result = productSearchIndex.find(search, ProductSearchIndex.MAX_RESULTS);
+        if (result.capped()) {
+            // Pages cover the best MAX_RESULTS only; the page says how many more matched
+            model.addAttribute("searchMatches", result.matches());
+            model.addAttribute("searchLimit", ProductSearchIndex.MAX_RESULTS);
+        }
+        List<Long> ranked = result.hits().stream().map(ProductSearchIndex.Hit::id).collect(Collectors.toList());
+        if (ranked.isEmpty()) {
+            return Page.empty(PageRequest.of(page, size));
+        }
+        StockFilter stock = stockLevelTracker.filter(stockStatus);
+        if (!"relevance".equals(sort)) {
+            return productRepository.findByIdInWithFilters(ranked, category, brand, stock.status(),
+                    PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sort)));
+        }
+
+        // Stock status is checked in memory; only category and brand need the database
+        ranked = ranked.stream().filter(stock::matches).collect(Collectors.toList());
+        if (!ranked.isEmpty() && (category != null || brand != null)) {
+            Set<Long> passing = new HashSet<>(productRepository.findIdsWithFilters(ranked, category, brand,
+                    StockLevelTracker.ANY.status()));
+            ranked = ranked.stream().filter(passing::contains).collect(Collectors.toList());
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        List<Long> pageIds = ranked.subList(from, Math.min(from + size, ranked.size()));
+
+        // findAllById returns rows in any order: put them back in rank order
+        Map<Long, Product> byId = new HashMap<>();
+        productRepository.findAllById(pageIds).forEach(p -> byId.put(p.getId(), p));
+        List<Product> content = pageIds.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
     @GetMapping(value = {"/product", "/product/{id}"})
     public String viewProduct(Model model, @PathVariable(required = false) Long id) {
 
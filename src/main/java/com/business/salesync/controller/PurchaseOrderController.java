@@ -13,6 +13,7 @@ import com.business.salesync.models.Product;
 import com.business.salesync.models.PurchaseOrder;
 import com.business.salesync.models.PurchaseOrder.PaymentStatus;
 import com.business.salesync.models.PurchaseOrderItem;
+import com.business.salesync.models.StockMovement.Reason;
 import com.business.salesync.models.Supplier;
 import com.business.salesync.repository.PaymentRepository;
 import com.business.salesync.repository.ProductRepository;
@@ -20,7 +21,10 @@ import com.business.salesync.repository.PurchaseOrderItemRepository;
 import com.business.salesync.repository.PurchaseOrderRepository;
 import com.business.salesync.repository.SupplierRepository;
 import com.business.salesync.service.FinancialAccountService;
+import com.business.salesync.service.DocumentNumberService;
 import com.business.salesync.service.PONumberService;
+import com.business.salesync.service.CostingService;
+import com.business.salesync.service.StockService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.math.BigDecimal;
@@ -30,6 +34,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -49,6 +54,9 @@ public class PurchaseOrderController {
     private final PaymentController paymentController;
     private final FinancialAccountService financialAccountService;
     private final PONumberService poNumberService;
+    private final StockService stockService;
+    private final CostingService costingService;
+    private final DocumentNumberService documentNumberService;
 
     // =======================
     // 1️⃣ List all purchase orders
@@ -79,13 +87,8 @@ public class PurchaseOrderController {
     public String showPurchaseForm(Model model) {
         PurchaseOrder po = new PurchaseOrder();
 
-        // Generate PO number
-        PurchaseOrder lastPo = purchaseOrderRepo.findTopByOrderByInsertDateDesc();
-        String poNo = "PO-" + LocalDateTime.now().toLocalDate().toString().replace("-", "") + "-001";
-        if (lastPo != null && lastPo.getPurchaseOrderNo() != null) {
-            poNo = incrementPONumber(lastPo.getPurchaseOrderNo());
-        }
-        po.setPurchaseOrderNo(poNo);
+        // PO number is issued on save so abandoned forms do not burn numbers
+        po.setPurchaseOrderNo("Auto-generated on save");
 
         // Get data
         List<Supplier> suppliers = supplierRepo.findAll();
@@ -121,17 +124,6 @@ public class PurchaseOrderController {
         return "fragments/purchase_form";
     }
 
-    private String incrementPONumber(String lastPoNo) {
-        try {
-            String[] parts = lastPoNo.split("-");
-            int number = Integer.parseInt(parts[2]);
-            number++;
-            return parts[0] + "-" + parts[1] + "-" + String.format("%03d", number);
-        } catch (Exception e) {
-            return "PO-" + LocalDateTime.now().toLocalDate().toString().replace("-", "") + "-001";
-        }
-    }
-
     // =======================
     // 3️⃣ Save purchase order with VAT, discount, and stock update
     // =======================
@@ -168,6 +160,7 @@ public class PurchaseOrderController {
         purchaseOrder.setStatus("RECEIVED");
 
         List<PurchaseOrderItem> items = new ArrayList<>();
+        Map<Long, Receipt> receipts = new LinkedHashMap<>();
         double totalAmount = 0;
         double totalVatAmount = 0;
 
@@ -205,8 +198,13 @@ public class PurchaseOrderController {
             totalAmount += subtotal;
             totalVatAmount += vatAmount;
 
-            // Update product stock & pricing
-            updateProductStockAndCost(product, qty, purchasePrice, sellingPrice);
+            // Lines for the same product are received together, so the average sees one stock figure
+            receipts.computeIfAbsent(productId, id -> new Receipt(product)).add(qty, purchasePrice, sellingPrice);
+        }
+
+        // Update product stock & pricing
+        for (Receipt receipt : receipts.values()) {
+            updateProductStockAndCost(receipt.product, receipt.quantity, receipt.cost, receipt.sellingPrice, poNumber);
         }
 
         // ✅ Calculate totals
@@ -296,13 +294,32 @@ public class PurchaseOrderController {
     }
 
 
+    /** Units of one product received on a purchase order, summed over its lines */
+    private static final class Receipt {
+        private final Product product;
+        private int quantity;
+        private BigDecimal cost = BigDecimal.ZERO;
+        private double sellingPrice;
+
+        private Receipt(Product product) {
+            this.product = product;
+        }
+
+        private void add(int qty, double purchasePrice, double sellingPrice) {
+            this.quantity += qty;
+            this.cost = this.cost.add(BigDecimal.valueOf(purchasePrice).multiply(BigDecimal.valueOf(qty)));
+            this.sellingPrice = sellingPrice; // last line's price wins, as it did line by line
+        }
+    }
+
     /**
      * Update product stock and calculate weighted average cost
      */
     private void updateProductStockAndCost(Product product, int purchasedQty, 
-                                         double purchasePrice, double sellingPrice) {
+                                         BigDecimal purchasedCost, double sellingPrice, String poNumber) {
         int currentStock = product.getQuantity();
         BigDecimal currentCost = product.getCostPrice() != null ? product.getCostPrice() : BigDecimal.ZERO;
+        BigDecimal unitCost = purchasedCost.divide(BigDecimal.valueOf(purchasedQty), 4, RoundingMode.HALF_UP);
         
         // Calculate new stock
         int newStock = currentStock + purchasedQty;
@@ -311,15 +328,15 @@ public class PurchaseOrderController {
         BigDecimal newCost;
         if (newStock > 0) {
             BigDecimal currentTotalCost = currentCost.multiply(BigDecimal.valueOf(currentStock));
-            BigDecimal newTotalCost = BigDecimal.valueOf(purchasePrice * purchasedQty);
-            BigDecimal totalCost = currentTotalCost.add(newTotalCost);
+            BigDecimal totalCost = currentTotalCost.add(purchasedCost);
             newCost = totalCost.divide(BigDecimal.valueOf(newStock), 2, RoundingMode.HALF_UP);
         } else {
-            newCost = BigDecimal.valueOf(purchasePrice);
+            newCost = unitCost.setScale(2, RoundingMode.HALF_UP);
         }
         
-        // Update product
-        product.setQuantity(newStock);
+        // Stock goes up atomically; only the price columns are written from here
+        stockService.increment(product.getId(), purchasedQty, Reason.PURCHASE, poNumber);
+        costingService.receive(product.getId(), purchasedQty, unitCost, poNumber);
         product.setCostPrice(newCost);
         product.setSellingPrice(BigDecimal.valueOf(sellingPrice));
         product.setUpdatedAt(LocalDateTime.now());
@@ -341,6 +358,7 @@ public class PurchaseOrderController {
         if (amountPaid <= 0) return null; // no payment to save
 
         Payment payment = Payment.builder()
+                .paymentNo(documentNumberService.next(DocumentNumberService.DocumentType.PAYMENT))
                 .refId(purchaseOrder.getId())
                 .refType(Payment.RefType.PURCHASE_ORDER)
                 .totalAmount(BigDecimal.valueOf(totalAmount))
@@ -391,7 +409,7 @@ public class PurchaseOrderController {
             
             // Rollback product stock for all items
             for (PurchaseOrderItem item : po.getItems()) {
-                rollbackProductStock(item.getProduct(), item.getQuantity());
+                rollbackProductStock(item.getProduct(), item.getQuantity(), po.getPurchaseOrderNo());
             }
             
             purchaseOrderRepo.delete(po);
@@ -405,13 +423,9 @@ public class PurchaseOrderController {
     /**
      * Rollback product stock when deleting purchase order
      */
-    private void rollbackProductStock(Product product, int purchasedQty) {
-        int currentStock = product.getQuantity();
-        int newStock = Math.max(0, currentStock - purchasedQty); // Prevent negative stock
-        
-        product.setQuantity(newStock);
-        product.setUpdatedAt(LocalDateTime.now());
-        productRepo.save(product);
+    private void rollbackProductStock(Product product, int purchasedQty, String poNumber) {
+        stockService.decrementUpTo(product.getId(), purchasedQty, Reason.PURCHASE_DELETE, poNumber); // Prevent negative stock
+        costingService.withdraw(product.getId(), purchasedQty, poNumber);
     }
 
     // =======================
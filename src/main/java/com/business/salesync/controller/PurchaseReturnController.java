@@ -19,6 +19,7 @@ import com.business.salesync.repository.ProductRepository;
 import com.business.salesync.repository.PurchaseReturnItemRepository;
 import com.business.salesync.repository.PurchaseReturnRepository;
 import com.business.salesync.repository.SupplierRepository;
+import com.business.salesync.service.DocumentNumberService;
 import com.business.salesync.service.FinancialAccountService;
 import com.business.salesync.service.ReturnService;
 
@@ -35,6 +36,7 @@ public class PurchaseReturnController {
     private final ProductRepository productRepo;
     private final FinancialAccountService financialAccountService;
     private final ReturnService returnService;
+    private final DocumentNumberService documentNumberService;
 
     /** ✅ Show all Purchase Returns (list view) */
     @GetMapping
@@ -73,7 +75,7 @@ public class PurchaseReturnController {
         // Auto timestamp and reference number
         purchaseReturn.setReturnDate(LocalDateTime.now());
         if (purchaseReturn.getReturnRefNo() == null || purchaseReturn.getReturnRefNo().isBlank()) {
-            purchaseReturn.setReturnRefNo("PR-" + System.currentTimeMillis());
+            purchaseReturn.setReturnRefNo(documentNumberService.next(DocumentNumberService.DocumentType.PURCHASE_RETURN));
         }
 
         // Link items with parent entity
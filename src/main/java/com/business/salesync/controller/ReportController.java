@@ -1,23 +1,36 @@
 package com.business.salesync.controller;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
-import com.business.salesync.models.OrderDetails;
-import com.business.salesync.models.SalesOrder;
+import com.business.salesync.dto.SalesReportLineDTO;
 import com.business.salesync.repository.CustomerRepository;
-import com.business.salesync.repository.OrderRepository;
 import com.business.salesync.repository.ProductRepository;
+import com.business.salesync.service.ReportJobService;
+import com.business.salesync.service.ReportJobService.ReportJob;
+import com.business.salesync.service.ReportJobService.ReportType;
+import com.business.salesync.service.SalesReportService;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +45,10 @@ public class ReportController {
     private ProductRepository productRepository;
 
     @Autowired
-    private OrderRepository orderRepository;
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private ReportJobService reportJobService;
 
     @Autowired
     private CustomerRepository customerRepository;
@@ -54,58 +70,203 @@ public class ReportController {
 
         switch (type.toLowerCase()) {
             case "stock":
-                model.addAttribute("reportTitle", "Stock Report");
-                model.addAttribute("products", productRepository.findAll());
-                return "fragments/report_view";   // Stock template
+                return render(model, ReportType.STOCK, from, to, productRepository.findAll());
 
             case "sales":
-                model.addAttribute("reportTitle", "Sales Report");
-
-                // Get orders in date range
-                List<SalesOrder> orders = orderRepository.findByDateOrderedBetween(from, to);
-
-                // Flatten order details
-                List<OrderDetails> orderDetails = orders.stream()
-                        .flatMap(o -> o.getOrderDetails().stream())
-                        .collect(Collectors.toList());
-
-                // Summary calculations
-                int totalQuantity = orderDetails.stream()
-                        .mapToInt(OrderDetails::getQuantity)
-                        .sum();
-
-                BigDecimal totalSales = orderDetails.stream()
-                        .map(d -> d.getUnitPrice().multiply(BigDecimal.valueOf(d.getQuantity())))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal totalProfit = orderDetails.stream()
-                        .map(d -> d.getUnitPrice()
-                                .subtract(d.getProduct().getCostPrice())
-                                .multiply(BigDecimal.valueOf(d.getQuantity())))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                // Add attributes to model
-                model.addAttribute("orderDetails", orderDetails);
-                model.addAttribute("totalQuantity", totalQuantity);
-                model.addAttribute("totalSales", totalSales);
-                model.addAttribute("totalProfit", totalProfit);
-                model.addAttribute("reportDate", LocalDate.now());
-
-                return "fragments/reports_sale";   // Sales template
+                // Grouped in the database: no orders or lines are loaded here
+                return render(model, ReportType.SALES, from, to, salesReportService.summarise(from, to));
 
             case "customer":
-                model.addAttribute("reportTitle", "Customer Report");
-                model.addAttribute("customers", customerRepository.findAll());
-                return "fragments/report_view";   // Customer template
+                return render(model, ReportType.CUSTOMER, from, to, customerRepository.findAll());
 
             default:
                 model.addAttribute("reportTitle", "Unknown Report");
                 return "fragments/report_view";
         }
     }
-    
-    
 
+    // ========================================
+    // 🗂️ REPORT JOBS (run off the request thread)
+    // ========================================
+
+    /**
+     * 🔹 Submit a report job
+     *
+     * Endpoint: POST /reports/jobs?from=2025-01-01&to=2025-12-31&type=sales
+     * Returns the job (id, status, progress); status is already DONE when the result was cached.
+     */
+    @PostMapping("/jobs")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> submitJob(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam("type") String type) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ReportJob job = reportJobService.submit(ReportType.of(type), from, to);
+            response.put("success", true);
+            response.put("job", jobJson(job));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (IllegalStateException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+    }
+
+    /**
+     * 🔹 Poll a report job
+     *
+     * Endpoint: GET /reports/jobs/{id}
+     */
+    @GetMapping("/jobs/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String id) {
+        Map<String, Object> response = new HashMap<>();
+        ReportJob job = reportJobService.get(id);
+        if (job == null) {
+            response.put("success", false);
+            response.put("message", "Report job not found: " + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("success", true);
+        response.put("job", jobJson(job));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 🔹 Cancel a queued or running report job
+     *
+     * Endpoint: DELETE /reports/jobs/{id}
+     */
+    @DeleteMapping("/jobs/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String id) {
+        Map<String, Object> response = new HashMap<>();
+        if (!reportJobService.cancel(id)) {
+            response.put("success", false);
+            response.put("message", "Report job not found: " + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("success", true);
+        response.put("job", jobJson(reportJobService.get(id)));
+        return ResponseEntity.ok(response);
+    }
 
+    /**
+     * 🔹 Finished report: rendered for the modal, or as an HTML file with download=true
+     *
+     * Endpoint: GET /reports/jobs/{id}/result?download=true
+     */
+    @GetMapping("/jobs/{id}/result")
+    public String jobResult(@PathVariable String id,
+                            @RequestParam(defaultValue = "false") boolean download,
+                            Model model,
+                            HttpServletResponse response) {
+        ReportJob job = reportJobService.get(id);
+        if (job == null || job.getStatus() != ReportJobService.Status.DONE) {
+            response.setStatus(job == null ? HttpStatus.NOT_FOUND.value() : HttpStatus.CONFLICT.value());
+            model.addAttribute("reportTitle", job == null ? "Report not found" : "Report is " + job.getStatus());
+            return "fragments/report_view";
+        }
+        if (download) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(job.getType().name().toLowerCase() + "-report-" + job.getFrom() + "-to-" + job.getTo() + ".html")
+                    .build().toString());
+        }
+        return render(model, job.getType(), job.getFrom(), job.getTo(), job.getResult());
+    }
+
+    /**
+     * 🔍 Sales report drill-down: order lines behind one report row, a page at a time
+     *
+     * Endpoint: GET /reports/sales/lines?from=2025-10-01&to=2025-10-31&productId=12&page=0&size=50
+     * Filters (optional): productId, categoryId, customerId; a day row passes from = to = that day
+     */
+    @GetMapping("/sales/lines")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> salesLines(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Page<SalesReportLineDTO> lines = salesReportService.lines(from, to, productId, categoryId, customerId, page, size);
+            response.put("success", true);
+            response.put("lines", lines.getContent());
+            response.put("page", lines.getNumber());
+            response.put("totalPages", lines.getTotalPages());
+            response.put("totalElements", lines.getTotalElements());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Error loading sales report lines: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "Error: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private String render(Model model, ReportType type, LocalDate from, LocalDate to, Object result) {
+        switch (type) {
+            case STOCK:
+                model.addAttribute("reportTitle", "Stock Report");
+                model.addAttribute("products", result);
+                return "fragments/report_view";   // Stock template
+
+            case SALES:
+                SalesReportService.SalesReport report = (SalesReportService.SalesReport) result;
+                model.addAttribute("reportTitle", "Sales Report");
+                model.addAttribute("byDay", report.byDay());
+                model.addAttribute("byProduct", report.byProduct());
+                model.addAttribute("byCategory", report.byCategory());
+                model.addAttribute("byCustomer", report.byCustomer());
+                model.addAttribute("orderCount", report.orders());
+                model.addAttribute("totalQuantity", report.totalQuantity());
+                model.addAttribute("totalSales", report.totalSales());
+                model.addAttribute("totalProfit", report.totalProfit());
+                model.addAttribute("fromDate", from);
+                model.addAttribute("toDate", to);
+                model.addAttribute("reportDate", LocalDate.now());
+                return "fragments/reports_sale";   // Sales template
+
+            default:
+                model.addAttribute("reportTitle", "Customer Report");
+                model.addAttribute("customers", result);
+                return "fragments/report_view";   // Customer template
+        }
+    }
+
+    private static Map<String, Object> jobJson(ReportJob job) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", job.getId());
+        json.put("type", job.getType());
+        json.put("from", job.getFrom());
+        json.put("to", job.getTo());
+        json.put("status", job.getStatus());
+        json.put("progress", job.getProgress());
+        json.put("chunksDone", job.getChunksDone().get());
+        json.put("chunksTotal", job.getChunksTotal());
+        json.put("fromCache", job.isFromCache());
+        json.put("error", job.getError());
+        json.put("submittedAt", job.getSubmittedAt());
+        json.put("finishedAt", job.getFinishedAt());
+        return json;
+    }
 }
 
@@ -35,10 +35,13 @@ import com.business.salesync.models.Customer;
 import com.business.salesync.models.OrderDetails;
 import com.business.salesync.models.Product;
 import com.business.salesync.models.SalesOrder;
+import com.business.salesync.models.StockMovement.Reason;
 import com.business.salesync.repository.CustomerRepository;
 import com.business.salesync.repository.OrderDetailsRepository;
 import com.business.salesync.repository.OrderRepository;
 import com.business.salesync.repository.ProductRepository;
+import com.business.salesync.service.CostingService;
+import com.business.salesync.service.StockService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -62,6 +65,12 @@ public class SaleController {
 
     @Autowired
     private OrderDetailsRepository orderDetailsRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private CostingService costingService;
     
     
     @GetMapping("/orders")
@@ -296,7 +305,11 @@ public class SaleController {
         orderDetailsRepository.saveAll(newOrderDetailsList);
 
         // update product quantities
-        updateProductQuantities(existingOrderDetailsList, newOrderDetailsList);
+        updateProductQuantities(existingOrderDetailsList, newOrderDetailsList, Reason.SALE_EDIT, order.getInvoiceNumber());
+
+        // old lines go back at their frozen cost, new lines are costed afresh (flushed on commit)
+        costingService.restore(existingOrderDetailsList, order.getInvoiceNumber());
+        costingService.cost(newOrderDetailsList);
 
         return "redirect:/orders";
     }
@@ -312,13 +325,15 @@ public class SaleController {
         orderDetailsRepository.deleteAllByOrderId(id);
         orderRepository.deleteById(id);
         // update product quantities
-        updateProductQuantities(existingOrderDetailsList, null);
+        String invoiceNumber = existingOrderDetailsList.isEmpty() ? null : existingOrderDetailsList.get(0).getInvoiceNumber();
+        updateProductQuantities(existingOrderDetailsList, null, Reason.SALE_DELETE, invoiceNumber);
+        costingService.restore(existingOrderDetailsList, invoiceNumber);
 
         return "redirect:/orders";
     }
 
     private void updateProductQuantities(List<OrderDetails> existingOrderDetailsList,
-            List<OrderDetails> newOrderDetailsList) {
+            List<OrderDetails> newOrderDetailsList, Reason reason, String reference) {
 
         Map<Long, Integer> productQuantities = new HashMap<Long, Integer>();
 
@@ -340,11 +355,8 @@ public class SaleController {
             }
         }
 
-        productQuantities.entrySet().forEach(entry -> {
-
-            productRepository.updateQuantity(entry.getKey(), entry.getValue());
-        });
-
+        // One batch through StockService so stock listeners hear about the change
+        stockService.adjust(productQuantities, reason, reference);
     }
 
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ import com.business.salesync.repository.FinancialAccountRepository;
 import com.business.salesync.repository.ProductRepository;
 import com.business.salesync.repository.SalesReturnItemRepository;
 import com.business.salesync.repository.SalesReturnRepository;
+import com.business.salesync.service.DocumentNumberService;
 import com.business.salesync.service.FinancialAccountService;
 import com.business.salesync.service.ReturnService;
 
@@ -36,6 +37,7 @@ public class SalesReturnController {
     private final FinancialAccountRepository financialAccountRepository;
     private final FinancialAccountService financialAccountService;
     private final ReturnService returnService;
+    private final DocumentNumberService documentNumberService;
 
     /** ✅ Show all Sales Returns (list view) */
     @GetMapping
@@ -83,7 +85,7 @@ public class SalesReturnController {
         // Auto timestamp and reference number
         salesReturn.setReturnDate(LocalDateTime.now());
         if (salesReturn.getReturnRefNo() == null || salesReturn.getReturnRefNo().isBlank()) {
-            salesReturn.setReturnRefNo("SR-" + System.currentTimeMillis());
+            salesReturn.setReturnRefNo(documentNumberService.next(DocumentNumberService.DocumentType.SALES_RETURN));
         }
 
         // Link items to parent entity
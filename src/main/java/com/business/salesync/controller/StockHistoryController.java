@@ -0,0 +1,96 @@
+package com.business.salesync.controller;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.business.salesync.service.StockJournalService;
+import com.business.salesync.service.StockJournalService.MovementHistory;
+
+/**
+ * 📒 Past stock from the movement journal. A date means the close of that day.
+ */
+@RestController
+@RequestMapping("/api/stock")
+public class StockHistoryController {
+
+    @Autowired
+    private StockJournalService stockJournalService;
+
+    /**
+     * One product's stock at the close of a day
+     */
+    @GetMapping("/{productId}/at")
+    public ResponseEntity<Map<String, Object>> quantityAt(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        Map<String, Object> body = new HashMap<>();
+        try {
+            body.put("productId", productId);
+            body.put("date", date);
+            body.put("quantity", stockJournalService.quantityAt(productId, date.atTime(LocalTime.MAX)));
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            body.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(body);
+        }
+    }
+
+    /**
+     * Every product's stock at the close of a day
+     */
+    @GetMapping("/at")
+    public ResponseEntity<Map<String, Object>> quantitiesAt(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        Map<String, Object> body = new HashMap<>();
+        try {
+            body.put("date", date);
+            body.put("quantities", stockJournalService.quantitiesAt(date.atTime(LocalTime.MAX)));
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            body.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(body);
+        }
+    }
+
+    /**
+     * Stock movements of one product from the close of `from` to the close of `to`
+     */
+    @GetMapping("/{productId}/movements")
+    public ResponseEntity<Map<String, Object>> movements(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+
+        Map<String, Object> body = new HashMap<>();
+        try {
+            MovementHistory history = stockJournalService.history(productId,
+                    from.atTime(LocalTime.MAX), to.atTime(LocalTime.MAX), page, size);
+            body.put("productId", productId);
+            body.put("openingQuantity", history.openingQuantity());
+            body.put("closingQuantity", history.closingQuantity());
+            body.put("movements", history.movements().getContent());
+            body.put("page", history.movements().getNumber());
+            body.put("totalPages", history.movements().getTotalPages());
+            body.put("totalElements", history.movements().getTotalElements());
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            body.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(body);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.business.salesync.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.business.salesync.models.StockReservation;
+import com.business.salesync.service.InsufficientStockException;
+import com.business.salesync.service.StockService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🛒 Cart stock holds for the POS screen. The cart token is sent again with the
+ * checkout form so the sale consumes exactly what the cart reserved.
+ */
+@RestController
+@RequestMapping("/api/stock/reservations")
+@Slf4j
+public class StockReservationController {
+
+    @Autowired
+    private StockService stockService;
+
+    /**
+     * Hold stock for a cart
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> reserve(
+            @RequestParam String cartToken,
+            @RequestParam Long productId,
+            @RequestParam int quantity) {
+
+        Map<String, Object> body = new HashMap<>();
+        try {
+            StockReservation reservation = stockService.reserve(cartToken, productId, quantity);
+            body.put("reservationId", reservation.getId());
+            body.put("expiresAt", reservation.getExpiresAt());
+            return ResponseEntity.status(HttpStatus.CREATED).body(body);
+        } catch (InsufficientStockException e) {
+            body.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+        } catch (IllegalArgumentException e) {
+            body.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(body);
+        }
+    }
+
+    /**
+     * Release everything a cart holds
+     */
+    @DeleteMapping("/{cartToken}")
+    public ResponseEntity<Void> release(@PathVariable String cartToken) {
+        stockService.release(cartToken);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.business.salesync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 📦 Outcome of one queued sale in a bulk upload
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCheckoutResultDTO {
+
+    public enum Status { CREATED, DUPLICATE, FAILED }
+
+    private int index;            // position of the sale in the uploaded list
+    private String idempotencyKey;
+    private Status status;
+    private Long orderId;
+    private String invoiceNumber;
+    private String message;
+}
@@ -0,0 +1,37 @@
+package com.business.salesync.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🧾 POS checkout request - header totals, payment info and basket lines
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckoutDTO {
+
+    private String idempotencyKey;         // Client retry token; a replay returns the original order
+    private String invoiceNumber;
+    private Long customerId;               // null = Walk-in customer
+
+    private BigDecimal subTotal;
+    private BigDecimal discount;
+    private BigDecimal grandTotal;
+    private BigDecimal amountPaid;
+    private BigDecimal amountDue;
+
+    private String paymentMethod;          // CASH / MFS / BANK (or legacy Cash / bKash / Bank Transfer)
+    private String finAccName;             // Account selected in the payment modal
+    private String cartToken;              // Set when the cart holds stock reservations
+
+    @Builder.Default
+    private List<CheckoutItemDTO> items = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package com.business.salesync.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🛒 One basket line submitted from the POS screen
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckoutItemDTO {
+    private Long productId;
+    private int quantity;
+    private BigDecimal unitPrice;
+}
@@ -0,0 +1,28 @@
+package com.business.salesync.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🔗 One document in a drill-down: the start document (depth 0) or one reached through
+ * document links, with the headline fields of its own table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentNodeDTO {
+
+    private String type;            // SALE_ORDER, PAYMENT, SALE_RETURN, LEDGER, ...
+    private Long id;
+    private int depth;              // links walked from the start document
+    private String refNo;           // Invoice / payment / return / trn ref number
+    private LocalDateTime date;
+    private Double amount;
+    private String status;
+    private String remarks;
+}
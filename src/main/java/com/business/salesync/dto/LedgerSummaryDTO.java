@@ -36,9 +36,13 @@ public class LedgerSummaryDTO {
     // Transaction Count
     private Integer totalTransactions;      // Number of transactions
     
-    // Transaction Details (List of LedgerDTO)
+    // Transaction Details (List of LedgerDTO) - one keyset page
     private List<LedgerDTO> transactions;
     
+    // Paging
+    private String nextCursor;              // Pass back as ?cursor= for the next page; null on the last page
+    private Boolean hasMore;                // More rows after this page
+    
     // Status Message
     private String message;                 // Success/error message
     private Boolean success;                // Operation success flag
@@ -109,6 +113,7 @@ public class LedgerSummaryDTO {
                 .netBalance(0.0)
                 .totalTransactions(0)
                 .transactions(List.of())
+                .hasMore(false)
                 .message(message)
                 .success(true)
                 .build();
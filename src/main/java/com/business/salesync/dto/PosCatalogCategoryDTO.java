@@ -0,0 +1,14 @@
+package com.business.salesync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosCatalogCategoryDTO {
+
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,20 @@
+package com.business.salesync.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🗂️ Catalog snapshot served to the POS screen as one cached JSON document
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosCatalogDTO {
+
+    private long version;
+    private List<PosCatalogCategoryDTO> categories;
+    private List<PosCatalogItemDTO> products;
+}
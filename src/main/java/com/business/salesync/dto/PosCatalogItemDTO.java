@@ -0,0 +1,24 @@
+package com.business.salesync.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🏷️ One product card on the POS screen (no stock - that is fetched live)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosCatalogItemDTO {
+
+    private Long id;
+    private String name;
+    private String sku;
+    private String barcode;
+    private BigDecimal sellingPrice;
+    private BigDecimal vatPercent;
+    private Long categoryId;
+}
@@ -0,0 +1,33 @@
+package com.business.salesync.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🧾 One order line in the sales report drill-down
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesReportLineDTO {
+
+    private Long orderId;
+    private String invoiceNumber;
+    private LocalDate dateOrdered;
+    private String customerName;
+
+    private String sku;
+    private String categoryName;
+    private String productName;
+
+    private int quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal lineTotal;          // unit price x quantity, before VAT
+    private BigDecimal profit;             // (unit price - cost price) x quantity
+}
@@ -0,0 +1,53 @@
+package com.business.salesync.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 📊 One grouped row of the sales report (a day, product, category or customer),
+ * built directly by the aggregate queries in OrderDetailsRepository
+ */
+@Data
+@NoArgsConstructor
+public class SalesReportRowDTO {
+
+    private Long id;                 // product / category / customer id; null for a day row
+    private String label;            // product / category / customer name
+    private String code;             // product SKU
+    private LocalDate day;           // day row only
+
+    private long orders;             // distinct orders
+    private long quantity;           // units sold
+    private BigDecimal sales;        // unit price x quantity, before VAT
+    private BigDecimal cost;         // cost of goods sold frozen on the lines
+
+    /** By day */
+    public SalesReportRowDTO(LocalDate day, Long orders, Long quantity, BigDecimal sales, BigDecimal cost) {
+        this(null, null, null, orders, quantity, sales, cost);
+        this.day = day;
+    }
+
+    /** By category or customer */
+    public SalesReportRowDTO(Long id, String label, Long orders, Long quantity, BigDecimal sales, BigDecimal cost) {
+        this(id, label, null, orders, quantity, sales, cost);
+    }
+
+    /** By product */
+    public SalesReportRowDTO(Long id, String label, String code, Long orders, Long quantity,
+                             BigDecimal sales, BigDecimal cost) {
+        this.id = id;
+        this.label = label;
+        this.code = code;
+        this.orders = orders != null ? orders : 0;
+        this.quantity = quantity != null ? quantity : 0;
+        this.sales = sales != null ? sales : BigDecimal.ZERO;
+        this.cost = cost != null ? cost : BigDecimal.ZERO;
+    }
+
+    public BigDecimal getProfit() {
+        return sales.subtract(cost);
+    }
+}
@@ -0,0 +1,26 @@
+package com.business.salesync.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🔎 What the till needs after a barcode/SKU scan
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScanResultDTO {
+
+    private Long id;
+    private String name;
+    private String sku;
+    private String barcode;
+    private BigDecimal sellingPrice;
+    private BigDecimal vatPercent;
+    private int availableQuantity;
+}
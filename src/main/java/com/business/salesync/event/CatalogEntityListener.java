@@ -0,0 +1,43 @@
+package com.business.salesync.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.business.salesync.models.Category;
+import com.business.salesync.models.Product;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * 🔔 JPA listener on Product and Category that turns entity writes into Spring events,
+ * so every save path (product form, purchase pricing, category edits) is covered
+ * without each controller having to remember to publish.
+ */
+@Component
+public class CatalogEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        publish(entity, false);
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        publish(entity, true);
+    }
+
+    private void publish(Object entity, boolean deleted) {
+        if (entity instanceof Product product) {
+            publisher.publishEvent(new ProductChangedEvent(product.getId(), deleted));
+        } else if (entity instanceof Category category) {
+            publisher.publishEvent(new CategoryChangedEvent(category.getId(), deleted));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.business.salesync.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 🗂️ Published when a category is inserted, updated or deleted through JPA.
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+    private final boolean deleted;
+}
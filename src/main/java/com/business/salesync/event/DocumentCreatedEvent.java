@@ -0,0 +1,15 @@
+package com.business.salesync.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 🧾 Published when a sales order, payment, sales/purchase return or ledger row is inserted
+ * through JPA. Plain @EventListeners run inside the inserting transaction.
+ */
+@Getter
+@AllArgsConstructor
+public class DocumentCreatedEvent {
+
+    private final Object document;
+}
@@ -0,0 +1,23 @@
+package com.business.salesync.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.PostPersist;
+
+/**
+ * 🔔 JPA listener on SalesOrder, Payment, SalesReturn, PurchaseReturn and FinancialAccount that
+ * turns inserts into Spring events, so document links and the live feed follow every save path.
+ */
+@Component
+public class DocumentEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    public void onCreated(Object entity) {
+        publisher.publishEvent(new DocumentCreatedEvent(entity));
+    }
+}
@@ -0,0 +1,17 @@
+package com.business.salesync.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 👥 Published when a customer or supplier row is inserted, updated or deleted through JPA.
+ * partyType is CUSTOMER or SUPPLIER, matching entity_type on ledger rows.
+ */
+@Getter
+@AllArgsConstructor
+public class PartyChangedEvent {
+
+    private final String partyType;
+    private final Long partyId;
+    private final boolean deleted;
+}
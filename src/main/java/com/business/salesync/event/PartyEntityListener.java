@@ -0,0 +1,42 @@
+package com.business.salesync.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.business.salesync.models.Customer;
+import com.business.salesync.models.Supplier;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * 🔔 JPA listener on Customer and Supplier that turns master writes into Spring events,
+ * so in-memory name lookups follow every save path.
+ */
+@Component
+public class PartyEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        publish(entity, false);
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        publish(entity, true);
+    }
+
+    private void publish(Object entity, boolean deleted) {
+        if (entity instanceof Customer customer) {
+            publisher.publishEvent(new PartyChangedEvent("CUSTOMER", customer.getId(), deleted));
+        } else if (entity instanceof Supplier supplier) {
+            publisher.publishEvent(new PartyChangedEvent("SUPPLIER", supplier.getId(), deleted));
+        }
+    }
+}
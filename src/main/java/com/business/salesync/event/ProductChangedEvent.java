@@ -0,0 +1,16 @@
+package com.business.salesync.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 📦 Published when a product row is inserted, updated or deleted through JPA.
+ * Listeners that keep in-memory views of the catalog react to it after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final boolean deleted;
+}
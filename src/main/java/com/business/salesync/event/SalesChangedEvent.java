@@ -0,0 +1,23 @@
+package com.business.salesync.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 📈 Published when an order is created, edited or deleted, or a sales return is saved:
+ * the sales amount moved off oldDate and onto newDate, and the change in live order count.
+ * Either date is null when there is nothing on that side (a new order has no old date).
+ */
+@Getter
+@AllArgsConstructor
+public class SalesChangedEvent {
+
+    private final LocalDate oldDate;
+    private final BigDecimal oldAmount;
+    private final LocalDate newDate;
+    private final BigDecimal newAmount;
+    private final int orderDelta;
+}
@@ -0,0 +1,66 @@
+package com.business.salesync.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.business.salesync.models.SalesOrder;
+import com.business.salesync.models.SalesReturn;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * 🔔 JPA listener on SalesOrder and SalesReturn that turns sales writes into
+ * SalesChangedEvents for the dashboard counters.
+ *
+ * An order counts its totalAmount on dateOrdered while not deleted; a return takes its
+ * totalReturnAmount off its return day. Runs before the entity's own callbacks, so
+ * SalesOrder.getLoadedSales() still holds the values from before this write.
+ */
+@Component
+public class SalesEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    public void onCreated(Object entity) {
+        if (entity instanceof SalesOrder order) {
+            if (!order.isDeleted()) {
+                publisher.publishEvent(new SalesChangedEvent(null, null, order.getDateOrdered(), order.getTotalAmount(), 1));
+            }
+        } else if (entity instanceof SalesReturn salesReturn) {
+            if (salesReturn.getReturnDate() != null && salesReturn.getTotalReturnAmount() != null) {
+                publisher.publishEvent(new SalesChangedEvent(null, null, salesReturn.getReturnDate().toLocalDate(),
+                        BigDecimal.valueOf(-salesReturn.getTotalReturnAmount()), 0));
+            }
+        }
+    }
+
+    @PostUpdate
+    public void onUpdated(Object entity) {
+        if (entity instanceof SalesOrder order) {
+            SalesOrder.LoadedSales before = order.getLoadedSales();
+            LocalDate oldDate = before != null && !before.deleted() ? before.dateOrdered() : null;
+            LocalDate newDate = !order.isDeleted() ? order.getDateOrdered() : null;
+            int orderDelta = (newDate != null ? 1 : 0) - (before == null || before.deleted() ? 0 : 1);
+            publisher.publishEvent(new SalesChangedEvent(oldDate, before != null ? before.totalAmount() : null,
+                    newDate, order.getTotalAmount(), orderDelta));
+        }
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        if (entity instanceof SalesOrder order) {
+            SalesOrder.LoadedSales before = order.getLoadedSales();
+            if (before != null && !before.deleted()) {
+                publisher.publishEvent(new SalesChangedEvent(before.dateOrdered(), before.totalAmount(), null, null, -1));
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.business.salesync.event;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 📦 Published by StockService whenever quantity or reserved_quantity changes
+ * for a set of products. Listeners re-read what they need after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+
+    private final Collection<Long> productIds;
+}
@@ -0,0 +1,21 @@
+package com.business.salesync.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * ⚠️ Published by StockLevelTracker when a product moves between in stock, low stock
+ * (quantity at or below its minimum) and out of stock. previous is null for a new product.
+ */
+@Getter
+@AllArgsConstructor
+public class StockThresholdEvent {
+
+    public enum Level { IN_STOCK, LOW, OUT }
+
+    private final Long productId;
+    private final Level previous;
+    private final Level current;
+    private final int quantity;
+    private final int minStockLevel;
+}
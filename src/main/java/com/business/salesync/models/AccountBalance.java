@@ -0,0 +1,57 @@
+package com.business.salesync.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 💰 One row per financial account with its balance after the latest posting.
+ * A projection of app_acct_financial_accounts, kept current by AccountBalanceService
+ * in the same transaction as each posting and rebuildable from history.
+ */
+@Entity
+@Table(name = "app_acct_account_balances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalance {
+
+    @Id
+    @Column(name = "fin_acc_name", length = 100)
+    private String finAccName;
+
+    @Column(name = "fin_acc_id")
+    private String finAccId;
+
+    @Column(name = "fin_acc_type", length = 50)
+    private String finAccType;
+
+    @Column(name = "current_balance", nullable = false)
+    private Double currentBalance;
+
+    @Column(name = "last_debit")
+    private Double lastDebit;
+
+    @Column(name = "last_credit")
+    private Double lastCredit;
+
+    @Column(name = "last_trn_date")
+    private LocalDateTime lastTrnDate;
+
+    @Column(name = "last_remarks", length = 255)
+    private String lastRemarks;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
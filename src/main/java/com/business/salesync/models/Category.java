@@ -4,10 +4,12 @@ package com.business.salesync.models;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.business.salesync.event.CatalogEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -20,6 +22,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "categories")
+@EntityListeners(CatalogEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
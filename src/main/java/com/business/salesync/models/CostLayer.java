@@ -0,0 +1,55 @@
+package com.business.salesync.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🧱 One receipt of stock at one unit cost, used by FIFO costing. Sales take units from
+ * the oldest layers first; a layer is kept at zero remaining as a record of the receipt.
+ */
+@Entity
+@Table(name = "cost_layers",
+       indexes = {
+           @Index(name = "idx_cost_layer_open", columnList = "product_id, quantity_remaining")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CostLayer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "unit_cost", nullable = false, precision = 12, scale = 4)
+    private BigDecimal unitCost;
+
+    @Column(name = "quantity_received", nullable = false)
+    private Integer quantityReceived;
+
+    @Column(name = "quantity_remaining", nullable = false)
+    private Integer quantityRemaining;
+
+    // PO or return number that brought the units in
+    @Column(name = "reference", length = 50)
+    private String reference;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+}
@@ -1,6 +1,8 @@
 package com.business.salesync.models;
 
 import jakarta.persistence.*;
+
+import com.business.salesync.event.PartyEntityListener;
 import jakarta.validation.constraints.NotBlank;
 
 import lombok.AllArgsConstructor;
@@ -9,6 +11,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "customers")
+@EntityListeners(PartyEntityListener.class)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
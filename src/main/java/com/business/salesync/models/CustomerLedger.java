@@ -6,7 +6,8 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "customer_ledger")
+@Table(name = "customer_ledger",
+       indexes = @Index(name = "idx_customer_ledger_party_seq", columnList = "customer_id, seq_no"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +37,9 @@ public class CustomerLedger {
     @Column(name = "balance_after")
     private Double balanceAfter;
 
+    @Column(name = "seq_no")
+    private Long seqNo; // position in the party's ledger, from PartyLedgerHead.last_seq
+
     @Column(name = "remarks", length = 200)
     private String remarks;
 
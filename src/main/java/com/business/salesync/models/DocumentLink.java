@@ -0,0 +1,73 @@
+package com.business.salesync.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🔗 Typed edge between two business documents, e.g. sale order → payment,
+ * sale order → sales return, payment → ledger row.
+ *
+ * Every edge is stored in both directions (is_reverse = true on the mirrored row), so
+ * walking a document's neighbourhood only ever looks up (from_type, from_id), which
+ * is the leading part of the unique key. Written by DocumentLinkService.
+ */
+@Entity
+@Table(name = "document_links",
+       uniqueConstraints = @UniqueConstraint(name = "uk_document_link",
+               columnNames = {"from_type", "from_id", "to_type", "to_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentLink {
+
+    public enum DocumentType {
+        SALE_ORDER,
+        PURCHASE_ORDER,
+        PAYMENT,
+        SALE_RETURN,
+        PURCHASE_RETURN,
+        EXPENSE,
+        LEDGER // a row of app_acct_financial_accounts
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_type", length = 20, nullable = false)
+    private DocumentType fromType;
+
+    @Column(name = "from_id", nullable = false)
+    private Long fromId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_type", length = 20, nullable = false)
+    private DocumentType toType;
+
+    @Column(name = "to_id", nullable = false)
+    private Long toId;
+
+    @Column(name = "link_type", length = 20, nullable = false)
+    private String linkType; // PAYMENT, RETURN, POSTING
+
+    @Column(name = "is_reverse", nullable = false)
+    private boolean reverse;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
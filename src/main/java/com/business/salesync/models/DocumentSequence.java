@@ -0,0 +1,28 @@
+package com.business.salesync.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🔢 Counter row per document prefix and day, e.g. "PO-20251018".
+ * next_value is the first number not yet handed out to any JVM.
+ */
+@Entity
+@Table(name = "document_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSequence {
+
+    @Id
+    @Column(name = "seq_key", length = 40)
+    private String seqKey;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -1,8 +1,11 @@
 package com.business.salesync.models;
 
+import com.business.salesync.event.DocumentEntityListener;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,11 +14,19 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "app_acct_financial_accounts")
+@EntityListeners(DocumentEntityListener.class)
+@Table(name = "app_acct_financial_accounts",
+       indexes = {
+           @Index(name = "idx_fin_acc_name_id", columnList = "fin_acc_name, id"),
+           @Index(name = "idx_fin_acc_entity_trn", columnList = "entity_type, trn_date, id"),
+           @Index(name = "idx_fin_acc_customer_trn", columnList = "customer_id, trn_date, id"),
+           @Index(name = "idx_fin_acc_supplier_trn", columnList = "supplier_id, trn_date, id")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate // current_balance is moved by in-database increments; never write back a stale copy
 public class FinancialAccount {
 
     @Id
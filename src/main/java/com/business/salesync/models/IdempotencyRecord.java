@@ -0,0 +1,48 @@
+package com.business.salesync.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🔁 One row per client retry token. The unique (scope, idem_key) index is what
+ * stops a replayed request from doing the work twice; result_ref_id points at
+ * what the first request produced (e.g. the sales order id).
+ */
+@Entity
+@Table(name = "idempotency_records",
+       uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_scope_key", columnNames = {"scope", "idem_key"}),
+       indexes = @Index(name = "idx_idempotency_created", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "scope", nullable = false, length = 30)
+    private String scope; // POS_CHECKOUT
+
+    @Column(name = "idem_key", nullable = false, length = 100)
+    private String idemKey;
+
+    @Column(name = "result_ref_id")
+    private Long resultRefId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,67 @@
+package com.business.salesync.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 📅 Cumulative debit/credit of one ledger up to the end of a closed month.
+ *
+ * scope_type is the entity type (CUSTOMER, SUPPLIER, ...) with party_id the customer or
+ * supplier id and scope_name the entity name, or ACCOUNT with scope_name the financial
+ * account name. party_id is NO_PARTY for accounts and for rows not linked to a party,
+ * which are found by scope_name instead. Every scope with any history gets a row in
+ * every closed month, so a date-range ledger needs one snapshot plus the rows after it.
+ * Written by LedgerSnapshotService.
+ */
+@Entity
+@Table(name = "ledger_period_snapshots",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ledger_snapshot_party",
+               columnNames = {"scope_type", "party_id", "scope_name", "period_month"}),
+       indexes = @Index(name = "idx_ledger_snapshot_period", columnList = "period_month"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerPeriodSnapshot {
+
+    public static final String ACCOUNT = "ACCOUNT";
+    public static final long NO_PARTY = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "scope_type", length = 50, nullable = false)
+    private String scopeType;
+
+    @Column(name = "party_id", columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long partyId;
+
+    @Column(name = "scope_name", nullable = false)
+    private String scopeName;
+
+    @Column(name = "period_month", nullable = false)
+    private LocalDate periodMonth; // first day of the closed month
+
+    @Column(name = "cum_debit", nullable = false)
+    private Double cumDebit;
+
+    @Column(name = "cum_credit", nullable = false)
+    private Double cumCredit;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -52,9 +52,16 @@ public class OrderDetails {
     @Column(name = "total_price", precision = 10, scale  = 2)
     private BigDecimal totalPrice = BigDecimal.ZERO;
 
+    // Cost of goods sold, frozen by CostingService when the line is sold
+    @Column(name = "unit_cost", precision = 12, scale = 4)
+    private BigDecimal unitCost;
+
+    @Column(name = "cogs_amount", precision = 12, scale = 2)
+    private BigDecimal cogsAmount;
+
     @PrePersist
     @PreUpdate
-    protected void calculateTotals() {
+    public void calculateTotals() {
         if (unitPrice != null && quantity > 0) {
             // Calculate total price before VAT
             BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
@@ -0,0 +1,51 @@
+package com.business.salesync.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 🧾 Running debit/credit totals of one customer or supplier across
+ * app_acct_financial_accounts. party_id 0 holds the total of every row of that
+ * type, including rows not linked to a master. Maintained by PartyBalanceService.
+ */
+@Entity
+@Table(name = "party_balances",
+       uniqueConstraints = @UniqueConstraint(name = "uk_party_balance", columnNames = {"party_type", "party_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PartyBalance {
+
+    public static final long ALL_PARTIES = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "party_type", length = 20, nullable = false)
+    private String partyType; // CUSTOMER, SUPPLIER
+
+    @Column(name = "party_id", nullable = false)
+    private Long partyId;
+
+    @Column(name = "total_debit", nullable = false)
+    private Double totalDebit;
+
+    @Column(name = "total_credit", nullable = false)
+    private Double totalCredit;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
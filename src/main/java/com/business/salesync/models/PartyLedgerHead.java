@@ -0,0 +1,52 @@
+package com.business.salesync.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 📒 Head of one customer's or supplier's ledger: the balance after the latest entry
+ * and that entry's sequence number. LedgerService advances it with a single UPDATE
+ * per posting, so no posting has to read the party's history.
+ */
+@Entity
+@Table(name = "party_ledger_heads",
+       uniqueConstraints = @UniqueConstraint(name = "uk_party_ledger_head", columnNames = {"party_type", "party_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PartyLedgerHead {
+
+    public static final String CUSTOMER = "CUSTOMER";
+    public static final String SUPPLIER = "SUPPLIER";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "party_type", length = 20, nullable = false)
+    private String partyType; // CUSTOMER, SUPPLIER
+
+    @Column(name = "party_id", nullable = false)
+    private Long partyId;
+
+    @Column(name = "balance", nullable = false)
+    private Double balance;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,7 @@
 package com.business.salesync.models;
 
+import com.business.salesync.event.DocumentEntityListener;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -8,6 +10,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -23,6 +26,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners(DocumentEntityListener.class)
 @Table(name = "payment")
 @Data
 @NoArgsConstructor
@@ -50,6 +54,9 @@ public class Payment {
     @Column(name = "method", length = 50)
     private String method;
 
+    @Column(name = "payment_no", length = 30, unique = true)
+    private String paymentNo; // PAY-yyyyMMdd-0001, issued by DocumentNumberService
+
     // Financial fields - CHANGED from double to BigDecimal
     @Column(name = "total_amount", precision = 12, scale = 2, nullable = false)
     private BigDecimal totalAmount;
@@ -10,8 +10,10 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.validator.constraints.Range;
 
+import com.business.salesync.event.CatalogEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.*;
@@ -26,10 +28,12 @@ import lombok.NoArgsConstructor;
            @UniqueConstraint(columnNames = "sku"),
            @UniqueConstraint(columnNames = "barcode")
        })
+@EntityListeners(CatalogEntityListener.class)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@DynamicUpdate // only changed columns are written, so a price edit never overwrites a concurrent stock update
 public class Product {
 
     @Id
@@ -92,6 +96,10 @@ public class Product {
     @Column(name = "min_stock_level", nullable = false)
     private Integer minStockLevel = 2;
 
+    // Units held by open cart reservations; only StockService writes this column
+    @Column(name = "reserved_quantity", columnDefinition = "INT NOT NULL DEFAULT 0", insertable = false, updatable = false)
+    private Integer reservedQuantity;
+
     // 🛡️ Warranty & Guarantee
     @Column(name = "warranty_period")
     private Integer warrantyPeriod; // Warranty period in months
@@ -137,6 +145,14 @@ public class Product {
         return sellingPrice.subtract(costPrice);
     }
 
+    // 📦 Stock that can still be sold (on hand minus reserved)
+    @Transient
+    public int getAvailableQuantity() {
+        int onHand = quantity != null ? quantity : 0;
+        int reserved = reservedQuantity != null ? reservedQuantity : 0;
+        return onHand - reserved;
+    }
+
     // 🛡️ Helper methods for warranty/guarantee
     @Transient
     public boolean hasWarranty() {
@@ -1,5 +1,6 @@
 package com.business.salesync.models;
 
+import com.business.salesync.event.DocumentEntityListener;
 
 import jakarta.persistence.*;
 import lombok.*;
@@ -7,6 +8,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners(DocumentEntityListener.class)
 @Table(name = "purchase_returns")
 @Data
 @NoArgsConstructor
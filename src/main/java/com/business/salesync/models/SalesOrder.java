@@ -10,6 +10,9 @@ import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import com.business.salesync.event.DocumentEntityListener;
+import com.business.salesync.event.SalesEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
@@ -20,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners({DocumentEntityListener.class, SalesEntityListener.class})
 @Table(name = "orders")
 @Data
 @NoArgsConstructor
@@ -88,6 +92,15 @@ public class SalesOrder {
     private String status; // ORDER_STATUS, COMPLETED, CANCELLED, etc.
     private String remarks;
 
+    // Sales-relevant values as last read or written, so SalesEntityListener can report deltas
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LoadedSales loadedSales;
+
+    public record LoadedSales(LocalDate dateOrdered, BigDecimal totalAmount, boolean deleted) {}
+
     public enum PaymentStatus {
         PENDING,
         PARTIALLY_PAID,
@@ -117,6 +130,13 @@ public class SalesOrder {
         updatePaymentStatus();
     }
 
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void rememberSales() {
+        loadedSales = new LoadedSales(dateOrdered, totalAmount, deleted);
+    }
+
     public void updatePaymentStatus() {
         if (amountPaid == null || amountPaid.compareTo(BigDecimal.ZERO) <= 0) {
             this.paymentStatus = PaymentStatus.PENDING;
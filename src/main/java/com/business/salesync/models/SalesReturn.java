@@ -1,5 +1,7 @@
 package com.business.salesync.models;
 
+import com.business.salesync.event.DocumentEntityListener;
+import com.business.salesync.event.SalesEntityListener;
 
 import jakarta.persistence.*;
 import lombok.*;
@@ -7,6 +9,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners({DocumentEntityListener.class, SalesEntityListener.class})
 @Table(name = "sales_returns")
 @Data
 @NoArgsConstructor
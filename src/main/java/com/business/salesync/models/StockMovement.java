@@ -0,0 +1,67 @@
+package com.business.salesync.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 📒 One change to products.quantity, appended by StockService in the same transaction
+ * as the UPDATE. Rows are never updated or deleted: a correction is a new movement.
+ */
+@Entity
+@Table(name = "stock_movements",
+       indexes = {
+           @Index(name = "idx_stock_movement_product", columnList = "product_id, id"),
+           @Index(name = "idx_stock_movement_moved_at", columnList = "moved_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    public enum Reason {
+        SALE,
+        SALE_EDIT,
+        SALE_DELETE,
+        SALE_RETURN,
+        PURCHASE,
+        PURCHASE_DELETE,
+        PURCHASE_RETURN,
+        RECONCILE   // quantity written outside StockService (product form, manual SQL)
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Signed: negative takes stock out
+    @Column(name = "quantity_change", nullable = false)
+    private Integer quantityChange;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", nullable = false, length = 20)
+    private Reason reason;
+
+    // Invoice, PO or return number the change belongs to
+    @Column(name = "reference", length = 50)
+    private String reference;
+
+    @Column(name = "moved_at", nullable = false)
+    private LocalDateTime movedAt;
+}
@@ -0,0 +1,49 @@
+package com.business.salesync.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 📸 A product's stock as of a point in the movement journal: quantity is the sum of
+ * every movement up to and including lastMovementId. Written by StockJournalService
+ * only for products that moved since their previous snapshot.
+ */
+@Entity
+@Table(name = "stock_snapshots",
+       indexes = {
+           @Index(name = "idx_stock_snapshot_product", columnList = "product_id, taken_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Every movement up to lastMovementId happened before this time
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+}
@@ -1,6 +1,8 @@
 package com.business.salesync.models;
 
 import jakarta.persistence.*;
+
+import com.business.salesync.event.PartyEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import java.util.ArrayList;
@@ -9,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "suppliers")
+@EntityListeners(PartyEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -6,7 +6,8 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "supplier_ledger")
+@Table(name = "supplier_ledger",
+       indexes = @Index(name = "idx_supplier_ledger_party_seq", columnList = "supplier_id, seq_no"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +37,9 @@ public class SupplierLedger {
     @Column(name = "balance_after")
     private Double balanceAfter;
 
+    @Column(name = "seq_no")
+    private Long seqNo; // position in the party's ledger, from PartyLedgerHead.last_seq
+
     @Column(name = "remarks", length = 200)
     private String remarks;
 
@@ -0,0 +1,14 @@
+package com.business.salesync.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.business.salesync.models.AccountBalance;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, String> {
+
+    List<AccountBalance> findAllByOrderByFinAccNameAsc();
+}
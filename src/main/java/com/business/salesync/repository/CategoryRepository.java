@@ -1,10 +1,18 @@
 package com.business.salesync.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.business.salesync.dto.PosCatalogCategoryDTO;
 import com.business.salesync.models.Category;
 
 
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-	
+
+    // POS catalog snapshot: id + name only, no product collections
+    @Query("SELECT new com.business.salesync.dto.PosCatalogCategoryDTO(c.id, c.name) FROM Category c ORDER BY c.name")
+    List<PosCatalogCategoryDTO> findCatalogCategories();
 }
@@ -1,13 +1,17 @@
 package com.business.salesync.repository;
 
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import com.business.salesync.dto.LedgerDTO;
 import com.business.salesync.models.FinancialAccount;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +40,9 @@ public interface FinancialAccountRepository extends JpaRepository<FinancialAccou
 
     List<FinancialAccount> findByFinAccName(String finAccName);
 
+    // Master row for an account = the first row created under that name
+    Optional<FinancialAccount> findFirstByFinAccNameOrderByIdAsc(String finAccName);
+
     /** 🔹 Total Current Balance (sum of all accounts) */
     @Query("SELECT COALESCE(SUM(f.currentBalance), 0) FROM FinancialAccount f")
     Double getTotalBalance();
@@ -49,127 +56,105 @@ public interface FinancialAccountRepository extends JpaRepository<FinancialAccou
     Double getTotalCredit();
 
     // ========================================
-    // 📊 CUSTOMER LEDGER QUERIES
+    // 📊 CUSTOMER / SUPPLIER LEDGER QUERIES
     // ========================================
 
-    /**
-     * 🔹 Get Customer Ledger - All Transactions (No Date Filter)
-     * Returns all transactions for a specific customer ordered by transaction date
-     */
-    @Query("SELECT f FROM FinancialAccount f " +
-           "WHERE f.entityType = 'CUSTOMER' " +
-           "AND (:entityName IS NULL OR LOWER(f.entityName) LIKE LOWER(CONCAT('%', :entityName, '%'))) " +
-           "ORDER BY f.trnDate ASC, f.id ASC")
-    List<FinancialAccount> getCustomerLedger(@Param("entityName") String entityName);
-
-    /**
-     * 🔹 Get Customer Ledger - With Date Range Filter
-     * Returns customer transactions between fromDate and toDate
-     * Handles null dates gracefully
-     */
-    @Query("SELECT f FROM FinancialAccount f " +
-           "WHERE f.entityType = 'CUSTOMER' " +
-           "AND (:entityName IS NULL OR LOWER(f.entityName) LIKE LOWER(CONCAT('%', :entityName, '%'))) " +
+    // Ledger rows of one entity type in an optional date range. Name filters are resolved
+    // to customer/supplier ids first (PartyNameIndex), so the party variants can use the
+    // (customer_id, trn_date, id) / (supplier_id, trn_date, id) indexes. Rows with no party
+    // id (walk-in postings, shared or changed names) are matched on entity_name instead;
+    // the same index narrows those to the NULL range.
+    String LEDGER_FILTER =
+           "WHERE f.entityType = :entityType " +
            "AND (:fromDate IS NULL OR f.trnDate >= :fromDate) " +
-           "AND (:toDate IS NULL OR f.trnDate <= :toDate) " +
-           "ORDER BY f.trnDate ASC, f.id ASC")
-    List<FinancialAccount> getCustomerLedgerByDateRange(
-            @Param("entityName") String entityName,
-            @Param("fromDate") LocalDateTime fromDate,
-            @Param("toDate") LocalDateTime toDate
-    );
+           "AND (:toDate IS NULL OR f.trnDate <= :toDate) ";
 
-    // ========================================
-    // 🏭 SUPPLIER LEDGER QUERIES
-    // ========================================
+    String CUSTOMER_FILTER =
+           "AND (f.customer.id IN :partyIds OR (f.customer IS NULL AND LOWER(f.entityName) LIKE :namePattern)) ";
 
-    /**
-     * 🔹 Get Supplier Ledger - All Transactions (No Date Filter)
-     * Returns all transactions for a specific supplier ordered by transaction date
-     */
-    @Query("SELECT f FROM FinancialAccount f " +
-           "WHERE f.entityType = 'SUPPLIER' " +
-           "AND (:entityName IS NULL OR LOWER(f.entityName) LIKE LOWER(CONCAT('%', :entityName, '%'))) " +
-           "ORDER BY f.trnDate ASC, f.id ASC")
-    List<FinancialAccount> getSupplierLedger(@Param("entityName") String entityName);
+    String SUPPLIER_FILTER =
+           "AND (f.supplier.id IN :partyIds OR (f.supplier IS NULL AND LOWER(f.entityName) LIKE :namePattern)) ";
+
+    String KEYSET_AFTER =
+           "AND (:afterDate IS NULL OR f.trnDate > :afterDate OR (f.trnDate = :afterDate AND f.id > :afterId)) " +
+           "ORDER BY f.trnDate ASC, f.id ASC";
+
+    String LEDGER_ROW =
+           "SELECT new com.business.salesync.dto.LedgerDTO(f.id, f.trnRefNo, f.trnDate, f.transactionType, " +
+           "f.refType, f.paymentMethod, f.debitAmount, f.creditAmount, f.balanceAfterTransaction, " +
+           "f.entityName, f.entityType, f.finAccName, f.finAccType, f.paymentStatus, f.remarks, " +
+           "f.createdBy, f.createdAt) FROM FinancialAccount f ";
+
+    String LEDGER_TOTALS =
+           "SELECT COUNT(f), COALESCE(SUM(f.debitAmount), 0), COALESCE(SUM(f.creditAmount), 0) FROM FinancialAccount f ";
 
     /**
-     * 🔹 Get Supplier Ledger - With Date Range Filter
-     * Returns supplier transactions between fromDate and toDate
-     * Handles null dates gracefully
+     * 🔹 One keyset page of a customer/supplier ledger, oldest first.
+     * Pass the (trnDate, id) of the last row already sent as afterDate/afterId,
+     * or nulls for the first page.
      */
-    @Query("SELECT f FROM FinancialAccount f " +
-           "WHERE f.entityType = 'SUPPLIER' " +
-           "AND (:entityName IS NULL OR LOWER(f.entityName) LIKE LOWER(CONCAT('%', :entityName, '%'))) " +
-           "AND (:fromDate IS NULL OR f.trnDate >= :fromDate) " +
-           "AND (:toDate IS NULL OR f.trnDate <= :toDate) " +
-           "ORDER BY f.trnDate ASC, f.id ASC")
-    List<FinancialAccount> getSupplierLedgerByDateRange(
-            @Param("entityName") String entityName,
+    @Query(LEDGER_ROW + LEDGER_FILTER + KEYSET_AFTER)
+    List<LedgerDTO> findLedgerPage(
+            @Param("entityType") String entityType,
             @Param("fromDate") LocalDateTime fromDate,
-            @Param("toDate") LocalDateTime toDate
+            @Param("toDate") LocalDateTime toDate,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit
     );
 
-    // ========================================
-    // 📈 LEDGER SUMMARY QUERIES
-    // ========================================
+    /** 🔹 Keyset page restricted to the given customers, plus unlinked rows matching the name */
+    @Query(LEDGER_ROW + LEDGER_FILTER + CUSTOMER_FILTER + KEYSET_AFTER)
+    List<LedgerDTO> findCustomerLedgerPage(
+            @Param("entityType") String entityType,
+            @Param("partyIds") Collection<Long> customerIds,
+            @Param("namePattern") String namePattern,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
 
-    /**
-     * 🔹 Get Customer Total Receivable (Debit - Credit for CUSTOMER)
-     * Shows how much money customers owe
-     */
-    @Query("SELECT COALESCE(SUM(f.debitAmount) - SUM(f.creditAmount), 0) " +
-           "FROM FinancialAccount f " +
-           "WHERE f.entityType = 'CUSTOMER' " +
-           "AND (:entityName IS NULL OR LOWER(f.entityName) LIKE LOWER(CONCAT('%', :entityName, '%')))")
-    Double getCustomerTotalReceivable(@Param("entityName") String entityName);
+    /** 🔹 Keyset page restricted to the given suppliers, plus unlinked rows matching the name */
+    @Query(LEDGER_ROW + LEDGER_FILTER + SUPPLIER_FILTER + KEYSET_AFTER)
+    List<LedgerDTO> findSupplierLedgerPage(
+            @Param("entityType") String entityType,
+            @Param("partyIds") Collection<Long> supplierIds,
+            @Param("namePattern") String namePattern,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
 
-    /**
-     * 🔹 Get Supplier Total Payable (Credit - Debit for SUPPLIER)
-     * Shows how much money business owes to suppliers
-     */
-    @Query("SELECT COALESCE(SUM(f.creditAmount) - SUM(f.debitAmount), 0) " +
-           "FROM FinancialAccount f " +
-           "WHERE f.entityType = 'SUPPLIER' " +
-           "AND (:entityName IS NULL OR LOWER(f.entityName) LIKE LOWER(CONCAT('%', :entityName, '%')))")
-    Double getSupplierTotalPayable(@Param("entityName") String entityName);
+    /** 🔹 Row count, total debit and total credit of a ledger in one aggregate pass */
+    @Query(LEDGER_TOTALS + LEDGER_FILTER)
+    List<Object[]> getLedgerTotals(
+            @Param("entityType") String entityType,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate
+    );
 
-    /**
-     * 🔹 Get All Unique Customer Names
-     * Useful for dropdown/autocomplete in frontend
-     */
-    @Query("SELECT DISTINCT f.entityName FROM FinancialAccount f " +
-           "WHERE f.entityType = 'CUSTOMER' " +
-           "AND f.entityName IS NOT NULL " +
-           "ORDER BY f.entityName ASC")
-    List<String> getAllCustomerNames();
+    @Query(LEDGER_TOTALS + LEDGER_FILTER + CUSTOMER_FILTER)
+    List<Object[]> getCustomerLedgerTotals(
+            @Param("entityType") String entityType,
+            @Param("partyIds") Collection<Long> customerIds,
+            @Param("namePattern") String namePattern,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate
+    );
 
-    /**
-     * 🔹 Get All Unique Supplier Names
-     * Useful for dropdown/autocomplete in frontend
-     */
-    @Query("SELECT DISTINCT f.entityName FROM FinancialAccount f " +
-           "WHERE f.entityType = 'SUPPLIER' " +
-           "AND f.entityName IS NOT NULL " +
-           "ORDER BY f.entityName ASC")
-    List<String> getAllSupplierNames();
-    
-    
-    /**
-     * 🔹 Find Related Transactions
-     * Returns transactions related to the same entity and reference
-     */
-    @Query("SELECT f FROM FinancialAccount f " +
-           "WHERE f.entityName = :entityName " +
-           "AND f.entityType = :entityType " +
-           "AND (:refId IS NULL OR f.refId = :refId) " +
-           "ORDER BY f.trnDate DESC")
-    List<FinancialAccount> findRelatedTransactions(
-            @Param("entityName") String entityName,
+    @Query(LEDGER_TOTALS + LEDGER_FILTER + SUPPLIER_FILTER)
+    List<Object[]> getSupplierLedgerTotals(
             @Param("entityType") String entityType,
-            @Param("refId") Long refId
+            @Param("partyIds") Collection<Long> supplierIds,
+            @Param("namePattern") String namePattern,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate
     );
-    
+
     @Query(value = """
     	    SELECT fa.*
     	    FROM app_acct_financial_accounts fa
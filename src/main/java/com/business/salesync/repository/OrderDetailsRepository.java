@@ -1,12 +1,20 @@
 package com.business.salesync.repository;
 
+import java.time.LocalDate;
 import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.business.salesync.dto.SalesReportRowDTO;
 import com.business.salesync.models.OrderDetails;
 
 
 public interface OrderDetailsRepository extends JpaRepository<OrderDetails, Long> {
-	
+
 	 // Find all SaleOrderDetails linked to a specific Product
     List<OrderDetails> findByProductId(Long productId);
 
@@ -14,4 +22,55 @@ public interface OrderDetailsRepository extends JpaRepository<OrderDetails, Long
 
 	void deleteAllByOrderId(Long orderId);
 
+    // ========================================
+    // 📊 SALES REPORT (grouped in the database, live orders only)
+    // Cost is the COGS frozen on each line at sale time (CostingService), not today's cost price
+    // ========================================
+
+    String SALES_WHERE = "WHERE o.dateOrdered BETWEEN :from AND :to AND o.deleted = false ";
+
+    String SALES_TOTALS = "COUNT(DISTINCT o.id), SUM(d.quantity), SUM(d.unitPrice * d.quantity), SUM(d.cogsAmount)";
+
+    @Query("SELECT new com.business.salesync.dto.SalesReportRowDTO(o.dateOrdered, " + SALES_TOTALS + ") " +
+           "FROM OrderDetails d JOIN d.order o " +
+           SALES_WHERE + "GROUP BY o.dateOrdered ORDER BY o.dateOrdered")
+    List<SalesReportRowDTO> salesByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.business.salesync.dto.SalesReportRowDTO(p.id, p.name, p.sku, " + SALES_TOTALS + ") " +
+           "FROM OrderDetails d JOIN d.order o JOIN d.product p " +
+           SALES_WHERE + "GROUP BY p.id, p.name, p.sku ORDER BY SUM(d.unitPrice * d.quantity) DESC")
+    List<SalesReportRowDTO> salesByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.business.salesync.dto.SalesReportRowDTO(c.id, c.name, " + SALES_TOTALS + ") " +
+           "FROM OrderDetails d JOIN d.order o JOIN d.product p LEFT JOIN p.category c " +
+           SALES_WHERE + "GROUP BY c.id, c.name ORDER BY SUM(d.unitPrice * d.quantity) DESC")
+    List<SalesReportRowDTO> salesByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.business.salesync.dto.SalesReportRowDTO(cu.id, cu.name, " + SALES_TOTALS + ") " +
+           "FROM OrderDetails d JOIN d.order o LEFT JOIN o.customer cu " +
+           SALES_WHERE + "GROUP BY cu.id, cu.name ORDER BY SUM(d.unitPrice * d.quantity) DESC")
+    List<SalesReportRowDTO> salesByCustomer(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /** Drill-down: one page of lines with order, customer, product and category in the same select */
+    @Query(value = "SELECT d FROM OrderDetails d JOIN FETCH d.order o LEFT JOIN FETCH o.customer cu " +
+                   "JOIN FETCH d.product p LEFT JOIN FETCH p.category c " +
+                   "WHERE o.dateOrdered BETWEEN :from AND :to AND o.deleted = false " +
+                   "AND (:productId IS NULL OR p.id = :productId) " +
+                   "AND (:categoryId IS NULL OR c.id = :categoryId) " +
+                   "AND (:customerId IS NULL OR cu.id = :customerId) " +
+                   "ORDER BY o.dateOrdered DESC, d.id DESC",
+           countQuery = "SELECT COUNT(d) FROM OrderDetails d JOIN d.order o LEFT JOIN o.customer cu " +
+                        "JOIN d.product p LEFT JOIN p.category c " +
+                        "WHERE o.dateOrdered BETWEEN :from AND :to AND o.deleted = false " +
+                        "AND (:productId IS NULL OR p.id = :productId) " +
+                        "AND (:categoryId IS NULL OR c.id = :categoryId) " +
+                        "AND (:customerId IS NULL OR cu.id = :customerId)")
+    Page<OrderDetails> findSalesLines(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("productId") Long productId,
+            @Param("categoryId") Long categoryId,
+            @Param("customerId") Long customerId,
+            Pageable pageable);
+
 }
@@ -20,20 +20,7 @@ public interface OrderRepository extends JpaRepository<SalesOrder, Long> {
 	
 	List<SalesOrder> findByCustomerId(Long customerId);
 	
-	  // Fetch all orders between two dates
-    List<SalesOrder> findByDateOrderedBetween(LocalDate startDate, LocalDate endDate);
-
-    // Total sales today
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM SalesOrder o WHERE o.dateOrdered = :today")
-    double totalSalesToday(@Param("today") LocalDate today);
-
-    // Total sales this week
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM SalesOrder o WHERE o.dateOrdered BETWEEN :startOfWeek AND :endOfWeek")
-    double totalSalesThisWeek(@Param("startOfWeek") LocalDate startOfWeek, @Param("endOfWeek") LocalDate endOfWeek);
-
-    // Total sales this month
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM SalesOrder o WHERE o.dateOrdered BETWEEN :startOfMonth AND :endOfMonth")
-    double totalSalesThisMonth(@Param("startOfMonth") LocalDate startOfMonth, @Param("endOfMonth") LocalDate endOfMonth);
+    // Dashboard sales totals are kept in memory by SalesMetricsService
 
     // Find only non-deleted orders
     List<SalesOrder> findByDeletedFalse();
@@ -1,14 +1,14 @@
 package com.business.salesync.repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import com.business.salesync.dto.PosCatalogItemDTO;
 import com.business.salesync.models.Product;
 
 
@@ -19,29 +19,39 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find all products by category ID
     List<Product> findByCategoryId(Long categoryId);
 
-    @Modifying
-    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity WHERE p.id = :id")
-    void updateQuantity(@Param(value = "id") long id, @Param(value = "quantity") int quantity);
-    
-    // FIXED: Simplified query to avoid ONLY_FULL_GROUP_BY issues
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:search IS NULL OR :search = '' OR p.name LIKE %:search% OR p.sku LIKE %:search% OR p.barcode LIKE %:search%) AND " +
+    // POS catalog snapshot: a flat projection so no product/category/brand entities are hydrated
+    @Query("SELECT new com.business.salesync.dto.PosCatalogItemDTO(p.id, p.name, p.sku, p.barcode, p.sellingPrice, p.vatPercent, c.id) " +
+           "FROM Product p LEFT JOIN p.category c ORDER BY p.name")
+    List<PosCatalogItemDTO> findCatalogItems();
+
+    // Text search is served by ProductSearchIndex; stock status uses StockLevelTracker's
+    // levels (out: quantity <= 0, low: 0 < quantity <= min_stock_level, in: quantity > 0)
+    String LIST_FILTERS =
            "(:category IS NULL OR p.category.id = :category) AND " +
            "(:brand IS NULL OR p.brand.id = :brand) AND " +
-           "(:stockStatus IS NULL OR :stockStatus = '' OR " +
-           " (CASE WHEN :stockStatus = 'low' THEN (p.quantity <= p.minStockLevel AND p.quantity > 0) " +
-           "       WHEN :stockStatus = 'out' THEN (p.quantity = 0) " +
-           "       WHEN :stockStatus = 'in' THEN (p.quantity > 0) " +
-           "       ELSE true END))")
-    Page<Product> findWithFilters(@Param("search") String search,
-                                  @Param("category") Long category,
+           "(:stockStatus = 'any' OR " +
+           " (:stockStatus = 'out' AND p.quantity <= 0) OR " +
+           " (:stockStatus = 'low' AND p.quantity > 0 AND p.quantity <= p.minStockLevel) OR " +
+           " (:stockStatus = 'in' AND p.quantity > 0))";
+
+    @Query("SELECT p FROM Product p WHERE " + LIST_FILTERS)
+    Page<Product> findWithFilters(@Param("category") Long category,
                                   @Param("brand") Long brand,
                                   @Param("stockStatus") String stockStatus,
                                   Pageable pageable);
-     
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.quantity <= p.minStockLevel AND p.quantity > 0")
-    long countLowStockProducts();
-     
-    @Query("SELECT SUM(p.sellingPrice * p.quantity) FROM Product p WHERE p.quantity > 0")
-    BigDecimal calculateTotalStockValue();
+
+    // Search hits sorted by a column instead of relevance
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND " + LIST_FILTERS)
+    Page<Product> findByIdInWithFilters(@Param("ids") Collection<Long> ids,
+                                        @Param("category") Long category,
+                                        @Param("brand") Long brand,
+                                        @Param("stockStatus") String stockStatus,
+                                        Pageable pageable);
+
+    // Which of the search hits pass the list filters (ids come ranked from ProductSearchIndex)
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND " + LIST_FILTERS)
+    List<Long> findIdsWithFilters(@Param("ids") Collection<Long> ids,
+                                  @Param("category") Long category,
+                                  @Param("brand") Long brand,
+                                  @Param("stockStatus") String stockStatus);
 }
@@ -0,0 +1,26 @@
+package com.business.salesync.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.business.salesync.models.StockMovement;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Movements after `from` up to and including `to`, in journal order
+    @Query(value = "SELECT m FROM StockMovement m WHERE m.productId = :productId " +
+                   "AND m.movedAt > :from AND m.movedAt <= :to ORDER BY m.id",
+           countQuery = "SELECT COUNT(m) FROM StockMovement m WHERE m.productId = :productId " +
+                        "AND m.movedAt > :from AND m.movedAt <= :to")
+    Page<StockMovement> findHistory(@Param("productId") Long productId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.business.salesync.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.business.salesync.models.StockReservation;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByCartToken(String cartToken);
+
+    List<StockReservation> findTop500ByExpiresAtBefore(LocalDateTime cutoff);
+
+    // Deleting the row is the claim: only the caller that gets 1 back may release or consume it
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int claim(@Param("id") Long id);
+}
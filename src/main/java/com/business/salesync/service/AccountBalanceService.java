@@ -0,0 +1,126 @@
+package com.business.salesync.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.models.AccountBalance;
+import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.repository.AccountBalanceRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 💰 Account Balance Service - per-account balance projection.
+ *
+ * Every posting upserts its account's row in the same transaction, so the accounts
+ * pages read one row per account instead of grouping the whole transaction table.
+ * rebuild() regenerates the projection from app_acct_financial_accounts history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBalanceService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO app_acct_account_balances " +
+            "(fin_acc_name, fin_acc_id, fin_acc_type, current_balance, last_debit, last_credit, last_trn_date, last_remarks, last_entry_id, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE fin_acc_id = VALUES(fin_acc_id), fin_acc_type = VALUES(fin_acc_type), " +
+            "current_balance = VALUES(current_balance), last_debit = VALUES(last_debit), last_credit = VALUES(last_credit), " +
+            "last_trn_date = VALUES(last_trn_date), last_remarks = VALUES(last_remarks), " +
+            "last_entry_id = VALUES(last_entry_id), updated_at = VALUES(updated_at)";
+
+    // Latest row per account name - the same answer the old GROUP BY MAX(id) query gave
+    private static final String REBUILD_SQL =
+            "INSERT INTO app_acct_account_balances " +
+            "(fin_acc_name, fin_acc_id, fin_acc_type, current_balance, last_debit, last_credit, last_trn_date, last_remarks, last_entry_id, updated_at) " +
+            "SELECT fa.fin_acc_name, fa.fin_acc_id, fa.fin_acc_type, COALESCE(fa.current_balance, 0), fa.debit_amount, fa.credit_amount, " +
+            "fa.trn_date, fa.remarks, fa.id, NOW() " +
+            "FROM app_acct_financial_accounts fa " +
+            "INNER JOIN (SELECT fin_acc_name, MAX(id) AS max_id FROM app_acct_financial_accounts GROUP BY fin_acc_name) latest " +
+            "ON fa.id = latest.max_id";
+
+    // One account's latest row, for when an existing row was edited rather than appended
+    private static final String REFRESH_SQL =
+            "INSERT INTO app_acct_account_balances " +
+            "(fin_acc_name, fin_acc_id, fin_acc_type, current_balance, last_debit, last_credit, last_trn_date, last_remarks, last_entry_id, updated_at) " +
+            "SELECT fa.fin_acc_name, fa.fin_acc_id, fa.fin_acc_type, COALESCE(fa.current_balance, 0), fa.debit_amount, fa.credit_amount, " +
+            "fa.trn_date, fa.remarks, fa.id, NOW() " +
+            "FROM app_acct_financial_accounts fa " +
+            "WHERE fa.id = (SELECT MAX(id) FROM app_acct_financial_accounts WHERE fin_acc_name = ?)";
+
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /** ✏️ Called for every new row in app_acct_financial_accounts (posting or new account) */
+    @Transactional
+    public void recordLatest(FinancialAccount row) {
+        jdbcTemplate.update(UPSERT_SQL,
+                row.getFinAccName(),
+                row.getFinAccId(),
+                row.getFinAccType(),
+                row.getCurrentBalance() != null ? row.getCurrentBalance() : 0.0,
+                row.getDebitAmount(),
+                row.getCreditAmount(),
+                row.getTrnDate() != null ? Timestamp.valueOf(row.getTrnDate()) : null,
+                row.getRemarks(),
+                row.getId(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /** ✏️ Re-read one account's projection row from its actual latest posting (after an edit) */
+    @Transactional
+    public void refresh(String finAccName) {
+        if (finAccName == null) return;
+        jdbcTemplate.update("DELETE FROM app_acct_account_balances WHERE fin_acc_name = ?", finAccName);
+        jdbcTemplate.update(REFRESH_SQL, finAccName);
+    }
+
+    /** 🔁 Regenerate the whole projection from history */
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.update("DELETE FROM app_acct_account_balances");
+        int rows = jdbcTemplate.update(REBUILD_SQL);
+        log.info("🔁 Rebuilt account balance projection: {} accounts in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /** First start after upgrade: fill the projection once */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (accountBalanceRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 📊 Latest balance per account, shaped like the FinancialAccount rows the
+     * accounts pages already render.
+     */
+    @Transactional(readOnly = true)
+    public List<FinancialAccount> findLatestBalancePerAccount() {
+        return accountBalanceRepository.findAllByOrderByFinAccNameAsc().stream()
+                .map(b -> FinancialAccount.builder()
+                        .id(b.getLastEntryId())
+                        .finAccId(b.getFinAccId())
+                        .finAccName(b.getFinAccName())
+                        .finAccType(b.getFinAccType())
+                        .currentBalance(b.getCurrentBalance())
+                        .debitAmount(b.getLastDebit())
+                        .creditAmount(b.getLastCredit())
+                        .trnDate(b.getLastTrnDate())
+                        .remarks(b.getLastRemarks())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.business.salesync.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.business.salesync.dto.BulkCheckoutResultDTO;
+import com.business.salesync.dto.BulkCheckoutResultDTO.Status;
+import com.business.salesync.dto.CheckoutDTO;
+import com.business.salesync.models.SalesOrder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📦 Bulk Checkout Service - drains a terminal's offline sales queue.
+ *
+ * Sales are committed in chunks, one transaction per chunk, so a backlog of hundreds
+ * of sales costs a handful of commits. If any sale in a chunk fails, the chunk rolls
+ * back and is replayed one sale per transaction to isolate the bad one. Every sale
+ * must carry an idempotency key, so re-uploading a partially drained queue is safe.
+ * Results come back in the order the sales were submitted, each with its position.
+ */
+@Service
+@Slf4j
+public class BulkCheckoutService {
+
+    private final CheckoutService checkoutService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkCheckoutService(CheckoutService checkoutService,
+                               IdempotencyService idempotencyService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${salesync.checkout.bulk-chunk-size:50}") int chunkSize) {
+        this.checkoutService = checkoutService;
+        this.idempotencyService = idempotencyService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /** One result per submitted sale, in the order the sales were submitted */
+    public List<BulkCheckoutResultDTO> process(List<CheckoutDTO> sales) {
+        BulkCheckoutResultDTO[] results = new BulkCheckoutResultDTO[sales.size()];
+        List<Integer> pending = new ArrayList<>();
+
+        for (int index = 0; index < sales.size(); index++) {
+            CheckoutDTO sale = sales.get(index);
+            String key = sale.getIdempotencyKey();
+            if (key == null || key.isBlank()) {
+                results[index] = failed(index, sale, "idempotencyKey is required for queued sales");
+                continue;
+            }
+            // Already uploaded earlier: report it without opening a transaction
+            Long existingOrderId = idempotencyService.find(IdempotencyService.SCOPE_POS_CHECKOUT, key.trim()).orElse(null);
+            if (existingOrderId != null) {
+                results[index] = result(index, sale, Status.DUPLICATE, existingOrderId, sale.getInvoiceNumber(), null);
+            } else {
+                pending.add(index);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            try {
+                List<BulkCheckoutResultDTO> chunkResults = transactionTemplate.execute(status -> {
+                    List<BulkCheckoutResultDTO> ok = new ArrayList<>(chunk.size());
+                    for (int index : chunk) {
+                        CheckoutDTO sale = sales.get(index);
+                        SalesOrder order = checkoutService.checkout(sale);
+                        ok.add(result(index, sale, Status.CREATED, order.getId(), order.getInvoiceNumber(), null));
+                    }
+                    return ok;
+                });
+                chunkResults.forEach(r -> results[r.getIndex()] = r);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Bulk chunk of {} sales rolled back ({}), retrying one by one", chunk.size(), e.getMessage());
+                for (int index : chunk) {
+                    results[index] = processSingle(index, sales.get(index));
+                }
+            }
+        }
+
+        log.info("📦 Bulk checkout processed {} sales", sales.size());
+        return Arrays.asList(results);
+    }
+
+    private BulkCheckoutResultDTO processSingle(int index, CheckoutDTO sale) {
+        try {
+            SalesOrder order = transactionTemplate.execute(status -> checkoutService.checkout(sale));
+            return result(index, sale, Status.CREATED, order.getId(), order.getInvoiceNumber(), null);
+        } catch (RuntimeException e) {
+            return failed(index, sale, e.getMessage());
+        }
+    }
+
+    private static BulkCheckoutResultDTO failed(int index, CheckoutDTO sale, String message) {
+        return result(index, sale, Status.FAILED, null, sale.getInvoiceNumber(), message);
+    }
+
+    private static BulkCheckoutResultDTO result(int index, CheckoutDTO sale, Status status, Long orderId,
+                                                String invoiceNumber, String message) {
+        return BulkCheckoutResultDTO.builder()
+                .index(index)
+                .idempotencyKey(sale.getIdempotencyKey())
+                .status(status)
+                .orderId(orderId)
+                .invoiceNumber(invoiceNumber)
+                .message(message)
+                .build();
+    }
+}
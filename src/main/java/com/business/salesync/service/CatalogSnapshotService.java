@@ -0,0 +1,108 @@
+package com.business.salesync.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import com.business.salesync.dto.PosCatalogDTO;
+import com.business.salesync.event.CategoryChangedEvent;
+import com.business.salesync.event.ProductChangedEvent;
+import com.business.salesync.repository.CategoryRepository;
+import com.business.salesync.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🗂️ Catalog Snapshot Service - products and categories for the POS screen.
+ *
+ * The catalog is serialized once, gzipped and kept in memory with a content-hash ETag.
+ * Product/category writes bump the version after commit and the next request rebuilds,
+ * so an unchanged catalog costs the POS a 304 instead of three findAll() calls.
+ * Stock is deliberately not part of the snapshot; it changes on every sale.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile Snapshot current;
+
+    public Snapshot getSnapshot() {
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.getVersion() == version.get()) {
+            return snapshot;
+        }
+        synchronized (this) {
+            long wanted = version.get();
+            if (current == null || current.getVersion() != wanted) {
+                current = build(wanted);
+            }
+            return current;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    private Snapshot build(long forVersion) {
+        long start = System.currentTimeMillis();
+        PosCatalogDTO catalog = new PosCatalogDTO(
+                forVersion,
+                categoryRepository.findCatalogCategories(),
+                productRepository.findCatalogItems());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(catalog);
+            Snapshot snapshot = new Snapshot(forVersion, "\"" + DigestUtils.md5DigestAsHex(json) + "\"", json, gzip(json));
+            log.info("🗂️ Catalog snapshot v{} built: {} products, {} bytes ({} gzipped) in {} ms",
+                    forVersion, catalog.getProducts().size(), json.length, snapshot.getGzipped().length,
+                    System.currentTimeMillis() - start);
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build catalog snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    @Getter
+    public static class Snapshot {
+        private final long version;
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzipped;
+
+        Snapshot(long version, String etag, byte[] json, byte[] gzipped) {
+            this.version = version;
+            this.etag = etag;
+            this.json = json;
+            this.gzipped = gzipped;
+        }
+    }
+}
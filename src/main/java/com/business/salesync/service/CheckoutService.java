@@ -0,0 +1,238 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.dto.CheckoutDTO;
+import com.business.salesync.dto.CheckoutItemDTO;
+import com.business.salesync.models.Customer;
+import com.business.salesync.models.DocumentLink.DocumentType;
+import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.models.OrderDetails;
+import com.business.salesync.models.Payment;
+import com.business.salesync.models.Product;
+import com.business.salesync.models.PurchaseOrder.PaymentStatus;
+import com.business.salesync.models.SalesOrder;
+import com.business.salesync.models.StockMovement.Reason;
+import com.business.salesync.repository.CustomerRepository;
+import com.business.salesync.repository.OrderRepository;
+import com.business.salesync.repository.ProductRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🧾 Checkout Service - POS checkout pipeline
+ *
+ * Runs a whole sale in one transaction with a fixed number of round trips:
+ * products are loaded with one IN query, stock (via StockService's conditional
+ * decrement) and order lines are written as JDBC batches, and the order, payment and ledger entry commit (or roll back) together.
+ * The returned order carries its lines, so callers can print or serialize it without reloading.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutService {
+
+    private static final Long WALK_IN_CUSTOMER_ID = 1L;
+
+    private static final String INSERT_ORDER_DETAIL_SQL =
+            "INSERT INTO order_details (order_id, invoice_number, product_id, quantity, unit_price, vat, total_price, " +
+            "unit_cost, cogs_amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentService paymentService;
+    private final FinancialAccountService financialAccountService;
+    private final StockService stockService;
+    private final CostingService costingService;
+    private final IdempotencyService idempotencyService;
+    private final DocumentNumberService documentNumberService;
+    private final DocumentLinkService documentLinkService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Transactional
+    public SalesOrder checkout(CheckoutDTO request) {
+        if (request.getGrandTotal() == null || request.getAmountPaid() == null) {
+            throw new IllegalArgumentException("Grand total and amount paid are required");
+        }
+
+        // Merge duplicate lines so every product is touched once
+        Map<Long, CheckoutItemDTO> lines = new LinkedHashMap<>();
+        for (CheckoutItemDTO item : request.getItems()) {
+            if (item.getProductId() == null || item.getUnitPrice() == null || item.getQuantity() <= 0) continue;
+            lines.merge(item.getProductId(), item, (a, b) -> CheckoutItemDTO.builder()
+                    .productId(a.getProductId())
+                    .quantity(a.getQuantity() + b.getQuantity())
+                    .unitPrice(a.getUnitPrice())
+                    .build());
+        }
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("No valid products in order");
+        }
+
+        // 0️⃣ Replayed request? Hand back the order the first attempt created
+        String idempotencyKey = idempotencyKeyOf(request);
+        if (idempotencyKey != null) {
+            Optional<Long> existingOrderId = idempotencyService.claim(IdempotencyService.SCOPE_POS_CHECKOUT, idempotencyKey);
+            if (existingOrderId.isPresent()) {
+                return orderRepository.findById(existingOrderId.get())
+                        .orElseThrow(() -> new IllegalStateException("Order " + existingOrderId.get() + " no longer exists"));
+            }
+        }
+
+        Customer customer = customerRepository
+                .findById(request.getCustomerId() != null ? request.getCustomerId() : WALK_IN_CUSTOMER_ID)
+                .orElse(null);
+
+        // 1️⃣ One IN query for the whole basket
+        Map<Long, Product> products = productRepository.findAllById(lines.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (CheckoutItemDTO line : lines.values()) {
+            Product product = products.get(line.getProductId());
+            if (product == null) {
+                throw new IllegalArgumentException("Product not found: " + line.getProductId());
+            }
+            // Early, friendly check; the conditional UPDATE in StockService is what actually guards stock
+            if (request.getCartToken() == null && product.getAvailableQuantity() < line.getQuantity()) {
+                throw new RuntimeException("Insufficient stock for " + product.getName());
+            }
+        }
+
+        // 2️⃣ Order header
+        SalesOrder order = new SalesOrder();
+        // Server-issued unless an offline terminal already printed its own number
+        order.setInvoiceNumber(request.getInvoiceNumber() != null && !request.getInvoiceNumber().isBlank()
+                ? request.getInvoiceNumber()
+                : documentNumberService.next(DocumentNumberService.DocumentType.SALE_INVOICE));
+        order.setTotalAmount(request.getSubTotal() != null ? request.getSubTotal() : BigDecimal.ZERO);
+        order.setDiscount(request.getDiscount() != null ? request.getDiscount() : BigDecimal.ZERO);
+        order.setGrandTotal(request.getGrandTotal());
+        order.setAmountPaid(request.getAmountPaid());
+        order.setAmountDue(request.getAmountDue() != null ? request.getAmountDue() : BigDecimal.ZERO);
+        order.setDateOrdered(LocalDate.now());
+        order.setCustomer(customer);
+        orderRepository.save(order);
+
+        // 3️⃣ Stock decrement, cost of goods sold, then order lines as JDBC batches
+        List<OrderDetails> details = new ArrayList<>();
+        for (CheckoutItemDTO line : lines.values()) {
+            OrderDetails od = new OrderDetails();
+            od.setOrder(order);
+            od.setProduct(products.get(line.getProductId()));
+            od.setQuantity(line.getQuantity());
+            od.setUnitPrice(line.getUnitPrice());
+            od.setInvoiceNumber(order.getInvoiceNumber());
+            od.calculateTotals();
+            details.add(od);
+        }
+        stockService.decrementAll(lines.values().stream()
+                .collect(Collectors.toMap(CheckoutItemDTO::getProductId, CheckoutItemDTO::getQuantity,
+                        Integer::sum, LinkedHashMap::new)), request.getCartToken(), Reason.SALE, order.getInvoiceNumber());
+        costingService.cost(details);
+        insertOrderDetails(order, details);
+
+        // 4️⃣ Payment + financial ledger in the same transaction
+        BigDecimal amountPaid = request.getAmountPaid();
+        if (amountPaid.compareTo(BigDecimal.ZERO) > 0) {
+            String entityName = (customer != null) ? customer.getName() : "Walk-in Customer";
+
+            Payment payment = paymentService.savePaymentRecord(
+                    order.getId(),
+                    Payment.RefType.SALE_ORDER,
+                    order.getTotalAmount(),
+                    order.getTotalVat(),
+                    order.getDiscount(),
+                    order.getGrandTotal(),
+                    order.getAmountPaid(),
+                    order.getAmountDue(),
+                    entityName
+            );
+
+            PaymentStatus paymentStatus = amountPaid.compareTo(request.getGrandTotal()) < 0
+                    ? PaymentStatus.PARTIALLY_PAID
+                    : PaymentStatus.PAID;
+
+            FinancialAccount posting = financialAccountService.recordTransaction(
+                    resolveAccountName(request.getFinAccName(), request.getPaymentMethod()),
+                    request.getPaymentMethod(),  // finAccType
+                    amountPaid.doubleValue(),
+                    "CASH_IN",                   // POS collection is money coming in
+                    "SALE_ORDER",                // refType
+                    "CUSTOMER",                  // entityType
+                    entityName,
+                    order.getInvoiceNumber(),    // trnRefNo
+                    order.getId(),               // refId
+                    "POS Sale Payment",          // remarks
+                    paymentStatus.name()
+            );
+            documentLinkService.link(DocumentType.PAYMENT, payment.getId(), DocumentType.LEDGER, posting.getId());
+        }
+
+        if (idempotencyKey != null) {
+            idempotencyService.complete(IdempotencyService.SCOPE_POS_CHECKOUT, idempotencyKey, order.getId());
+        }
+
+        // Lines went in by JDBC; detach first so the cascade does not insert them a second time
+        entityManager.detach(order);
+        order.setOrderDetails(details);
+
+        log.info("✅ Checkout {} committed with {} lines", order.getInvoiceNumber(), details.size());
+        return order;
+    }
+
+    /** Explicit retry token wins; a resubmitted form still carries the same invoice number */
+    static String idempotencyKeyOf(CheckoutDTO request) {
+        if (request.getIdempotencyKey() != null && !request.getIdempotencyKey().isBlank()) {
+            return request.getIdempotencyKey().trim();
+        }
+        if (request.getInvoiceNumber() != null && !request.getInvoiceNumber().isBlank()) {
+            return "INV:" + request.getInvoiceNumber().trim();
+        }
+        return null;
+    }
+
+    private void insertOrderDetails(SalesOrder order, List<OrderDetails> details) {
+        jdbcTemplate.batchUpdate(INSERT_ORDER_DETAIL_SQL, details, details.size(), (ps, od) -> {
+            ps.setLong(1, order.getId());
+            ps.setString(2, od.getInvoiceNumber());
+            ps.setLong(3, od.getProduct().getId());
+            ps.setInt(4, od.getQuantity());
+            ps.setBigDecimal(5, od.getUnitPrice());
+            ps.setBigDecimal(6, od.getVat());
+            ps.setBigDecimal(7, od.getTotalPrice());
+            ps.setBigDecimal(8, od.getUnitCost());
+            ps.setBigDecimal(9, od.getCogsAmount());
+        });
+    }
+
+    /** Account picked in the payment modal wins; otherwise map the payment method to its default account */
+    private String resolveAccountName(String finAccName, String paymentMethod) {
+        if (finAccName != null && !finAccName.isBlank()) {
+            return finAccName;
+        }
+        if (paymentMethod == null) {
+            return "Cash at Hand";
+        }
+        return switch (paymentMethod) {
+            case "bKash", "MFS" -> "bKash";
+            case "Bank Transfer", "BANK" -> "Pubali Bank PLC";
+            default -> "Cash at Hand";
+        };
+    }
+}
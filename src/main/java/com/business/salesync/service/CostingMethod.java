@@ -0,0 +1,23 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 🧮 How the cost of goods leaving stock is worked out. Called inside the transaction
+ * that moves the stock, after StockService has locked the product rows.
+ */
+interface CostingMethod {
+
+    /** Unit cost of the units leaving stock, per product */
+    Map<Long, BigDecimal> issue(Map<Long, Integer> quantities);
+
+    /** Units bought in at a unit cost */
+    void receive(Long productId, int qty, BigDecimal unitCost, String reference);
+
+    /** Units coming back from a customer; null unitCost means the current cost */
+    void restore(Long productId, int qty, BigDecimal unitCost, String reference);
+
+    /** Units going back to the supplier or off an undone receipt, that receipt's units first */
+    void withdraw(Long productId, int qty, String reference);
+}
@@ -0,0 +1,134 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.models.OrderDetails;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🧮 Costing Service - freezes the cost of goods sold onto each order line when it is sold.
+ *
+ * Profit reports then add up order_details.cogs_amount in SQL instead of multiplying by
+ * today's product cost. The method is chosen with salesync.costing.method:
+ *   - WEIGHTED_AVERAGE (default): lines are costed at products.cost_price
+ *   - FIFO: receipts open cost layers and sales use up the oldest first
+ * Every call runs in the caller's transaction, after the stock rows are locked, so two
+ * tills can never take the same layer.
+ */
+@Service
+@Slf4j
+public class CostingService {
+
+    public enum Method { WEIGHTED_AVERAGE, FIFO }
+
+    // Lines sold before costing existed get the cost price of the day they were filled in
+    private static final String BACKFILL_SQL =
+            "UPDATE order_details d JOIN products p ON p.id = d.product_id " +
+            "SET d.unit_cost = COALESCE(p.cost_price, 0), d.cogs_amount = COALESCE(p.cost_price, 0) * d.quantity " +
+            "WHERE d.cogs_amount IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Method method;
+    private final CostingMethod costing;
+
+    public CostingService(JdbcTemplate jdbcTemplate,
+                          @Value("${salesync.costing.method:WEIGHTED_AVERAGE}") Method method) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.method = method;
+        WeightedAverageCosting average = new WeightedAverageCosting(jdbcTemplate);
+        this.costing = method == Method.FIFO ? new FifoCosting(jdbcTemplate, average) : average;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        int updated = jdbcTemplate.update(BACKFILL_SQL);
+        log.info("🧮 Costing method {}; {} older order lines given a cost in {} ms",
+                method, updated, System.currentTimeMillis() - start);
+    }
+
+    // ========================================
+    // ✏️ STOCK LEAVING
+    // ========================================
+
+    /** 🧾 Work out and set unitCost and cogsAmount on lines whose stock has just been taken */
+    @Transactional
+    public void cost(List<OrderDetails> lines) {
+        if (lines == null || lines.isEmpty()) return;
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderDetails line : lines) {
+            quantities.merge(line.getProduct().getId(), line.getQuantity(), Integer::sum);
+        }
+        assign(lines, costing.issue(quantities));
+    }
+
+    /** 📤 Units going back to the supplier or off a deleted purchase; that receipt's units first */
+    @Transactional
+    public void withdraw(Long productId, int qty, String reference) {
+        costing.withdraw(productId, qty, reference);
+    }
+
+    // ========================================
+    // ✏️ STOCK ARRIVING
+    // ========================================
+
+    /** 📥 Units bought in at a unit cost */
+    @Transactional
+    public void receive(Long productId, int qty, BigDecimal unitCost, String reference) {
+        costing.receive(productId, qty, unitCost, reference);
+    }
+
+    /** ↩️ Lines of an edited or deleted order going back on the shelf at the cost they left with */
+    @Transactional
+    public void restore(List<OrderDetails> lines, String reference) {
+        if (lines == null) return;
+        for (OrderDetails line : lines) {
+            costing.restore(line.getProduct().getId(), line.getQuantity(), line.getUnitCost(), reference);
+        }
+    }
+
+    /** ↩️ Units returned by a customer; null unitCost means the current cost */
+    @Transactional
+    public void restore(Long productId, int qty, BigDecimal unitCost, String reference) {
+        costing.restore(productId, qty, unitCost, reference);
+    }
+
+    /** Unit cost each product of an order was sold at, for pricing a return */
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> soldUnitCosts(Long orderId) {
+        Map<Long, BigDecimal> costs = new HashMap<>();
+        if (orderId == null) return costs;
+        jdbcTemplate.query("SELECT product_id, SUM(cogs_amount) / SUM(quantity) FROM order_details " +
+                           "WHERE order_id = ? AND quantity > 0 GROUP BY product_id", rs -> {
+            BigDecimal cost = rs.getBigDecimal(2);
+            if (cost != null) costs.put(rs.getLong(1), cost.setScale(4, RoundingMode.HALF_UP));
+        }, orderId);
+        return costs;
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    /** Each line gets its product's unit cost and that cost times its own quantity */
+    static void assign(List<OrderDetails> lines, Map<Long, BigDecimal> unitCosts) {
+        for (OrderDetails line : lines) {
+            BigDecimal unitCost = unitCosts.getOrDefault(line.getProduct().getId(), BigDecimal.ZERO);
+            line.setUnitCost(unitCost);
+            line.setCogsAmount(unitCost.multiply(BigDecimal.valueOf(line.getQuantity())).setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+}
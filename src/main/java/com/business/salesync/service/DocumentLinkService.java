@@ -0,0 +1,206 @@
+package com.business.salesync.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.dto.DocumentNodeDTO;
+import com.business.salesync.event.DocumentCreatedEvent;
+import com.business.salesync.models.DocumentLink.DocumentType;
+import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.models.Payment;
+import com.business.salesync.models.PurchaseReturn;
+import com.business.salesync.models.SalesReturn;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔗 Document Link Service - who-relates-to-whom between orders, payments, returns and
+ * ledger rows, recorded when the documents are written.
+ *
+ * Links come from the reference each document already carries (Payment.refType/refId,
+ * SalesReturn.salesOrder, FinancialAccount.refType/refId) plus explicit payment → ledger
+ * links from the payment paths. A drill-down is then one recursive query over
+ * document_links that also pulls the headline fields of every document it reaches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentLinkService {
+
+    public static final int DEFAULT_DEPTH = 4;
+    public static final int MAX_DEPTH = 6;
+
+    private static final String LINK_SQL =
+            "INSERT IGNORE INTO document_links (from_type, from_id, to_type, to_id, link_type, is_reverse, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Breadth-first walk from one document; both directions are stored, so each step is
+    // a lookup on the (from_type, from_id, ...) unique key. UNION (not ALL) drops repeats
+    // of the same document at the same depth, and depth bounds cycles.
+    private static final String NEIGHBOURHOOD_SQL =
+            "WITH RECURSIVE graph (doc_type, doc_id, depth) AS ( " +
+            "  SELECT CAST(? AS CHAR(20)), CAST(? AS SIGNED), 0 " +
+            "  UNION " +
+            "  SELECT l.to_type, l.to_id, g.depth + 1 FROM graph g " +
+            "  JOIN document_links l ON l.from_type = g.doc_type AND l.from_id = g.doc_id " +
+            "  WHERE g.depth < ? " +
+            ") " +
+            "SELECT n.doc_type, n.doc_id, n.depth, " +
+            "  COALESCE(o.invoice_number, po.purchase_order_no, p.payment_no, sr.return_ref_no, pr.return_ref_no, " +
+            "           e.expense_ref_no, f.trn_ref_no), " +
+            "  COALESCE(CAST(o.date_ordered AS DATETIME), CAST(po.insert_date AS DATETIME), p.payment_date, " +
+            "           sr.return_date, pr.return_date, CAST(e.expense_date AS DATETIME), f.trn_date), " +
+            "  COALESCE(o.grand_total, po.grand_total, p.paid_amount, sr.total_return_amount, pr.total_return_amount, " +
+            "           e.total_amount, NULLIF(f.debit_amount, 0), f.credit_amount), " +
+            "  COALESCE(o.payment_status, po.payment_status, p.payment_status, e.payment_status, f.payment_status), " +
+            "  COALESCE(o.remarks, po.remarks, p.remarks, sr.remarks, pr.remarks, e.description, f.remarks) " +
+            "FROM (SELECT doc_type, doc_id, MIN(depth) AS depth FROM graph GROUP BY doc_type, doc_id) n " +
+            "LEFT JOIN orders o ON n.doc_type = 'SALE_ORDER' AND o.id = n.doc_id " +
+            "LEFT JOIN purchase_order po ON n.doc_type = 'PURCHASE_ORDER' AND po.id = n.doc_id " +
+            "LEFT JOIN payment p ON n.doc_type = 'PAYMENT' AND p.id = n.doc_id " +
+            "LEFT JOIN sales_returns sr ON n.doc_type = 'SALE_RETURN' AND sr.id = n.doc_id " +
+            "LEFT JOIN purchase_returns pr ON n.doc_type = 'PURCHASE_RETURN' AND pr.id = n.doc_id " +
+            "LEFT JOIN expenses e ON n.doc_type = 'EXPENSE' AND e.id = n.doc_id " +
+            "LEFT JOIN app_acct_financial_accounts f ON n.doc_type = 'LEDGER' AND f.id = n.doc_id " +
+            "ORDER BY n.depth, 5, n.doc_type, n.doc_id";
+
+    // Links for rows written before document_links existed, from the references they carry
+    private static final String[] BACKFILL_SQL = {
+            backfill("SELECT ref_type, ref_id, 'PAYMENT', id, 'PAYMENT' FROM payment " +
+                     "WHERE ref_id IS NOT NULL AND ref_type IS NOT NULL"),
+            backfill("SELECT 'SALE_ORDER', sales_order_id, 'SALE_RETURN', id, 'RETURN' FROM sales_returns " +
+                     "WHERE sales_order_id IS NOT NULL"),
+            backfill("SELECT 'PURCHASE_ORDER', purchase_order_id, 'PURCHASE_RETURN', id, 'RETURN' FROM purchase_returns " +
+                     "WHERE purchase_order_id IS NOT NULL"),
+            backfill("SELECT ref_type, ref_id, 'LEDGER', id, 'POSTING' FROM app_acct_financial_accounts " +
+                     "WHERE ref_id IS NOT NULL AND ref_type IN " +
+                     "('SALE_ORDER', 'PURCHASE_ORDER', 'PAYMENT', 'SALE_RETURN', 'PURCHASE_RETURN', 'EXPENSE')")
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // ========================================
+    // ✏️ WRITE SIDE
+    // ========================================
+
+    /** ✏️ Record that from leads to to (stored in both directions; repeats are ignored) */
+    @Transactional
+    public void link(DocumentType fromType, Long fromId, DocumentType toType, Long toId) {
+        if (fromId == null || toId == null) {
+            return;
+        }
+        String linkType = linkType(toType);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(LINK_SQL, fromType.name(), fromId, toType.name(), toId, linkType, false, now);
+        jdbcTemplate.update(LINK_SQL, toType.name(), toId, fromType.name(), fromId, linkType, true, now);
+    }
+
+    /** 🧾 New payment / return / ledger row: link it to the document it references */
+    @EventListener
+    public void onDocumentCreated(DocumentCreatedEvent event) {
+        Object document = event.getDocument();
+        if (document instanceof Payment payment) {
+            if (payment.getRefType() != null) {
+                link(DocumentType.valueOf(payment.getRefType().name()), payment.getRefId(),
+                        DocumentType.PAYMENT, payment.getId());
+            }
+        } else if (document instanceof SalesReturn salesReturn) {
+            if (salesReturn.getSalesOrder() != null) {
+                link(DocumentType.SALE_ORDER, salesReturn.getSalesOrder().getId(),
+                        DocumentType.SALE_RETURN, salesReturn.getId());
+            }
+        } else if (document instanceof PurchaseReturn purchaseReturn) {
+            if (purchaseReturn.getPurchaseOrder() != null) {
+                link(DocumentType.PURCHASE_ORDER, purchaseReturn.getPurchaseOrder().getId(),
+                        DocumentType.PURCHASE_RETURN, purchaseReturn.getId());
+            }
+        } else if (document instanceof FinancialAccount row) {
+            DocumentType source = documentType(row.getRefType());
+            if (source != null && source != DocumentType.LEDGER) {
+                link(source, row.getRefId(), DocumentType.LEDGER, row.getId());
+            }
+        }
+    }
+
+    /** 🚀 First start after upgrading: derive links from the references already stored */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        Long links = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM document_links", Long.class);
+        if (links == null || links > 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int edges = 0;
+        for (String sql : BACKFILL_SQL) {
+            edges += jdbcTemplate.update(sql);
+        }
+        log.info("🔗 Backfilled {} document link rows in {} ms", edges, System.currentTimeMillis() - start);
+    }
+
+    // ========================================
+    // 🔍 DRILL-DOWN
+    // ========================================
+
+    /**
+     * 🔍 Every document within depth links of the start document, the start document
+     * first, then by distance and date.
+     */
+    @Transactional(readOnly = true)
+    public List<DocumentNodeDTO> neighbourhood(DocumentType type, Long id, int depth) {
+        int bounded = Math.max(1, Math.min(depth, MAX_DEPTH));
+        return jdbcTemplate.query(NEIGHBOURHOOD_SQL, (rs, i) -> {
+            Timestamp date = rs.getTimestamp(5);
+            double amount = rs.getDouble(6);
+            return DocumentNodeDTO.builder()
+                    .type(rs.getString(1))
+                    .id(rs.getLong(2))
+                    .depth(rs.getInt(3))
+                    .refNo(rs.getString(4))
+                    .date(date != null ? date.toLocalDateTime() : null)
+                    .amount(rs.wasNull() ? null : amount)
+                    .status(rs.getString(7))
+                    .remarks(rs.getString(8))
+                    .build();
+        }, type.name(), id, bounded);
+    }
+
+    /** Document type of a ledger row's ref_type, or null for refs that are not documents */
+    public static DocumentType documentType(String refType) {
+        if (refType == null) return null;
+        try {
+            return DocumentType.valueOf(refType.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private static String linkType(DocumentType toType) {
+        return switch (toType) {
+            case PAYMENT -> "PAYMENT";
+            case SALE_RETURN, PURCHASE_RETURN -> "RETURN";
+            case LEDGER -> "POSTING";
+            default -> "REFERENCE";
+        };
+    }
+
+    /** Both directions of every (from_type, from_id, to_type, to_id, link_type) row of select */
+    private static String backfill(String select) {
+        return "INSERT IGNORE INTO document_links (from_type, from_id, to_type, to_id, link_type, is_reverse, created_at) " +
+               "SELECT x.ft, x.fi, x.tt, x.ti, x.lt, FALSE, NOW() FROM (" + select + ") AS x (ft, fi, tt, ti, lt) " +
+               "UNION ALL " +
+               "SELECT x.tt, x.ti, x.ft, x.fi, x.lt, TRUE, NOW() FROM (" + select + ") AS x (ft, fi, tt, ti, lt)";
+    }
+}
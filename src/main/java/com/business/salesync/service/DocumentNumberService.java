@@ -0,0 +1,129 @@
+package com.business.salesync.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔢 Document Number Service - one allocator for every business document number.
+ *
+ * Numbers look like PREFIX-yyyyMMdd-0001 and are counted per prefix per day in
+ * document_sequences. Each JVM reserves a block of numbers with one upsert in its own
+ * short transaction (hi/lo), then hands them out from memory, so issuing a number is
+ * O(1) and never scans existing documents. Numbers are collision-free across JVMs;
+ * an unused tail of a block (e.g. on restart) simply leaves a gap. The first block of
+ * a day starts after the highest number already on that day's documents, so numbers
+ * issued before the counter row existed are never handed out again.
+ */
+@Service
+@Slf4j
+public class DocumentNumberService {
+
+    public enum DocumentType {
+        SALE_INVOICE("INV", 4, "orders", "invoice_number"),
+        PURCHASE_ORDER("PO", 3, "purchase_order", "purchase_order_no"),
+        EXPENSE("EXP", 4, "expenses", "expense_ref_no"),
+        SALES_RETURN("SR", 4, "sales_returns", "return_ref_no"),
+        PURCHASE_RETURN("PR", 4, "purchase_returns", "return_ref_no"),
+        PAYMENT("PAY", 4, "payment", "payment_no");
+
+        private final String prefix;
+        private final int digits;
+        private final String table;   // where numbers of this type are stored
+        private final String column;  // unique, so the LIKE prefix below is an index range
+
+        DocumentType(String prefix, int digits, String table, String column) {
+            this.prefix = prefix;
+            this.digits = digits;
+            this.table = table;
+            this.column = column;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    // LAST_INSERT_ID(expr) makes the new value readable on this connection without a second lock
+    private static final String ALLOCATE_SQL =
+            "INSERT INTO document_sequences (seq_key, next_value) VALUES (?, LAST_INSERT_ID(1 + ?)) " +
+            "ON DUPLICATE KEY UPDATE next_value = LAST_INSERT_ID(next_value + ?)";
+
+    private static final String EXISTS_SQL = "SELECT COUNT(*) FROM document_sequences WHERE seq_key = ?";
+
+    // Highest counter already used on a day, e.g. 41 for PREFIX-yyyyMMdd-0041
+    private static final String LAST_ISSUED_SQL =
+            "SELECT COALESCE(MAX(CAST(SUBSTRING(%2$s, ?) AS UNSIGNED)), 0) FROM %1$s WHERE %2$s LIKE ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate allocationTx;
+    private final int blockSize;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public DocumentNumberService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${salesync.sequence.block-size:20}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationTx = new TransactionTemplate(transactionManager);
+        this.allocationTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public String next(DocumentType type) {
+        String day = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+        String seqKey = type.prefix + "-" + day;
+
+        if (!blocks.containsKey(seqKey)) {
+            // New day for this prefix: yesterday's block is no longer needed
+            blocks.keySet().removeIf(key -> key.startsWith(type.prefix + "-") && !key.equals(seqKey));
+        }
+        Block block = blocks.computeIfAbsent(seqKey, k -> new Block());
+
+        long value;
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                block.next = allocate(type, seqKey);
+                block.limit = block.next + blockSize;
+            }
+            value = block.next++;
+        }
+        return seqKey + "-" + String.format("%0" + type.digits + "d", value);
+    }
+
+    /** @return first number of a freshly reserved block */
+    private long allocate(DocumentType type, String seqKey) {
+        Long upper = allocationTx.execute(status -> {
+            // First block of the day: start after whatever was issued before the counter existed
+            Integer rows = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, seqKey);
+            long issued = rows != null && rows > 0 ? 0 : lastIssued(type, seqKey);
+            jdbcTemplate.update(ALLOCATE_SQL, seqKey, issued + blockSize, blockSize);
+            return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        });
+        log.debug("🔢 Reserved {} numbers for {} up to {}", blockSize, seqKey, upper - 1);
+        return upper - blockSize;
+    }
+
+    private long lastIssued(DocumentType type, String seqKey) {
+        Long last = jdbcTemplate.queryForObject(String.format(LAST_ISSUED_SQL, type.table, type.column),
+                Long.class, seqKey.length() + 2, seqKey + "-%");
+        if (last != null && last > 0) {
+            log.info("🔢 {} starts after {} numbers already issued today", seqKey, last);
+        }
+        return last != null ? last : 0;
+    }
+
+    private static final class Block {
+        long next;
+        long limit;
+    }
+}
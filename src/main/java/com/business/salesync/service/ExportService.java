@@ -0,0 +1,243 @@
+package com.business.salesync.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.business.salesync.service.PartyNameIndex.PartyFilter;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📤 Export Service - CSV / XLSX downloads of ledgers and transaction lists.
+ *
+ * Rows are read through a forward-only, read-only MySQL streaming cursor and written to
+ * the response one at a time, so a full-year export uses the same heap as a one-day
+ * export: a 64 KB CSV buffer, or a 100-row XLSX window with older rows on disk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    public enum Format {
+        CSV("csv", "text/csv; charset=UTF-8"),
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        @Getter private final String extension;
+        @Getter private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public static Format of(String value) {
+            for (Format f : values()) {
+                if (f.extension.equalsIgnoreCase(value)) return f;
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    public enum Dataset {
+        CUSTOMER_LEDGER("customer-ledger", "Customer Ledger",
+                List.of("Date", "Reference", "Ref Type", "Transaction Type", "Customer", "Account",
+                        "Payment Method", "Debit", "Credit", "Balance", "Status", "Remarks"),
+                "SELECT f.trn_date, f.trn_ref_no, f.ref_type, f.transaction_type, f.entity_name, f.fin_acc_name, " +
+                "f.payment_method, f.debit_amount, f.credit_amount, f.balance_after_trn, f.payment_status, f.remarks " +
+                "FROM app_acct_financial_accounts f WHERE f.entity_type = 'CUSTOMER'",
+                "f.trn_date", true, "f.customer_id", "f.entity_name", "f.trn_date, f.id"),
+
+        SUPPLIER_LEDGER("supplier-ledger", "Supplier Ledger",
+                List.of("Date", "Reference", "Ref Type", "Transaction Type", "Supplier", "Account",
+                        "Payment Method", "Debit", "Credit", "Balance", "Status", "Remarks"),
+                "SELECT f.trn_date, f.trn_ref_no, f.ref_type, f.transaction_type, f.entity_name, f.fin_acc_name, " +
+                "f.payment_method, f.debit_amount, f.credit_amount, f.balance_after_trn, f.payment_status, f.remarks " +
+                "FROM app_acct_financial_accounts f WHERE f.entity_type = 'SUPPLIER'",
+                "f.trn_date", true, "f.supplier_id", "f.entity_name", "f.trn_date, f.id"),
+
+        PAYMENTS("payments", "Payments",
+                List.of("Payment No", "Date", "Ref Type", "Ref Id", "Party Type", "Party", "Method",
+                        "From Account", "To Account", "Instrument No", "Grand Total", "Amount Paid",
+                        "Amount Due", "Status", "Remarks"),
+                "SELECT p.payment_no, p.payment_date, p.ref_type, p.ref_id, p.entity_type, " +
+                "COALESCE(c.name, s.supplier_name), p.method, p.from_account, p.to_account, p.instrument_no, " +
+                "p.grand_total, p.amount_paid, p.amount_due, p.payment_status, p.remarks " +
+                "FROM payment p LEFT JOIN customers c ON c.id = p.customer_id " +
+                "LEFT JOIN suppliers s ON s.id = p.supplier_id WHERE p.deleted = 0",
+                "p.payment_date", true, null, null, "p.payment_date, p.id"),
+
+        EXPENSES("expenses", "Expenses",
+                List.of("Reference", "Date", "Category", "Type", "Vendor", "Description", "Bill No",
+                        "Subtotal", "Tax", "Discount", "Total", "Amount Paid", "Amount Due", "Status",
+                        "Payment Method", "Account"),
+                "SELECT e.expense_ref_no, e.expense_date, e.expense_category, e.expense_type, e.vendor_name, " +
+                "e.description, e.reference_no, e.subtotal, e.tax_amount, e.discount, e.total_amount, " +
+                "e.amount_paid, e.amount_due, e.payment_status, e.payment_method, e.fin_account_name " +
+                "FROM expenses e WHERE e.deleted = 0",
+                "e.expense_date", false, null, null, "e.expense_date, e.id"),
+
+        SALES_ORDERS("sales-orders", "Sales Orders",
+                List.of("Invoice", "Date", "Customer", "Total", "VAT", "Discount", "Grand Total",
+                        "Amount Paid", "Amount Due", "Payment Status", "Status", "Remarks"),
+                "SELECT o.invoice_number, o.date_ordered, c.name, o.total_amount, o.total_vat, o.discount, " +
+                "o.grand_total, o.amount_paid, o.amount_due, o.payment_status, o.status, o.remarks " +
+                "FROM orders o LEFT JOIN customers c ON c.id = o.customer_id WHERE o.deleted = 0",
+                "o.date_ordered", false, "o.customer_id", null, "o.date_ordered, o.id");
+
+        @Getter private final String slug;
+        @Getter private final String title;
+        private final List<String> columns;
+        private final String select;
+        private final String dateColumn;
+        private final boolean dateTimeColumn;
+        private final String customerOrSupplierColumn;
+        private final String partyNameColumn; // matched for rows with no party id
+        private final String orderBy;
+
+        Dataset(String slug, String title, List<String> columns, String select, String dateColumn,
+                boolean dateTimeColumn, String customerOrSupplierColumn, String partyNameColumn, String orderBy) {
+            this.slug = slug;
+            this.title = title;
+            this.columns = columns;
+            this.select = select;
+            this.dateColumn = dateColumn;
+            this.dateTimeColumn = dateTimeColumn;
+            this.customerOrSupplierColumn = customerOrSupplierColumn;
+            this.partyNameColumn = partyNameColumn;
+            this.orderBy = orderBy;
+        }
+
+        public static Dataset of(String slug) {
+            for (Dataset d : values()) {
+                if (d.slug.equalsIgnoreCase(slug)) return d;
+            }
+            throw new IllegalArgumentException("Unknown export: " + slug);
+        }
+
+        private String partyType() {
+            return this == SUPPLIER_LEDGER ? PartyNameIndex.SUPPLIER : PartyNameIndex.CUSTOMER;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartyNameIndex partyNameIndex;
+
+    /** 📎 Download file name, e.g. customer-ledger_2025-01-01_2025-12-31.xlsx */
+    public String fileName(Dataset dataset, Format format, LocalDate fromDate, LocalDate toDate) {
+        StringBuilder name = new StringBuilder(dataset.getSlug());
+        if (fromDate != null) name.append('_').append(fromDate);
+        if (toDate != null) name.append('_').append(toDate);
+        return name.append('.').append(format.getExtension()).toString();
+    }
+
+    /**
+     * 📤 Stream one dataset to out.
+     *
+     * @param partyName customer/supplier name filter (contains, case-insensitive);
+     *                  ignored by datasets that are not per customer/supplier
+     * @param fromDate  first day included, optional
+     * @param toDate    last day included, optional
+     * @return number of data rows written
+     */
+    public long export(Dataset dataset, Format format, String partyName,
+                       LocalDate fromDate, LocalDate toDate, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        List<Object> args = new ArrayList<>();
+        String sql = buildQuery(dataset, partyName, fromDate, toDate, args);
+
+        ExportWriter writer = format == Format.XLSX
+                ? new XlsxExportWriter(out, dataset.getTitle())
+                : new CsvExportWriter(out);
+        writer.header(dataset.columns);
+
+        long[] written = {0};
+        if (sql != null) {
+            int width = dataset.columns.size();
+            try {
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    // Connector/J streams row by row instead of buffering the whole result set
+                    ps.setFetchSize(Integer.MIN_VALUE);
+                    for (int i = 0; i < args.size(); i++) {
+                        ps.setObject(i + 1, args.get(i));
+                    }
+                    return ps;
+                }, (RowCallbackHandler) rs -> {
+                    Object[] values = new Object[width];
+                    for (int i = 0; i < width; i++) {
+                        values[i] = rs.getObject(i + 1);
+                    }
+                    try {
+                        writer.row(values);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    written[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // client went away
+            }
+        }
+        writer.finish();
+
+        log.info("📤 Exported {} {} rows as {} in {} ms",
+                written[0], dataset.getSlug(), format.getExtension(), System.currentTimeMillis() - start);
+        return written[0];
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    /** SQL for the filters, or null when the party filter matches nobody */
+    private String buildQuery(Dataset dataset, String partyName, LocalDate fromDate, LocalDate toDate, List<Object> args) {
+        StringBuilder sql = new StringBuilder(dataset.select);
+        PartyFilter parties = dataset.customerOrSupplierColumn != null
+                ? partyNameIndex.filter(dataset.partyType(), partyName) : null;
+        if (parties != null) {
+            if (dataset.partyNameColumn == null && parties.ids().isEmpty()) {
+                return null;
+            }
+            List<Long> ids = parties.queryIds();
+            sql.append(" AND (").append(dataset.customerOrSupplierColumn)
+               .append(" IN (").append(String.join(",", Collections.nCopies(ids.size(), "?"))).append(")");
+            args.addAll(ids);
+            if (dataset.partyNameColumn != null) {
+                // Ledger rows with no party id (walk-in, shared or changed names) match on their own name
+                sql.append(" OR (").append(dataset.customerOrSupplierColumn).append(" IS NULL AND LOWER(")
+                   .append(dataset.partyNameColumn).append(") LIKE ?)");
+                args.add(parties.namePattern());
+            }
+            sql.append(")");
+        }
+        if (fromDate != null) {
+            sql.append(" AND ").append(dataset.dateColumn).append(" >= ?");
+            args.add(dataset.dateTimeColumn ? Timestamp.valueOf(fromDate.atStartOfDay()) : java.sql.Date.valueOf(fromDate));
+        }
+        if (toDate != null) {
+            if (dataset.dateTimeColumn) {
+                sql.append(" AND ").append(dataset.dateColumn).append(" < ?");
+                args.add(Timestamp.valueOf(toDate.plusDays(1).atStartOfDay()));
+            } else {
+                sql.append(" AND ").append(dataset.dateColumn).append(" <= ?");
+                args.add(java.sql.Date.valueOf(toDate));
+            }
+        }
+        return sql.append(" ORDER BY ").append(dataset.orderBy).toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.business.salesync.service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 📤 Row sink of a streaming export. Rows are written as they are read from the
+ * database cursor; nothing is kept once a row has been handed on.
+ */
+interface ExportWriter {
+
+    void header(List<String> columns) throws IOException;
+
+    void row(Object[] values) throws IOException;
+
+    /** Flush what is buffered and complete the document. Does not close the target stream. */
+    void finish() throws IOException;
+}
@@ -0,0 +1,143 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 🧱 FIFO: every receipt opens a cost layer and sales take units from the oldest open
+ * layers first. Units with no layer behind them (stock from before FIFO was switched on,
+ * or added through the product form) are costed at the weighted average.
+ */
+final class FifoCosting implements CostingMethod {
+
+    private static final String OPEN_LAYERS_SQL =
+            "SELECT id, unit_cost, quantity_remaining, reference FROM cost_layers " +
+            "WHERE product_id = ? AND quantity_remaining > 0 ORDER BY id FOR UPDATE";
+
+    private static final String TAKE_SQL = "UPDATE cost_layers SET quantity_remaining = ? WHERE id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cost_layers (product_id, unit_cost, quantity_received, quantity_remaining, reference, received_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WeightedAverageCosting average;
+
+    FifoCosting(JdbcTemplate jdbcTemplate, WeightedAverageCosting average) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.average = average;
+    }
+
+    /** An open layer as read under lock; remaining is updated as units are taken */
+    static final class Layer {
+        final long id;
+        final BigDecimal unitCost;
+        final String reference;
+        int remaining;
+        boolean taken;
+
+        Layer(long id, BigDecimal unitCost, int remaining, String reference) {
+            this.id = id;
+            this.unitCost = unitCost;
+            this.remaining = remaining;
+            this.reference = reference;
+        }
+    }
+
+    /** Cost of the units found in layers and how many could not be found */
+    record Taken(BigDecimal cost, int shortBy) {}
+
+    @Override
+    public Map<Long, BigDecimal> issue(Map<Long, Integer> quantities) {
+        Map<Long, BigDecimal> unitCosts = new HashMap<>();
+        quantities.forEach((productId, qty) -> {
+            if (qty == null || qty <= 0) return;
+            Taken taken = takeFromLayers(productId, qty, null);
+            BigDecimal cost = taken.cost();
+            if (taken.shortBy() > 0) {
+                BigDecimal fallback = average.currentCosts(List.of(productId)).get(productId);
+                cost = cost.add(fallback.multiply(BigDecimal.valueOf(taken.shortBy())));
+            }
+            unitCosts.put(productId, cost.divide(BigDecimal.valueOf(qty), 4, RoundingMode.HALF_UP));
+        });
+        return unitCosts;
+    }
+
+    @Override
+    public void receive(Long productId, int qty, BigDecimal unitCost, String reference) {
+        open(productId, qty, unitCost, reference);
+    }
+
+    @Override
+    public void restore(Long productId, int qty, BigDecimal unitCost, String reference) {
+        BigDecimal cost = unitCost != null ? unitCost : average.currentCosts(List.of(productId)).get(productId);
+        open(productId, qty, cost, reference);
+    }
+
+    @Override
+    public void withdraw(Long productId, int qty, String reference) {
+        if (qty > 0) takeFromLayers(productId, qty, reference);
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private Taken takeFromLayers(Long productId, int qty, String preferredReference) {
+        List<Layer> open = jdbcTemplate.query(OPEN_LAYERS_SQL,
+                (rs, i) -> new Layer(rs.getLong(1), rs.getBigDecimal(2), rs.getInt(3), rs.getString(4)), productId);
+        Taken taken = take(preferring(open, preferredReference), qty);
+
+        List<Object[]> updates = new ArrayList<>();
+        for (Layer layer : open) {
+            if (layer.taken) updates.add(new Object[]{layer.remaining, layer.id});
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(TAKE_SQL, updates);
+        }
+        return taken;
+    }
+
+    private void open(Long productId, int qty, BigDecimal unitCost, String reference) {
+        if (qty <= 0) return;
+        jdbcTemplate.update(INSERT_SQL, productId, unitCost != null ? unitCost : BigDecimal.ZERO, qty, qty, reference,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /** Oldest first, except that layers of the preferred receipt (a returned or deleted PO) go first */
+    static List<Layer> preferring(List<Layer> oldestFirst, String preferredReference) {
+        if (preferredReference == null) return oldestFirst;
+        List<Layer> ordered = new ArrayList<>(oldestFirst.size());
+        for (Layer layer : oldestFirst) {
+            if (preferredReference.equals(layer.reference)) ordered.add(layer);
+        }
+        for (Layer layer : oldestFirst) {
+            if (!preferredReference.equals(layer.reference)) ordered.add(layer);
+        }
+        return ordered;
+    }
+
+    /** Take qty units from the layers in list order, lowering their remaining counts */
+    static Taken take(List<Layer> open, int qty) {
+        BigDecimal cost = BigDecimal.ZERO;
+        int needed = qty;
+        for (Layer layer : open) {
+            if (needed == 0) break;
+            int units = Math.min(needed, layer.remaining);
+            if (units <= 0) continue;
+            cost = cost.add(layer.unitCost.multiply(BigDecimal.valueOf(units)));
+            layer.remaining -= units;
+            layer.taken = true;
+            needed -= units;
+        }
+        return new Taken(cost, needed);
+    }
+}
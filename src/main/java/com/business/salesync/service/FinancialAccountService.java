@@ -4,22 +4,66 @@ import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.List;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.business.salesync.models.Customer;
 import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.models.Supplier;
+import com.business.salesync.repository.CustomerRepository;
 import com.business.salesync.repository.FinancialAccountRepository;
+import com.business.salesync.repository.SupplierRepository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 💰 Financial Account Service - posts transactions against an account's master row.
+ *
+ * The master balance is moved with an in-database increment, and the balance after the
+ * posting is read back inside the same transaction while the row lock is held. Concurrent
+ * payments into one account therefore serialize on that row for one short statement
+ * instead of losing updates, and every entry's balance_after_trn matches the running total.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class FinancialAccountService {
 
+    private static final String INCREMENT_BALANCE_SQL =
+            "UPDATE app_acct_financial_accounts SET current_balance = COALESCE(current_balance, 0) + ? WHERE id = ?";
+
+    private static final String READ_BALANCE_SQL =
+            "SELECT current_balance FROM app_acct_financial_accounts WHERE id = ?";
+
+    // Ledger rows written before party ids were recorded; only names unique in the master are linked
+    private static final String BACKFILL_CUSTOMER_SQL =
+            "UPDATE app_acct_financial_accounts fa " +
+            "JOIN (SELECT MIN(id) AS id, name FROM customers GROUP BY name HAVING COUNT(*) = 1) c ON fa.entity_name = c.name " +
+            "SET fa.customer_id = c.id WHERE fa.entity_type = 'CUSTOMER' AND fa.customer_id IS NULL";
+
+    private static final String BACKFILL_SUPPLIER_SQL =
+            "UPDATE app_acct_financial_accounts fa " +
+            "JOIN (SELECT MIN(id) AS id, supplier_name FROM suppliers GROUP BY supplier_name HAVING COUNT(*) = 1) s " +
+            "ON fa.entity_name = s.supplier_name " +
+            "SET fa.supplier_id = s.id WHERE fa.entity_type = 'SUPPLIER' AND fa.supplier_id IS NULL";
+
     private final FinancialAccountRepository financialAccountRepository;
+    private final CustomerRepository customerRepository;
+    private final SupplierRepository supplierRepository;
+    private final PartyNameIndex partyNameIndex;
+    private final AccountBalanceService accountBalanceService;
+    private final LedgerSnapshotService ledgerSnapshotService;
+    private final PartyBalanceService partyBalanceService;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Save financial transaction for any type: SALE, PURCHASE, EXPENSE, PAYMENT
      */
+    @Transactional
     public FinancialAccount recordTransaction(
             String finAccName,
             String finAccType,
@@ -33,14 +77,9 @@ public class FinancialAccountService {
             String remarks,
             String paymentStatus
     ) {
-    	List<FinancialAccount> accounts = financialAccountRepository.findByFinAccName(finAccName);
-    	if (accounts.isEmpty()) {
-    	    throw new RuntimeException("Account not found: " + finAccName);
-    	}
-    	FinancialAccount account = accounts.get(0); // or handle multiple accounts as needed
-
+        FinancialAccount account = financialAccountRepository.findFirstByFinAccNameOrderByIdAsc(finAccName)
+                .orElseThrow(() -> new RuntimeException("Account not found: " + finAccName));
 
-        double openingBalance = account.getCurrentBalance();
         double debit = 0.0;
         double credit = 0.0;
 
@@ -50,7 +89,8 @@ public class FinancialAccountService {
             credit = amount;
         }
 
-        double newBalance = openingBalance + debit - credit;
+        double newBalance = applyToBalance(account.getId(), debit - credit);
+        double openingBalance = newBalance - (debit - credit);
 
         FinancialAccount entry = FinancialAccount.builder()
                 .finAccId(account.getFinAccId())
@@ -68,6 +108,8 @@ public class FinancialAccountService {
                 .transactionType(transactionType)
                 .entityType(entityType)
                 .entityName(entityName)
+                .customer(customerRef(entityType, entityName))
+                .supplier(supplierRef(entityType, entityName))
                 .paymentMethod(account.getFinAccType())
                 .financialYear(Year.now().toString())
                 .paymentStatus(paymentStatus)
@@ -76,13 +118,100 @@ public class FinancialAccountService {
                 .createdBy("SYSTEM")
                 .build();
 
-        // Save the new entry
+        // Save the new entry (master balance was already moved in the database)
         FinancialAccount saved = financialAccountRepository.save(entry);
 
-        // Update main account balance (if needed)
-        account.setCurrentBalance(newBalance);
-        financialAccountRepository.save(account);
+        // Same transaction, and the master row lock keeps postings to this account in order
+        accountBalanceService.recordLatest(saved);
+        ledgerSnapshotService.applyPosting(saved);
+        partyBalanceService.apply(saved);
+        return saved;
+    }
 
+    /**
+     * ✏️ Save an account row from the accounts form, new or edited, and move every
+     * projection built on it (latest balance, month snapshots, party balances) in the
+     * same transaction.
+     */
+    @Transactional
+    public FinancialAccount saveAccount(FinancialAccount account) {
+        boolean isNew = account.getId() == null;
+        // Detached copy of the stored row: save() merges into the managed instance
+        FinancialAccount previous = isNew ? null : financialAccountRepository.findById(account.getId())
+                .map(f -> FinancialAccount.builder()
+                        .finAccName(f.getFinAccName())
+                        .trnDate(f.getTrnDate())
+                        .entityType(f.getEntityType())
+                        .customer(f.getCustomer())
+                        .supplier(f.getSupplier())
+                        .debitAmount(f.getDebitAmount())
+                        .creditAmount(f.getCreditAmount())
+                        .build())
+                .orElse(null);
+        LocalDateTime previousTrnDate = previous != null ? previous.getTrnDate() : null;
+        FinancialAccount saved = financialAccountRepository.save(account);
+        if (isNew) {
+            accountBalanceService.recordLatest(saved); // a new account's first row is its latest
+            ledgerSnapshotService.applyPosting(saved);
+            partyBalanceService.apply(saved);
+        } else {
+            if (previous != null) {
+                partyBalanceService.replace(previous, saved);
+            } else {
+                partyBalanceService.apply(saved);
+            }
+            // An edit may move amounts or dates inside closed months; recompute from the earlier one
+            LocalDateTime from = previousTrnDate != null && (saved.getTrnDate() == null || previousTrnDate.isBefore(saved.getTrnDate()))
+                    ? previousTrnDate : saved.getTrnDate();
+            ledgerSnapshotService.reopenFrom(from);
+            // The edited row may or may not be its account's latest; re-read both names if it was renamed
+            accountBalanceService.refresh(saved.getFinAccName());
+            if (previous != null && previous.getFinAccName() != null
+                    && !previous.getFinAccName().equals(saved.getFinAccName())) {
+                accountBalanceService.refresh(previous.getFinAccName());
+            }
+        }
         return saved;
     }
+
+    /**
+     * ➕ Atomically add delta to the master row and return the resulting balance.
+     * The read happens after the UPDATE in the same transaction, so it sees this posting
+     * and no one else's until commit.
+     */
+    @Transactional
+    public double applyToBalance(Long accountId, double delta) {
+        int updated = jdbcTemplate.update(INCREMENT_BALANCE_SQL, delta, accountId);
+        if (updated == 0) {
+            throw new RuntimeException("Account not found: " + accountId);
+        }
+        Double balance = jdbcTemplate.queryForObject(READ_BALANCE_SQL, Double.class, accountId);
+        return balance != null ? balance : 0.0;
+    }
+
+    /** 🔗 Link pre-existing customer/supplier ledger rows to their master ids */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPartyIds() {
+        int customers = jdbcTemplate.update(BACKFILL_CUSTOMER_SQL);
+        int suppliers = jdbcTemplate.update(BACKFILL_SUPPLIER_SQL);
+        if (customers + suppliers > 0) {
+            log.info("🔗 Linked {} customer and {} supplier ledger rows to their masters", customers, suppliers);
+            partyBalanceService.reconcile(); // newly linked rows move from no party to their party's totals
+            ledgerSnapshotService.rebuild(); // and from their name to their party's month-end snapshots
+        }
+    }
+
+    // Ledger queries filter on customer_id/supplier_id, so resolve the posted name to its master
+    private Customer customerRef(String entityType, String entityName) {
+        if (!PartyNameIndex.CUSTOMER.equalsIgnoreCase(entityType)) return null;
+        Long id = partyNameIndex.exactId(PartyNameIndex.CUSTOMER, entityName);
+        return id != null ? customerRepository.getReferenceById(id) : null;
+    }
+
+    private Supplier supplierRef(String entityType, String entityName) {
+        if (!PartyNameIndex.SUPPLIER.equalsIgnoreCase(entityType)) return null;
+        Long id = partyNameIndex.exactId(PartyNameIndex.SUPPLIER, entityName);
+        return id != null ? supplierRepository.getReferenceById(id) : null;
+    }
 }
@@ -0,0 +1,84 @@
+package com.business.salesync.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔁 Idempotency Service - remembers client retry tokens.
+ *
+ * claim() must run inside the transaction doing the work. The INSERT either takes the
+ * key (first request) or, if another request holds or committed it, waits on the unique
+ * index and reports the original result. If the first request rolls back, its claim
+ * disappears with it and the retry is free to do the work.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    public static final String SCOPE_POS_CHECKOUT = "POS_CHECKOUT";
+
+    private static final String CLAIM_SQL =
+            "INSERT IGNORE INTO idempotency_records (scope, idem_key, created_at) VALUES (?, ?, ?)";
+
+    private static final String FIND_RESULT_SQL =
+            "SELECT result_ref_id FROM idempotency_records WHERE scope = ? AND idem_key = ? FOR UPDATE";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_records SET result_ref_id = ? WHERE scope = ? AND idem_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return empty if this caller now owns the key, otherwise the original result id
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Long> claim(String scope, String key) {
+        int inserted = jdbcTemplate.update(CLAIM_SQL, scope, key, Timestamp.valueOf(LocalDateTime.now()));
+        if (inserted == 1) {
+            return Optional.empty();
+        }
+        // Locking read: sees the committed row even under REPEATABLE READ
+        List<Long> result = jdbcTemplate.queryForList(FIND_RESULT_SQL, Long.class, scope, key);
+        if (result.isEmpty() || result.get(0) == null) {
+            throw new IllegalStateException("Request " + key + " is already being processed");
+        }
+        log.info("🔁 Replayed {} request {} -> {}", scope, key, result.get(0));
+        return Optional.of(result.get(0));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(String scope, String key, Long resultRefId) {
+        jdbcTemplate.update(COMPLETE_SQL, resultRefId, scope, key);
+    }
+
+    /** Non-locking peek used for reporting only */
+    @Transactional(readOnly = true)
+    public Optional<Long> find(String scope, String key) {
+        List<Long> result = jdbcTemplate.queryForList(
+                "SELECT result_ref_id FROM idempotency_records WHERE scope = ? AND idem_key = ?", Long.class, scope, key);
+        return result.isEmpty() ? Optional.empty() : Optional.ofNullable(result.get(0));
+    }
+
+    /** 🧹 Retry tokens only need to outlive a terminal's offline backlog */
+    @Scheduled(cron = "${salesync.idempotency.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeOld() {
+        int removed = jdbcTemplate.update("DELETE FROM idempotency_records WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(30)));
+        if (removed > 0) {
+            log.info("🧹 Purged {} idempotency records", removed);
+        }
+    }
+}
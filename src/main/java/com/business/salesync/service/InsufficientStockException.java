@@ -0,0 +1,20 @@
+package com.business.salesync.service;
+
+import lombok.Getter;
+
+/**
+ * ⚠️ Thrown when a conditional stock update matches no row because the
+ * product does not have enough unreserved units left.
+ */
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+    private final int requested;
+
+    public InsufficientStockException(Long productId, int requested) {
+        super("Insufficient stock for product #" + productId + " (requested " + requested + ")");
+        this.productId = productId;
+        this.requested = requested;
+    }
+}
@@ -0,0 +1,105 @@
+package com.business.salesync.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔳 Invoice QR Service - PNG QR codes for printed invoices.
+ *
+ * An invoice's QR never changes, so the encoded PNG is kept in a bounded LRU keyed by
+ * order id + invoice number. Reprints and repeat views skip ZXing and ImageIO entirely.
+ * Each image carries a version (hash of its bytes) that the invoice page puts in the
+ * QR's URL, so browsers may keep a versioned URL for good.
+ */
+@Service
+@Slf4j
+public class InvoiceQrService {
+
+    private static final int QR_SIZE = 200;
+
+    private final Map<String, QrImage> cache;
+
+    public InvoiceQrService(@Value("${salesync.invoice.qr-cache-size:500}") int maxEntries) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QrImage> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** 🔗 The URL the QR points at */
+    public String invoiceUrl(Long orderId, String invoiceNumber) {
+        return "http://localhost:8080/pos/invoice/" + orderId + "?inv=" + invoiceNumber;
+    }
+
+    /** Cached image, or null when this invoice has not been rendered yet */
+    public QrImage getCached(Long orderId, String invoiceNumber) {
+        synchronized (cache) {
+            return cache.get(key(orderId, invoiceNumber));
+        }
+    }
+
+    public QrImage getOrCreate(Long orderId, String invoiceNumber) {
+        QrImage image = getCached(orderId, invoiceNumber);
+        if (image != null) {
+            return image;
+        }
+        // Encode outside the lock; two threads racing on the same invoice just produce the same bytes
+        image = encode(invoiceUrl(orderId, invoiceNumber));
+        synchronized (cache) {
+            cache.put(key(orderId, invoiceNumber), image);
+        }
+        return image;
+    }
+
+    private static String key(Long orderId, String invoiceNumber) {
+        return orderId + ":" + invoiceNumber;
+    }
+
+    private static QrImage encode(String content) {
+        try {
+            BufferedImage qrImage = MatrixToImageWriter.toBufferedImage(
+                    new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, QR_SIZE, QR_SIZE));
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ImageIO.write(qrImage, "PNG", baos);
+            byte[] png = baos.toByteArray();
+            return new QrImage(png, DigestUtils.md5DigestAsHex(png));
+        } catch (WriterException e) {
+            throw new IllegalStateException("Failed to encode invoice QR", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write invoice QR", e);
+        }
+    }
+
+    @Getter
+    public static class QrImage {
+        private final byte[] png;
+        private final String version;
+        private final String etag;
+
+        QrImage(byte[] png, String version) {
+            this.png = png;
+            this.version = version;
+            this.etag = "\"" + version + "\"";
+        }
+    }
+}
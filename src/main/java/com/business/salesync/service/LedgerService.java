@@ -1,66 +1,118 @@
 package com.business.salesync.service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.business.salesync.models.Customer;
 import com.business.salesync.models.CustomerLedger;
+import com.business.salesync.models.PartyLedgerHead;
 import com.business.salesync.models.Supplier;
 import com.business.salesync.models.SupplierLedger;
 import com.business.salesync.repository.CustomerLedgerRepository;
 import com.business.salesync.repository.SupplierLedgerRepository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 📒 Ledger Service - customer and supplier running balances.
+ *
+ * Each party has a head row in party_ledger_heads holding the latest balance and
+ * sequence number. A posting advances the head with one UPDATE (which also locks it
+ * until commit, so concurrent postings for the same party queue up), reads the new
+ * values back and inserts the entry - constant cost however long the history is.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class LedgerService {
 
-    private final CustomerLedgerRepository customerLedgerRepository;
-    private final SupplierLedgerRepository supplierLedgerRepository;
+    private static final String ADVANCE_SQL =
+            "UPDATE party_ledger_heads SET balance = balance + ?, last_seq = last_seq + 1, updated_at = ? " +
+            "WHERE party_type = ? AND party_id = ?";
+
+    private static final String READ_HEAD_SQL =
+            "SELECT balance, last_seq FROM party_ledger_heads WHERE party_type = ? AND party_id = ?";
 
-    public void recordCustomerTransaction(Customer customer, String refNo, String type,
-                                          Double debit, Double credit, String remarks) {
-        double lastBalance = customerLedgerRepository
-            .findByCustomerIdOrderByTrnDateAsc(customer.getId())
-            .stream()
-            .mapToDouble(CustomerLedger::getBalanceAfter)
-            .reduce((a, b) -> b).orElse(0);
+    // One-off seed for parties that already have history; INSERT IGNORE lets a racing posting win
+    private static final String SEED_SQL =
+            "INSERT IGNORE INTO party_ledger_heads (party_type, party_id, balance, last_seq, updated_at) " +
+            "SELECT ?, ?, COALESCE(SUM(COALESCE(debit_amount, 0) - COALESCE(credit_amount, 0)), 0), COUNT(*), ? " +
+            "FROM %s WHERE %s = ?";
 
-        double newBalance = lastBalance + (debit - credit);
+    private final CustomerLedgerRepository customerLedgerRepository;
+    private final SupplierLedgerRepository supplierLedgerRepository;
+    private final JdbcTemplate jdbcTemplate;
 
+    @Transactional
+    public CustomerLedger recordCustomerTransaction(Customer customer, String refNo, String type,
+                                                    Double debit, Double credit, String remarks) {
         CustomerLedger ledger = CustomerLedger.builder()
                 .customer(customer)
                 .trnRefNo(refNo)
                 .trnType(type)
                 .debitAmount(debit)
                 .creditAmount(credit)
-                .balanceAfter(newBalance)
                 .remarks(remarks)
                 .build();
 
-        customerLedgerRepository.save(ledger);
-    }
-
-    public void recordSupplierTransaction(Supplier supplier, String refNo, String type,
-                                          Double debit, Double credit, String remarks) {
-        double lastBalance = supplierLedgerRepository
-            .findBySupplierIdOrderByTrnDateAsc(supplier.getId())
-            .stream()
-            .mapToDouble(SupplierLedger::getBalanceAfter)
-            .reduce((a, b) -> b).orElse(0);
+        if (customer == null || customer.getId() == 0) {
+            log.warn("⚠️ Customer ledger entry {} has no customer; saved without a running balance", refNo);
+            return customerLedgerRepository.save(ledger);
+        }
 
-        double newBalance = lastBalance + (debit - credit);
+        Head head = advance(PartyLedgerHead.CUSTOMER, customer.getId(), "customer_ledger", "customer_id",
+                nz(debit) - nz(credit));
+        ledger.setBalanceAfter(head.balance);
+        ledger.setSeqNo(head.seq);
+        return customerLedgerRepository.save(ledger);
+    }
 
+    @Transactional
+    public SupplierLedger recordSupplierTransaction(Supplier supplier, String refNo, String type,
+                                                    Double debit, Double credit, String remarks) {
         SupplierLedger ledger = SupplierLedger.builder()
                 .supplier(supplier)
                 .trnRefNo(refNo)
                 .trnType(type)
                 .debitAmount(debit)
                 .creditAmount(credit)
-                .balanceAfter(newBalance)
                 .remarks(remarks)
                 .build();
 
-        supplierLedgerRepository.save(ledger);
+        if (supplier == null || supplier.getId() == null) {
+            log.warn("⚠️ Supplier ledger entry {} has no supplier; saved without a running balance", refNo);
+            return supplierLedgerRepository.save(ledger);
+        }
+
+        Head head = advance(PartyLedgerHead.SUPPLIER, supplier.getId(), "supplier_ledger", "supplier_id",
+                nz(debit) - nz(credit));
+        ledger.setBalanceAfter(head.balance);
+        ledger.setSeqNo(head.seq);
+        return supplierLedgerRepository.save(ledger);
+    }
+
+    /** ⏩ Move the party's head forward by delta and return the balance/sequence for the new entry */
+    private Head advance(String partyType, Long partyId, String ledgerTable, String partyColumn, double delta) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update(ADVANCE_SQL, delta, now, partyType, partyId) == 0) {
+            // First posting since heads were introduced: seed from existing entries, then advance
+            jdbcTemplate.update(String.format(SEED_SQL, ledgerTable, partyColumn), partyType, partyId, now, partyId);
+            jdbcTemplate.update(ADVANCE_SQL, delta, now, partyType, partyId);
+            log.info("📒 Seeded ledger head for {} {}", partyType, partyId);
+        }
+        return jdbcTemplate.queryForObject(READ_HEAD_SQL,
+                (rs, i) -> new Head(rs.getDouble("balance"), rs.getLong("last_seq")),
+                partyType, partyId);
     }
+
+    private static double nz(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private record Head(double balance, long seq) {}
 }
@@ -0,0 +1,318 @@
+package com.business.salesync.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.models.LedgerPeriodSnapshot;
+import com.business.salesync.repository.FinancialAccountRepository;
+import com.business.salesync.service.PartyNameIndex.PartyFilter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📅 Ledger Snapshot Service - month-end closing balances.
+ *
+ * At each month end the cumulative debit/credit of every entity (customer, supplier, ...)
+ * and every financial account is written to ledger_period_snapshots, carried forward from
+ * the previous month plus that month's rows. Entities are keyed by party id and name, the
+ * same way the ledger queries filter rows, so an opening balance and the rows after it
+ * always cover the same postings. A balance as of any date is then one
+ * snapshot plus the rows of at most one partial month. Entries dated into an already
+ * closed month patch every snapshot from that month on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerSnapshotService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Party id of a ledger row's entity: customer_id / supplier_id, NO_PARTY when unlinked
+    private static final String PARTY_ID =
+            "CASE entity_type WHEN 'CUSTOMER' THEN COALESCE(customer_id, 0) " +
+            "WHEN 'SUPPLIER' THEN COALESCE(supplier_id, 0) ELSE 0 END";
+
+    // Previous month's snapshot + this month's rows, per entity and per account
+    private static final String CLOSE_SQL =
+            "INSERT INTO ledger_period_snapshots (scope_type, party_id, scope_name, period_month, cum_debit, cum_credit, updated_at) " +
+            "SELECT t.scope_type, t.party_id, t.scope_name, ?, SUM(t.debit), SUM(t.credit), ? FROM (" +
+            "  SELECT scope_type, party_id, scope_name, cum_debit AS debit, cum_credit AS credit " +
+            "  FROM ledger_period_snapshots WHERE period_month = ? " +
+            "  UNION ALL " +
+            "  SELECT entity_type, " + PARTY_ID + ", entity_name, COALESCE(debit_amount, 0), COALESCE(credit_amount, 0) " +
+            "  FROM app_acct_financial_accounts " +
+            "  WHERE entity_type IS NOT NULL AND entity_name IS NOT NULL AND trn_date >= ? AND trn_date < ? " +
+            "  UNION ALL " +
+            "  SELECT '" + LedgerPeriodSnapshot.ACCOUNT + "', " + LedgerPeriodSnapshot.NO_PARTY + ", fin_acc_name, " +
+            "  COALESCE(debit_amount, 0), COALESCE(credit_amount, 0) " +
+            "  FROM app_acct_financial_accounts WHERE trn_date >= ? AND trn_date < ?" +
+            ") t GROUP BY t.scope_type, t.party_id, t.scope_name " +
+            "ON DUPLICATE KEY UPDATE cum_debit = VALUES(cum_debit), cum_credit = VALUES(cum_credit), updated_at = VALUES(updated_at)";
+
+    // Add a back-dated entry to every closed month from its own month on
+    private static final String PATCH_SQL =
+            "INSERT INTO ledger_period_snapshots (scope_type, party_id, scope_name, period_month, cum_debit, cum_credit, updated_at) " +
+            "SELECT ?, ?, ?, p.period_month, ?, ?, ? " +
+            "FROM (SELECT DISTINCT period_month FROM ledger_period_snapshots WHERE period_month >= ?) p " +
+            "ON DUPLICATE KEY UPDATE cum_debit = cum_debit + VALUES(cum_debit), " +
+            "cum_credit = cum_credit + VALUES(cum_credit), updated_at = VALUES(updated_at)";
+
+    private static final String SNAPSHOT_TOTALS_SQL =
+            "SELECT COALESCE(SUM(cum_debit), 0), COALESCE(SUM(cum_credit), 0) FROM ledger_period_snapshots " +
+            "WHERE scope_type = ? AND period_month = ?";
+
+    private static final String ENTITY_ROWS_TOTALS_SQL =
+            "SELECT COALESCE(SUM(debit_amount), 0), COALESCE(SUM(credit_amount), 0) FROM app_acct_financial_accounts " +
+            "WHERE entity_type = ? AND trn_date >= ? AND trn_date < ?";
+
+    private static final String ACCOUNT_SNAPSHOT_SQL =
+            "SELECT COALESCE(SUM(cum_debit), 0), COALESCE(SUM(cum_credit), 0) FROM ledger_period_snapshots " +
+            "WHERE scope_type = '" + LedgerPeriodSnapshot.ACCOUNT + "' AND scope_name = ? AND period_month = ?";
+
+    private static final String ACCOUNT_ROWS_TOTALS_SQL =
+            "SELECT COALESCE(SUM(debit_amount), 0), COALESCE(SUM(credit_amount), 0) FROM app_acct_financial_accounts " +
+            "WHERE fin_acc_name = ? AND trn_date >= ? AND trn_date < ?";
+
+    // Unique key of snapshots written before entities were keyed by party id
+    private static final String NAME_ONLY_KEY = "uk_ledger_snapshot";
+
+    private final FinancialAccountRepository financialAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // ========================================
+    // 🔒 PERIOD CLOSE
+    // ========================================
+
+    /** 🔒 Close every month that has ended but has no snapshot yet */
+    @Scheduled(cron = "${salesync.ledger.period-close-cron:0 30 0 1 * *}")
+    public void closeDuePeriods() {
+        YearMonth lastDue = YearMonth.now().minusMonths(1);
+        YearMonth next = nextPeriodToClose();
+        if (next == null) {
+            return; // no transactions yet
+        }
+        for (YearMonth month = next; !month.isAfter(lastDue); month = month.plusMonths(1)) {
+            closePeriod(month);
+        }
+    }
+
+    /**
+     * 🚀 Catch up on months that ended while the application was down. Snapshots still
+     * keyed by name only are dropped with their old key and rebuilt by party id.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void closeMissedPeriods() {
+        Long nameOnly = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'ledger_period_snapshots' AND index_name = ?",
+                Long.class, NAME_ONLY_KEY);
+        if (nameOnly != null && nameOnly > 0) {
+            jdbcTemplate.execute("ALTER TABLE ledger_period_snapshots DROP INDEX " + NAME_ONLY_KEY);
+            rebuild();
+            return;
+        }
+        closeDuePeriods();
+    }
+
+    /** 🔁 Drop every snapshot and close all ended months again from the first transaction */
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.update("DELETE FROM ledger_period_snapshots");
+        closeDuePeriods();
+        log.info("🔁 Ledger snapshots rebuilt in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /** 🔒 Write (or rewrite) the snapshot of one month from the previous month's snapshot */
+    public int closePeriod(YearMonth month) {
+        long start = System.currentTimeMillis();
+        LocalDate previous = month.minusMonths(1).atDay(1);
+        boolean hasPrevious = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM ledger_period_snapshots WHERE period_month = ?",
+                Long.class, Date.valueOf(previous)) > 0;
+
+        // Without a previous snapshot this is the first close, so take all history up to month end
+        Timestamp from = Timestamp.valueOf(hasPrevious ? month.atDay(1).atStartOfDay() : BEGINNING);
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        int rows = jdbcTemplate.update(CLOSE_SQL,
+                Date.valueOf(month.atDay(1)), Timestamp.valueOf(LocalDateTime.now()),
+                Date.valueOf(previous), from, to, from, to);
+        log.info("🔒 Closed ledger period {}: {} snapshots in {} ms", month, rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    // ========================================
+    // ✏️ KEEPING CLOSED PERIODS CORRECT
+    // ========================================
+
+    /**
+     * ✏️ Called for every new app_acct_financial_accounts row. Rows dated in the open
+     * month cost one indexed MAX(); back-dated rows patch the closed months they affect.
+     */
+    @Transactional
+    public void applyPosting(FinancialAccount row) {
+        if (row.getTrnDate() == null) {
+            return;
+        }
+        LocalDate month = YearMonth.from(row.getTrnDate()).atDay(1);
+        LocalDate lastClosed = lastClosedPeriod();
+        if (lastClosed == null || month.isAfter(lastClosed)) {
+            return;
+        }
+
+        double debit = row.getDebitAmount() != null ? row.getDebitAmount() : 0.0;
+        double credit = row.getCreditAmount() != null ? row.getCreditAmount() : 0.0;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (row.getEntityType() != null && row.getEntityName() != null) {
+            jdbcTemplate.update(PATCH_SQL, row.getEntityType(), partyId(row), row.getEntityName(),
+                    debit, credit, now, Date.valueOf(month));
+        }
+        jdbcTemplate.update(PATCH_SQL, LedgerPeriodSnapshot.ACCOUNT, LedgerPeriodSnapshot.NO_PARTY, row.getFinAccName(),
+                debit, credit, now, Date.valueOf(month));
+        log.info("✏️ Back-dated entry {} patched ledger snapshots from {}", row.getTrnRefNo(), month);
+    }
+
+    /**
+     * 🔁 Recompute closed months from the given date on - for edits that change an
+     * existing row's amount or date, which a simple patch cannot express.
+     */
+    @Transactional
+    public void reopenFrom(LocalDateTime trnDate) {
+        LocalDate lastClosed = lastClosedPeriod();
+        if (trnDate == null || lastClosed == null) {
+            return;
+        }
+        YearMonth from = YearMonth.from(trnDate);
+        if (from.atDay(1).isAfter(lastClosed)) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM ledger_period_snapshots WHERE period_month >= ?", Date.valueOf(from.atDay(1)));
+        for (YearMonth month = from; !month.atDay(1).isAfter(lastClosed); month = month.plusMonths(1)) {
+            closePeriod(month);
+        }
+    }
+
+    // ========================================
+    // 📊 BALANCES AS OF A DATE
+    // ========================================
+
+    /**
+     * 📊 Cumulative {debit, credit} of the customers/suppliers a name filter matches before
+     * the given moment; parties null = every entity of the type. The snapshot part and the
+     * rows after it are filtered the same way: by party id, or by name for unlinked rows.
+     */
+    @Transactional(readOnly = true)
+    public double[] entityTotalsBefore(String entityType, PartyFilter parties, LocalDateTime before) {
+        double[] totals = {0.0, 0.0};
+        LocalDate snapshot = closedPeriodBefore(before);
+        LocalDateTime rowsFrom = BEGINNING;
+
+        if (snapshot != null) {
+            List<Object> args = new ArrayList<>(List.of(entityType, Date.valueOf(snapshot)));
+            String sql = SNAPSHOT_TOTALS_SQL;
+            if (parties != null) {
+                sql += " AND (party_id IN (" + placeholders(parties.queryIds().size()) + ")" +
+                       " OR (party_id = " + LedgerPeriodSnapshot.NO_PARTY + " AND LOWER(scope_name) LIKE ?))";
+                args.addAll(parties.queryIds());
+                args.add(parties.namePattern());
+            }
+            add(totals, jdbcTemplate.queryForObject(sql, (rs, i) -> new double[] {rs.getDouble(1), rs.getDouble(2)},
+                    args.toArray()));
+            rowsFrom = snapshot.plusMonths(1).atStartOfDay();
+        }
+
+        List<Object> args = new ArrayList<>(List.of(entityType, Timestamp.valueOf(rowsFrom), Timestamp.valueOf(before)));
+        String sql = ENTITY_ROWS_TOTALS_SQL;
+        if (parties != null) {
+            String column = PartyNameIndex.SUPPLIER.equalsIgnoreCase(entityType) ? "supplier_id" : "customer_id";
+            sql += " AND (" + column + " IN (" + placeholders(parties.queryIds().size()) + ")" +
+                   " OR (" + column + " IS NULL AND LOWER(entity_name) LIKE ?))";
+            args.addAll(parties.queryIds());
+            args.add(parties.namePattern());
+        }
+        add(totals, jdbcTemplate.queryForObject(sql, (rs, i) -> new double[] {rs.getDouble(1), rs.getDouble(2)},
+                args.toArray()));
+        return totals;
+    }
+
+    /** 🏦 Balance of a financial account at the given moment: opening + debits - credits */
+    @Transactional(readOnly = true)
+    public double accountBalanceAsOf(String finAccName, LocalDateTime asOf) {
+        FinancialAccount master = financialAccountRepository.findFirstByFinAccNameOrderByIdAsc(finAccName)
+                .orElseThrow(() -> new RuntimeException("Account not found: " + finAccName));
+
+        LocalDate snapshot = closedPeriodBefore(asOf);
+        double[] totals = {0.0, 0.0};
+        LocalDateTime rowsFrom = BEGINNING;
+        if (snapshot != null) {
+            add(totals, jdbcTemplate.queryForObject(ACCOUNT_SNAPSHOT_SQL, (rs, i) -> new double[] {rs.getDouble(1), rs.getDouble(2)},
+                    finAccName, Date.valueOf(snapshot)));
+            rowsFrom = snapshot.plusMonths(1).atStartOfDay();
+        }
+        add(totals, jdbcTemplate.queryForObject(ACCOUNT_ROWS_TOTALS_SQL, (rs, i) -> new double[] {rs.getDouble(1), rs.getDouble(2)},
+                finAccName, Timestamp.valueOf(rowsFrom), Timestamp.valueOf(asOf)));
+
+        double opening = master.getOpeningBalance() != null ? master.getOpeningBalance() : 0.0;
+        return opening + totals[0] - totals[1];
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private LocalDate lastClosedPeriod() {
+        return jdbcTemplate.queryForObject("SELECT MAX(period_month) FROM ledger_period_snapshots", LocalDate.class);
+    }
+
+    /** Latest closed month that ends on or before the given moment */
+    private LocalDate closedPeriodBefore(LocalDateTime moment) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MAX(period_month) FROM ledger_period_snapshots WHERE period_month < ?",
+                LocalDate.class, Date.valueOf(YearMonth.from(moment).atDay(1)));
+    }
+
+    private YearMonth nextPeriodToClose() {
+        LocalDate lastClosed = lastClosedPeriod();
+        if (lastClosed != null) {
+            return YearMonth.from(lastClosed).plusMonths(1);
+        }
+        LocalDateTime first = jdbcTemplate.queryForObject(
+                "SELECT MIN(trn_date) FROM app_acct_financial_accounts", LocalDateTime.class);
+        return first != null ? YearMonth.from(first) : null;
+    }
+
+    private static long partyId(FinancialAccount row) {
+        if (PartyNameIndex.CUSTOMER.equalsIgnoreCase(row.getEntityType()) && row.getCustomer() != null) {
+            return row.getCustomer().getId();
+        }
+        if (PartyNameIndex.SUPPLIER.equalsIgnoreCase(row.getEntityType()) && row.getSupplier() != null) {
+            return row.getSupplier().getId();
+        }
+        return LedgerPeriodSnapshot.NO_PARTY;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static void add(double[] totals, double[] more) {
+        totals[0] += more[0];
+        totals[1] += more[1];
+    }
+}
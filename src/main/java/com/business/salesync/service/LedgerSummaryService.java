@@ -2,16 +2,28 @@ package com.business.salesync.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.business.salesync.dto.DocumentNodeDTO;
 import com.business.salesync.dto.LedgerDTO;
 import com.business.salesync.dto.LedgerSummaryDTO;
+import com.business.salesync.models.DocumentLink.DocumentType;
 import com.business.salesync.models.FinancialAccount;
 import com.business.salesync.repository.FinancialAccountRepository;
+import com.business.salesync.service.PartyNameIndex.PartyFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +42,15 @@ import java.util.stream.Collectors;
 public class LedgerSummaryService {
 
     private final FinancialAccountRepository financialAccountRepository;
+    private final LedgerSnapshotService ledgerSnapshotService;
+    private final PartyNameIndex partyNameIndex;
+    private final PartyBalanceService partyBalanceService;
+    private final DocumentLinkService documentLinkService;
+    private final ObjectMapper objectMapper;
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 500;
     
     private static final DateTimeFormatter DATE_FORMATTER = 
             DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm:ss");
@@ -39,28 +60,17 @@ public class LedgerSummaryService {
     // ========================================
 
     /**
-     * 🔹 Get Customer Ledger - All Transactions
+     * 🔹 Get Customer Ledger - one page of transactions
      * 
      * @param customerName Customer name (supports partial match, null = all customers)
-     * @return Complete ledger summary with all transactions
+     * @param cursor nextCursor from the previous page, null for the first page
+     * @param size Page size (capped at MAX_PAGE_SIZE)
+     * @return Ledger page; the first page also carries the totals
      */
-    public LedgerSummaryDTO getCustomerLedger(String customerName) {
+    public LedgerSummaryDTO getCustomerLedger(String customerName, String cursor, int size) {
         log.info("📊 Generating customer ledger for: {}", 
                 customerName != null ? customerName : "ALL CUSTOMERS");
-        
-        List<FinancialAccount> accounts = 
-                financialAccountRepository.getCustomerLedger(customerName);
-        
-        if (accounts.isEmpty()) {
-            String msg = customerName != null 
-                    ? "No transactions found for customer: " + customerName
-                    : "No customer transactions found in the system";
-            log.warn("⚠️ {}", msg);
-            return LedgerSummaryDTO.empty(msg);
-        }
-        
-        log.info("✅ Found {} customer transactions", accounts.size());
-        return buildLedgerSummary(accounts, customerName, "CUSTOMER", null, null);
+        return getLedgerPage("CUSTOMER", customerName, null, null, cursor, size);
     }
 
     /**
@@ -69,27 +79,18 @@ public class LedgerSummaryService {
      * @param customerName Customer name (optional)
      * @param fromDate Start date (optional)
      * @param toDate End date (optional)
-     * @return Ledger summary filtered by date range
+     * @return Ledger page filtered by date range
      */
     public LedgerSummaryDTO getCustomerLedgerByDateRange(
             String customerName, 
             LocalDateTime fromDate, 
-            LocalDateTime toDate) {
+            LocalDateTime toDate,
+            String cursor,
+            int size) {
         
         log.info("📅 Generating customer ledger - Name: {}, From: {}, To: {}", 
                 customerName, fromDate, toDate);
-        
-        List<FinancialAccount> accounts = financialAccountRepository
-                .getCustomerLedgerByDateRange(customerName, fromDate, toDate);
-        
-        if (accounts.isEmpty()) {
-            String msg = "No transactions found for the specified date range";
-            log.warn("⚠️ {}", msg);
-            return LedgerSummaryDTO.empty(msg);
-        }
-        
-        log.info("✅ Found {} customer transactions in date range", accounts.size());
-        return buildLedgerSummary(accounts, customerName, "CUSTOMER", fromDate, toDate);
+        return getLedgerPage("CUSTOMER", customerName, fromDate, toDate, cursor, size);
     }
 
     // ========================================
@@ -97,28 +98,17 @@ public class LedgerSummaryService {
     // ========================================
 
     /**
-     * 🔹 Get Supplier Ledger - All Transactions
+     * 🔹 Get Supplier Ledger - one page of transactions
      * 
      * @param supplierName Supplier name (supports partial match, null = all suppliers)
-     * @return Complete ledger summary with all transactions
+     * @param cursor nextCursor from the previous page, null for the first page
+     * @param size Page size (capped at MAX_PAGE_SIZE)
+     * @return Ledger page; the first page also carries the totals
      */
-    public LedgerSummaryDTO getSupplierLedger(String supplierName) {
+    public LedgerSummaryDTO getSupplierLedger(String supplierName, String cursor, int size) {
         log.info("🏭 Generating supplier ledger for: {}", 
                 supplierName != null ? supplierName : "ALL SUPPLIERS");
-        
-        List<FinancialAccount> accounts = 
-                financialAccountRepository.getSupplierLedger(supplierName);
-        
-        if (accounts.isEmpty()) {
-            String msg = supplierName != null 
-                    ? "No transactions found for supplier: " + supplierName
-                    : "No supplier transactions found in the system";
-            log.warn("⚠️ {}", msg);
-            return LedgerSummaryDTO.empty(msg);
-        }
-        
-        log.info("✅ Found {} supplier transactions", accounts.size());
-        return buildLedgerSummary(accounts, supplierName, "SUPPLIER", null, null);
+        return getLedgerPage("SUPPLIER", supplierName, null, null, cursor, size);
     }
 
     /**
@@ -127,27 +117,128 @@ public class LedgerSummaryService {
      * @param supplierName Supplier name (optional)
      * @param fromDate Start date (optional)
      * @param toDate End date (optional)
-     * @return Ledger summary filtered by date range
+     * @return Ledger page filtered by date range
      */
     public LedgerSummaryDTO getSupplierLedgerByDateRange(
             String supplierName, 
             LocalDateTime fromDate, 
-            LocalDateTime toDate) {
+            LocalDateTime toDate,
+            String cursor,
+            int size) {
         
         log.info("📅 Generating supplier ledger - Name: {}, From: {}, To: {}", 
                 supplierName, fromDate, toDate);
+        return getLedgerPage("SUPPLIER", supplierName, fromDate, toDate, cursor, size);
+    }
+
+    // ========================================
+    // 📄 PAGING & STREAMING
+    // ========================================
+
+    /**
+     * 🔹 One keyset page of a ledger, ordered by (trnDate, id)
+     * 
+     * Follow-up pages (cursor != null) carry rows only - the totals were
+     * already returned with page one and would cost a full aggregate each time.
+     */
+    public LedgerSummaryDTO getLedgerPage(
+            String entityType,
+            String entityName,
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            String cursor,
+            int size) {
+        
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LedgerCursor after = LedgerCursor.decode(cursor);
+        PartyFilter parties = resolveParties(entityType, entityName);
+        
+        // Fetch one extra row to know whether another page follows
+        List<LedgerDTO> rows = fetchPage(entityType, parties, fromDate, toDate,
+                after != null ? after.trnDate() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+        
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+        }
+        String nextCursor = hasMore ? LedgerCursor.of(rows.get(rows.size() - 1)).encode() : null;
+        
+        if (after != null) {
+            return LedgerSummaryDTO.builder()
+                    .entityName(entityName != null ? entityName : "All " + entityType + "s")
+                    .entityType(entityType)
+                    .transactions(rows)
+                    .nextCursor(nextCursor)
+                    .hasMore(hasMore)
+                    .message("Ledger page generated successfully")
+                    .success(true)
+                    .build();
+        }
         
-        List<FinancialAccount> accounts = financialAccountRepository
-                .getSupplierLedgerByDateRange(supplierName, fromDate, toDate);
-        
-        if (accounts.isEmpty()) {
-            String msg = "No transactions found for the specified date range";
+        if (rows.isEmpty()) {
+            String msg;
+            if (fromDate != null || toDate != null) {
+                msg = "No transactions found for the specified date range";
+            } else if (entityName != null) {
+                msg = "No transactions found for " + entityType.toLowerCase() + ": " + entityName;
+            } else {
+                msg = "No " + entityType.toLowerCase() + " transactions found in the system";
+            }
             log.warn("⚠️ {}", msg);
             return LedgerSummaryDTO.empty(msg);
         }
         
-        log.info("✅ Found {} supplier transactions in date range", accounts.size());
-        return buildLedgerSummary(accounts, supplierName, "SUPPLIER", fromDate, toDate);
+        LedgerSummaryDTO summary = buildLedgerSummary(rows, entityName, parties, entityType, fromDate, toDate);
+        summary.setNextCursor(nextCursor);
+        summary.setHasMore(hasMore);
+        log.info("✅ Found {} {} transactions, returning {}", 
+                summary.getTotalTransactions(), entityType.toLowerCase(), rows.size());
+        return summary;
+    }
+
+    /**
+     * 🔹 Write a whole ledger as NDJSON (one LedgerDTO per line)
+     * 
+     * Walks the ledger in keyset chunks, so memory stays flat however many rows
+     * match. Runs outside a transaction: each chunk is a short query of its own
+     * instead of pinning a connection for the length of the download.
+     * 
+     * @return number of rows written
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long streamLedger(
+            String entityType,
+            String entityName,
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            OutputStream out) throws IOException {
+        
+        long start = System.currentTimeMillis();
+        PartyFilter parties = resolveParties(entityType, entityName);
+        long written = 0;
+        LocalDateTime afterDate = null;
+        Long afterId = null;
+        List<LedgerDTO> chunk;
+        do {
+            chunk = fetchPage(entityType, parties, fromDate, toDate, afterDate, afterId, STREAM_CHUNK_SIZE);
+            for (LedgerDTO row : chunk) {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+            if (!chunk.isEmpty()) {
+                LedgerDTO last = chunk.get(chunk.size() - 1);
+                afterDate = last.getTrnDate();
+                afterId = last.getId();
+                written += chunk.size();
+            }
+        } while (chunk.size() == STREAM_CHUNK_SIZE);
+        
+        log.info("📤 Streamed {} {} ledger rows in {} ms", 
+                written, entityType.toLowerCase(), System.currentTimeMillis() - start);
+        return written;
     }
 
     // ========================================
@@ -156,7 +247,8 @@ public class LedgerSummaryService {
 
     /**
      * 🔹 Get Customer Total Receivable
-     * Shows how much money customer owes to the business
+     * Shows how much money customer owes to the business.
+     * Read from the write-time totals in party_balances, not summed from the ledger.
      * 
      * @param customerName Customer name (optional)
      * @return Total receivable amount
@@ -164,10 +256,8 @@ public class LedgerSummaryService {
     public Double getCustomerTotalReceivable(String customerName) {
         log.info("💰 Calculating customer receivable for: {}", customerName);
         
-        Double receivable = financialAccountRepository
-                .getCustomerTotalReceivable(customerName);
-        
-        double amount = receivable != null ? receivable : 0.0;
+        double[] totals = partyBalanceService.totals("CUSTOMER", resolveParties("CUSTOMER", customerName));
+        double amount = totals[0] - totals[1];
         log.info("✅ Customer receivable: ৳ {}", amount);
         
         return amount;
@@ -175,7 +265,8 @@ public class LedgerSummaryService {
 
     /**
      * 🔹 Get Supplier Total Payable
-     * Shows how much money business owes to supplier
+     * Shows how much money business owes to supplier.
+     * Read from the write-time totals in party_balances, not summed from the ledger.
      * 
      * @param supplierName Supplier name (optional)
      * @return Total payable amount
@@ -183,40 +274,42 @@ public class LedgerSummaryService {
     public Double getSupplierTotalPayable(String supplierName) {
         log.info("💸 Calculating supplier payable for: {}", supplierName);
         
-        Double payable = financialAccountRepository
-                .getSupplierTotalPayable(supplierName);
-        
-        double amount = payable != null ? payable : 0.0;
+        double[] totals = partyBalanceService.totals("SUPPLIER", resolveParties("SUPPLIER", supplierName));
+        double amount = totals[1] - totals[0];
         log.info("✅ Supplier payable: ৳ {}", amount);
         
         return amount;
     }
 
     /**
-     * 🔹 Get All Customer Names
-     * Returns list of unique customer names (for dropdowns)
+     * 🔹 Get Customer Names
+     * Typeahead over the customer master (in memory); all names when query is null
      * 
      * @return List of customer names
      */
-    public List<String> getAllCustomerNames() {
-        log.info("📋 Fetching all customer names");
+    public List<String> getCustomerNames(String query, int limit) {
+        log.info("📋 Fetching customer names for: {}", query);
         
-        List<String> names = financialAccountRepository.getAllCustomerNames();
+        List<String> names = query == null
+                ? partyNameIndex.allNames(PartyNameIndex.CUSTOMER)
+                : partyNameIndex.suggest(PartyNameIndex.CUSTOMER, query, limit);
         
         log.info("✅ Found {} unique customers", names.size());
         return names;
     }
 
     /**
-     * 🔹 Get All Supplier Names
-     * Returns list of unique supplier names (for dropdowns)
+     * 🔹 Get Supplier Names
+     * Typeahead over the supplier master (in memory); all names when query is null
      * 
      * @return List of supplier names
      */
-    public List<String> getAllSupplierNames() {
-        log.info("📋 Fetching all supplier names");
+    public List<String> getSupplierNames(String query, int limit) {
+        log.info("📋 Fetching supplier names for: {}", query);
         
-        List<String> names = financialAccountRepository.getAllSupplierNames();
+        List<String> names = query == null
+                ? partyNameIndex.allNames(PartyNameIndex.SUPPLIER)
+                : partyNameIndex.suggest(PartyNameIndex.SUPPLIER, query, limit);
         
         log.info("✅ Found {} unique suppliers", names.size());
         return names;
@@ -227,69 +320,38 @@ public class LedgerSummaryService {
     // ========================================
 
     /**
-     * 🔹 Build Complete Ledger Summary with Financial Calculations
+     * 🔹 Build Ledger Summary for the first page
      * 
-     * This method:
-     * 1. Converts entities to DTOs
-     * 2. Calculates total debit/credit
-     * 3. Calculates opening/closing balance
-     * 4. Calculates net balance (receivable/payable)
+     * Count and debit/credit totals come from one aggregate query. With a fromDate,
+     * the opening balance is the entity's net position before it, read from the
+     * latest month-end snapshot plus the rows after that snapshot - never from
+     * the whole history.
      */
     private LedgerSummaryDTO buildLedgerSummary(
-            List<FinancialAccount> accounts,
+            List<LedgerDTO> firstPage,
             String entityName,
+            PartyFilter parties,
             String entityType,
             LocalDateTime fromDate,
             LocalDateTime toDate) {
         
-        log.debug("🔧 Building ledger summary for {} transactions", accounts.size());
-        
-        // Convert entities to DTOs
-        List<LedgerDTO> transactions = accounts.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        // Calculate total debit (money going out)
-        double totalDebit = accounts.stream()
-                .mapToDouble(a -> a.getDebitAmount() != null ? a.getDebitAmount() : 0.0)
-                .sum();
-        
-        // Calculate total credit (money coming in)
-        double totalCredit = accounts.stream()
-                .mapToDouble(a -> a.getCreditAmount() != null ? a.getCreditAmount() : 0.0)
-                .sum();
-        
-        // Calculate opening balance (balance before first transaction)
-        double openingBalance = 0.0;
-        if (!accounts.isEmpty()) {
-            FinancialAccount first = accounts.get(0);
-            double firstBalance = first.getBalanceAfterTransaction() != null 
-                    ? first.getBalanceAfterTransaction() : 0.0;
-            double firstDebit = first.getDebitAmount() != null 
-                    ? first.getDebitAmount() : 0.0;
-            double firstCredit = first.getCreditAmount() != null 
-                    ? first.getCreditAmount() : 0.0;
-            
-            openingBalance = firstBalance - firstDebit + firstCredit;
-        }
-        
-        // Calculate closing balance (balance after last transaction)
-        double closingBalance = 0.0;
-        if (!accounts.isEmpty()) {
-            FinancialAccount last = accounts.get(accounts.size() - 1);
-            closingBalance = last.getBalanceAfterTransaction() != null 
-                    ? last.getBalanceAfterTransaction() : 0.0;
-        }
+        Object[] totals = fetchTotals(entityType, parties, fromDate, toDate);
+        long count = ((Number) totals[0]).longValue();
+        double totalDebit = ((Number) totals[1]).doubleValue();   // money going out
+        double totalCredit = ((Number) totals[2]).doubleValue();  // money coming in
         
         // Calculate net balance
         // For customers: credit - debit (positive = customer owes us)
         // For suppliers: debit - credit (positive = we owe supplier)
-        double netBalance;
-        if ("CUSTOMER".equalsIgnoreCase(entityType)) {
-            netBalance = totalCredit - totalDebit; // Receivable
-        } else {
-            netBalance = totalDebit - totalCredit; // Payable
+        double netBalance = net(entityType, totalDebit, totalCredit);
+        
+        // Opening balance = net position before the range; closing = opening + movement in range
+        double openingBalance = 0.0;
+        if (fromDate != null) {
+            double[] before = ledgerSnapshotService.entityTotalsBefore(entityType, parties, fromDate);
+            openingBalance = net(entityType, before[0], before[1]);
         }
+        double closingBalance = openingBalance + netBalance;
         
         log.debug("📊 Summary - Debit: ৳{}, Credit: ৳{}, Net: ৳{}", 
                 totalDebit, totalCredit, netBalance);
@@ -305,13 +367,79 @@ public class LedgerSummaryService {
                 .openingBalance(openingBalance)
                 .closingBalance(closingBalance)
                 .netBalance(netBalance)
-                .totalTransactions(transactions.size())
-                .transactions(transactions)
+                .totalTransactions((int) count)
+                .transactions(firstPage)
                 .message("Ledger generated successfully")
                 .success(true)
                 .build();
     }
 
+    /**
+     * 🔹 Name filter → customer/supplier ids via the in-memory name index, plus the
+     * name itself for rows not linked to a party. null means no filter.
+     */
+    private PartyFilter resolveParties(String entityType, String entityName) {
+        return partyNameIndex.filter(entityType, entityName);
+    }
+
+    private List<LedgerDTO> fetchPage(String entityType, PartyFilter parties, LocalDateTime fromDate,
+                                      LocalDateTime toDate, LocalDateTime afterDate, Long afterId, int limit) {
+        if (parties == null) {
+            return financialAccountRepository.findLedgerPage(
+                    entityType, fromDate, toDate, afterDate, afterId, Limit.of(limit));
+        }
+        return "SUPPLIER".equalsIgnoreCase(entityType)
+                ? financialAccountRepository.findSupplierLedgerPage(entityType, parties.queryIds(),
+                        parties.namePattern(), fromDate, toDate, afterDate, afterId, Limit.of(limit))
+                : financialAccountRepository.findCustomerLedgerPage(entityType, parties.queryIds(),
+                        parties.namePattern(), fromDate, toDate, afterDate, afterId, Limit.of(limit));
+    }
+
+    /** {count, total debit, total credit} */
+    private Object[] fetchTotals(String entityType, PartyFilter parties, LocalDateTime fromDate, LocalDateTime toDate) {
+        if (parties == null) {
+            return financialAccountRepository.getLedgerTotals(entityType, fromDate, toDate).get(0);
+        }
+        return "SUPPLIER".equalsIgnoreCase(entityType)
+                ? financialAccountRepository.getSupplierLedgerTotals(
+                        entityType, parties.queryIds(), parties.namePattern(), fromDate, toDate).get(0)
+                : financialAccountRepository.getCustomerLedgerTotals(
+                        entityType, parties.queryIds(), parties.namePattern(), fromDate, toDate).get(0);
+    }
+
+    private static double net(String entityType, double debit, double credit) {
+        return "CUSTOMER".equalsIgnoreCase(entityType) ? credit - debit : debit - credit;
+    }
+
+    /**
+     * 🔹 Opaque page cursor: the (trnDate, id) of the last row sent.
+     * trn_date is always set by FinancialAccount's @PrePersist.
+     */
+    private record LedgerCursor(LocalDateTime trnDate, Long id) {
+
+        static LedgerCursor of(LedgerDTO row) {
+            return new LedgerCursor(row.getTrnDate(), row.getId());
+        }
+
+        String encode() {
+            String raw = trnDate + "_" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static LedgerCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('_');
+                return new LedgerCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid ledger cursor: " + cursor);
+            }
+        }
+    }
+
     /**
      * 🔹 Convert FinancialAccount Entity to LedgerDTO
      */
@@ -355,16 +483,18 @@ public class LedgerSummaryService {
         // Convert to DTO
         LedgerDTO transactionDTO = convertToDTO(transaction);
         
-        // Find related transactions (same entity, same ref_id or similar trn_ref_no)
-        List<FinancialAccount> relatedAccounts = financialAccountRepository
-                .findRelatedTransactions(
-                        transaction.getEntityName(),
-                        transaction.getEntityType(),
-                        transaction.getRefId()
-                );
+        // Documents linked to this posting (order, payment, returns, other postings) in one query
+        List<DocumentNodeDTO> documents = documentLinkService.neighbourhood(
+                DocumentType.LEDGER, transactionId, DocumentLinkService.DEFAULT_DEPTH);
+        List<Long> relatedIds = documents.stream()
+                .filter(doc -> DocumentType.LEDGER.name().equals(doc.getType()))
+                .map(DocumentNodeDTO::getId)
+                .filter(id -> !id.equals(transactionId)) // Exclude current transaction
+                .collect(Collectors.toList());
         
-        List<LedgerDTO> relatedTransactions = relatedAccounts.stream()
-                .filter(acc -> !acc.getId().equals(transactionId)) // Exclude current transaction
+        List<LedgerDTO> relatedTransactions = financialAccountRepository.findAllById(relatedIds).stream()
+                .sorted(Comparator.comparing(FinancialAccount::getTrnDate,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
         
@@ -372,6 +502,7 @@ public class LedgerSummaryService {
         response.put("success", true);
         response.put("transaction", transactionDTO);
         response.put("relatedTransactions", relatedTransactions);
+        response.put("documents", documents);
         
         log.info("✅ Transaction details retrieved - Related transactions: {}", relatedTransactions.size());
         
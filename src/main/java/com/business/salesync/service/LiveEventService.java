@@ -0,0 +1,323 @@
+package com.business.salesync.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.business.salesync.event.DocumentCreatedEvent;
+import com.business.salesync.event.SalesChangedEvent;
+import com.business.salesync.event.StockChangedEvent;
+import com.business.salesync.event.StockThresholdEvent;
+import com.business.salesync.models.Payment;
+import com.business.salesync.models.PurchaseReturn;
+import com.business.salesync.models.SalesOrder;
+import com.business.salesync.models.SalesReturn;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📡 Live Event Service - pushes committed sales, payment, stock and return events to
+ * dashboards and POS screens over Server-Sent Events.
+ *
+ * Events are published after commit only, so a rolled-back checkout is never seen.
+ * Each client has its own pending queue and at most one sender thread, so a slow
+ * browser never holds up a transaction or another client:
+ *   - events with the same key coalesce while waiting (only the latest sales totals or
+ *     stock level per product is sent)
+ *   - a client that falls more than MAX_PENDING events behind has its queue dropped and
+ *     gets a single "resync" event, telling the page to reload its figures
+ *   - a client whose write has been blocked longer than the send timeout is dropped at
+ *     the next heartbeat and gets no more events; its stream is closed once the write
+ *     returns, and EventSource reconnects and starts from current figures
+ *
+ * SalesMetricsService and ProductScanIndex handle the same events with highest
+ * precedence and these listeners with lowest, so the figures read here are already current.
+ */
+@Service
+@Slf4j
+public class LiveEventService {
+
+    public static final String SALES = "sales";
+    public static final String STOCK = "stock";
+    public static final String PAYMENTS = "payments";
+    public static final String RETURNS = "returns";
+    public static final Set<String> ALL_TOPICS = Set.of(SALES, STOCK, PAYMENTS, RETURNS);
+
+    static final int MAX_PENDING = 500;
+    static final LiveEvent RESYNC = new LiveEvent(null, "resync", "resync", Map.of());
+    private static final LiveEvent HEARTBEAT = new LiveEvent(null, null, "heartbeat", null);
+
+    private final SalesMetricsService salesMetricsService;
+    private final ProductScanIndex productScanIndex;
+    private final long sendTimeoutMs;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong clientIds = new AtomicLong();
+
+    // A client has at most one drain task running, so threads are bounded by the client count
+    // and a blocked write only ever ties up its own client's thread
+    private final ExecutorService sender = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "live-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public LiveEventService(SalesMetricsService salesMetricsService, ProductScanIndex productScanIndex,
+                            @Value("${salesync.live.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.salesMetricsService = salesMetricsService;
+        this.productScanIndex = productScanIndex;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /** One event on the stream; key decides what coalesces, name == null sends a comment */
+    record LiveEvent(String topic, String name, String key, Object data) {}
+
+    public record StockLevel(Long productId, Integer available) {}
+
+    public record StockAlert(Long productId, String previous, String current, int quantity, int minStockLevel) {}
+
+    public record SalePlaced(Long id, String invoiceNumber, BigDecimal totalAmount, BigDecimal amountPaid,
+                             BigDecimal amountDue, LocalDate dateOrdered) {}
+
+    public record PaymentReceived(Long id, String paymentNo, String refType, Long refId, BigDecimal amountPaid,
+                                  String method, LocalDateTime paymentDate) {}
+
+    public record ReturnProcessed(String type, Long id, String returnRefNo, Double totalReturnAmount,
+                                  LocalDateTime returnDate) {}
+
+    // ========================================
+    // 📡 SUBSCRIPTIONS
+    // ========================================
+
+    /**
+     * 🔹 Open a stream for the given topics (all topics when empty).
+     * Uses the MVC async timeout; EventSource reconnects on its own when it lapses.
+     */
+    public SseEmitter subscribe(Set<String> topics) {
+        SseEmitter emitter = new SseEmitter();
+        Client client = new Client(clientIds.incrementAndGet(), emitter,
+                topics == null || topics.isEmpty() ? ALL_TOPICS : topics);
+
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+
+        // Current figures first, so the page does not wait for the next sale
+        if (client.topics.contains(SALES)) {
+            deliver(client, new LiveEvent(SALES, "sales-totals", "sales-totals", salesMetricsService.totals()));
+        }
+        log.debug("📡 Live client {} subscribed to {}", client.id, client.topics);
+        return emitter;
+    }
+
+    // ========================================
+    // 🔔 DOMAIN EVENTS (after commit)
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onSalesChanged(SalesChangedEvent event) {
+        publish(new LiveEvent(SALES, "sales-totals", "sales-totals", salesMetricsService.totals()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.getProductIds() == null) return;
+        for (Long productId : event.getProductIds()) {
+            publish(new LiveEvent(STOCK, "stock", "stock:" + productId,
+                    new StockLevel(productId, productScanIndex.available(productId))));
+        }
+    }
+
+    /** Published by StockLevelTracker while it handles a commit, so it is already after commit */
+    @EventListener
+    public void onStockThreshold(StockThresholdEvent event) {
+        publish(new LiveEvent(STOCK, "stock-alert", "stock-alert:" + event.getProductId(),
+                new StockAlert(event.getProductId(), event.getPrevious() != null ? event.getPrevious().name() : null,
+                        event.getCurrent().name(), event.getQuantity(), event.getMinStockLevel())));
+    }
+
+    /** Only scalar columns are read: the persistence context is closed by now */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onDocumentCreated(DocumentCreatedEvent event) {
+        Object document = event.getDocument();
+        if (document instanceof SalesOrder order) {
+            if (order.isDeleted()) return;
+            publish(new LiveEvent(SALES, "sale", "sale:" + order.getId(),
+                    new SalePlaced(order.getId(), order.getInvoiceNumber(), order.getTotalAmount(),
+                            order.getAmountPaid(), order.getAmountDue(), order.getDateOrdered())));
+        } else if (document instanceof Payment payment) {
+            publish(new LiveEvent(PAYMENTS, "payment", "payment:" + payment.getId(),
+                    new PaymentReceived(payment.getId(), payment.getPaymentNo(),
+                            payment.getRefType() != null ? payment.getRefType().name() : null, payment.getRefId(),
+                            payment.getAmountPaid(), payment.getMethod(), payment.getPaymentDate())));
+        } else if (document instanceof SalesReturn salesReturn) {
+            publish(new LiveEvent(RETURNS, "return", "sale-return:" + salesReturn.getId(),
+                    new ReturnProcessed("SALE_RETURN", salesReturn.getId(), salesReturn.getReturnRefNo(),
+                            salesReturn.getTotalReturnAmount(), salesReturn.getReturnDate())));
+        } else if (document instanceof PurchaseReturn purchaseReturn) {
+            publish(new LiveEvent(RETURNS, "return", "purchase-return:" + purchaseReturn.getId(),
+                    new ReturnProcessed("PURCHASE_RETURN", purchaseReturn.getId(), purchaseReturn.getReturnRefNo(),
+                            purchaseReturn.getTotalReturnAmount(), purchaseReturn.getReturnDate())));
+        }
+    }
+
+    /** 💓 Comment line that keeps proxies from closing idle streams; also drops stalled clients */
+    @Scheduled(fixedDelayString = "${salesync.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Client client : clients) {
+            if (client.stalled(now, sendTimeoutMs)) {
+                // Not completed here: that waits on the emitter's write lock; its drain closes it
+                log.debug("📡 Live client {} dropped: send blocked for over {} ms", client.id, sendTimeoutMs);
+                clients.remove(client);
+            } else {
+                deliver(client, HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        clients.forEach(client -> client.emitter.complete());
+        clients.clear();
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private void publish(LiveEvent event) {
+        if (clients.isEmpty()) return;
+        for (Client client : clients) {
+            if (client.topics.contains(event.topic())) {
+                deliver(client, event);
+            }
+        }
+    }
+
+    private void deliver(Client client, LiveEvent event) {
+        if (client.offer(event)) {
+            sender.execute(() -> drain(client));
+        }
+    }
+
+    /** Send until the client's queue is empty; offer() schedules a new drain after that */
+    private void drain(Client client) {
+        List<LiveEvent> batch;
+        while (!(batch = client.take()).isEmpty()) {
+            try {
+                client.sending(System.currentTimeMillis());
+                for (LiveEvent event : batch) {
+                    if (event.name() == null) {
+                        client.emitter.send(SseEmitter.event().comment(event.key()));
+                    } else {
+                        client.emitter.send(SseEmitter.event().name(event.name())
+                                .data(event.data(), MediaType.APPLICATION_JSON));
+                    }
+                }
+                client.sent();
+                if (!clients.contains(client)) { // dropped by the heartbeat while this write was blocked
+                    client.emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("📡 Live client {} dropped: {}", client.id, e.getMessage());
+                clients.remove(client);
+                client.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Per-client pending queue: coalesces by key, bounded at MAX_PENDING.
+     * scheduled is true while a drain task is queued or running for this client;
+     * sendingSince is when the batch being written started, 0 when not writing.
+     */
+    static final class Client {
+        final long id;
+        final SseEmitter emitter;
+        final Set<String> topics;
+
+        private final LinkedHashMap<String, LiveEvent> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        private volatile long sendingSince;
+
+        Client(long id, SseEmitter emitter, Set<String> topics) {
+            this.id = id;
+            this.emitter = emitter;
+            this.topics = topics;
+        }
+
+        /** Queue an event; returns true when the caller must schedule a drain */
+        synchronized boolean offer(LiveEvent event) {
+            if (!pending.containsKey(event.key()) && pending.size() >= MAX_PENDING) {
+                // Too far behind to be worth catching up: have the page reload instead
+                pending.clear();
+                pending.put(RESYNC.key(), RESYNC);
+            }
+            pending.put(event.key(), event); // same key keeps its place, newest value wins
+            if (scheduled) return false;
+            scheduled = true;
+            return true;
+        }
+
+        /** Everything pending, oldest first; an empty result ends the drain */
+        synchronized List<LiveEvent> take() {
+            if (pending.isEmpty()) {
+                scheduled = false;
+                return List.of();
+            }
+            List<LiveEvent> batch = new ArrayList<>(pending.values());
+            pending.clear();
+            return batch;
+        }
+
+        void sending(long now) {
+            sendingSince = now;
+        }
+
+        void sent() {
+            sendingSince = 0;
+        }
+
+        /** Still inside one batch write after timeoutMs */
+        boolean stalled(long now, long timeoutMs) {
+            long since = sendingSince;
+            return since != 0 && now - since > timeoutMs;
+        }
+
+        synchronized int pendingCount() {
+            return pending.size();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.business.salesync.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.models.PartyBalance;
+import com.business.salesync.service.PartyNameIndex.PartyFilter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🧾 Party Balance Service - receivable and payable totals kept at write time.
+ *
+ * Every customer/supplier posting adds its debit and credit to the party's row and to
+ * the type-wide row (party_id 0) with in-database increments, so receivable/payable
+ * reads are a single-row lookup instead of a SUM over the transaction table.
+ * A nightly reconciliation recomputes everything from the raw rows and logs any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartyBalanceService {
+
+    private static final double DRIFT_TOLERANCE = 0.005;
+
+    private static final String INCREMENT_SQL =
+            "INSERT INTO party_balances (party_type, party_id, total_debit, total_credit, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_debit = total_debit + VALUES(total_debit), " +
+            "total_credit = total_credit + VALUES(total_credit), updated_at = VALUES(updated_at)";
+
+    private static final String SET_SQL =
+            "INSERT INTO party_balances (party_type, party_id, total_debit, total_credit, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total_debit = VALUES(total_debit), " +
+            "total_credit = VALUES(total_credit), updated_at = VALUES(updated_at)";
+
+    private static final String RAW_TOTALS_SQL =
+            "SELECT 'CUSTOMER', customer_id, COALESCE(SUM(debit_amount), 0), COALESCE(SUM(credit_amount), 0) " +
+            "FROM app_acct_financial_accounts WHERE entity_type = 'CUSTOMER' AND customer_id IS NOT NULL GROUP BY customer_id " +
+            "UNION ALL " +
+            "SELECT 'SUPPLIER', supplier_id, COALESCE(SUM(debit_amount), 0), COALESCE(SUM(credit_amount), 0) " +
+            "FROM app_acct_financial_accounts WHERE entity_type = 'SUPPLIER' AND supplier_id IS NOT NULL GROUP BY supplier_id " +
+            "UNION ALL " +
+            "SELECT entity_type, " + PartyBalance.ALL_PARTIES + ", COALESCE(SUM(debit_amount), 0), COALESCE(SUM(credit_amount), 0) " +
+            "FROM app_acct_financial_accounts WHERE entity_type IN ('CUSTOMER', 'SUPPLIER') GROUP BY entity_type";
+
+    // Ledger rows of one type with no party id whose name matches; %s is customer_id or supplier_id
+    private static final String UNLINKED_TOTALS_SQL =
+            "SELECT COALESCE(SUM(debit_amount), 0), COALESCE(SUM(credit_amount), 0) FROM app_acct_financial_accounts " +
+            "WHERE entity_type = ? AND %s IS NULL AND LOWER(entity_name) LIKE ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // ========================================
+    // ✏️ WRITE SIDE
+    // ========================================
+
+    /** ✏️ Add a new app_acct_financial_accounts row to its party's totals */
+    @Transactional
+    public void apply(FinancialAccount row) {
+        apply(row, 1);
+    }
+
+    /** ✏️ An existing row was edited: take the old values out and put the new ones in */
+    @Transactional
+    public void replace(FinancialAccount before, FinancialAccount after) {
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    private void apply(FinancialAccount row, int sign) {
+        String partyType = partyType(row);
+        if (partyType == null) {
+            return;
+        }
+        double debit = sign * (row.getDebitAmount() != null ? row.getDebitAmount() : 0.0);
+        double credit = sign * (row.getCreditAmount() != null ? row.getCreditAmount() : 0.0);
+        if (debit == 0.0 && credit == 0.0) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Long partyId = partyId(row, partyType);
+        if (partyId != null) {
+            jdbcTemplate.update(INCREMENT_SQL, partyType, partyId, debit, credit, now);
+        }
+        // Type-wide row last: it is the hottest row, so hold its lock for the shortest time
+        jdbcTemplate.update(INCREMENT_SQL, partyType, PartyBalance.ALL_PARTIES, debit, credit, now);
+    }
+
+    // ========================================
+    // 📊 READ SIDE
+    // ========================================
+
+    /**
+     * 📊 {total debit, total credit} of the parties a name filter matches; null = every
+     * row of the type. One row for the type-wide total, one row per party otherwise.
+     * Rows with no party id are only in the type-wide row, so those are summed from the
+     * ledger on their entity_name.
+     */
+    @Transactional(readOnly = true)
+    public double[] totals(String partyType, PartyFilter parties) {
+        List<Object> args = new ArrayList<>();
+        args.add(partyType);
+        String sql = "SELECT COALESCE(SUM(total_debit), 0), COALESCE(SUM(total_credit), 0) FROM party_balances WHERE party_type = ? ";
+        if (parties == null) {
+            sql += "AND party_id = ?";
+            args.add(PartyBalance.ALL_PARTIES);
+        } else {
+            List<Long> ids = parties.queryIds();
+            sql += "AND party_id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+            args.addAll(ids);
+        }
+        double[] totals = jdbcTemplate.queryForObject(sql, (rs, i) -> new double[] {rs.getDouble(1), rs.getDouble(2)}, args.toArray());
+        if (parties != null) {
+            String column = "SUPPLIER".equals(partyType) ? "supplier_id" : "customer_id";
+            double[] unlinked = jdbcTemplate.queryForObject(UNLINKED_TOTALS_SQL.formatted(column),
+                    (rs, i) -> new double[] {rs.getDouble(1), rs.getDouble(2)}, partyType, parties.namePattern());
+            totals[0] += unlinked[0];
+            totals[1] += unlinked[1];
+        }
+        return totals;
+    }
+
+    // ========================================
+    // 🔁 RECONCILIATION
+    // ========================================
+
+    /** 🚀 First start after upgrading: build the totals from history */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM party_balances", Long.class);
+        if (rows != null && rows == 0) {
+            reconcile();
+        }
+    }
+
+    /**
+     * 🔁 Recompute every party's totals from app_acct_financial_accounts, log the rows
+     * that drifted and overwrite them.
+     *
+     * The stored rows are locked first, so postings in flight either commit before the
+     * recount (and are in it) or wait and apply their increments on top of it.
+     *
+     * @return number of rows corrected
+     */
+    @Scheduled(cron = "${salesync.ledger.party-balance-reconcile-cron:0 15 3 * * *}")
+    @Transactional
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+
+        Map<String, double[]> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT party_type, party_id, total_debit, total_credit FROM party_balances FOR UPDATE",
+                rs -> { stored.put(key(rs.getString(1), rs.getLong(2)), new double[] {rs.getDouble(3), rs.getDouble(4)}); });
+
+        Map<String, double[]> actual = new HashMap<>();
+        jdbcTemplate.query(RAW_TOTALS_SQL,
+                rs -> { actual.put(key(rs.getString(1), rs.getLong(2)), new double[] {rs.getDouble(3), rs.getDouble(4)}); });
+
+        // Rows that exist but no longer have any postings should read zero
+        for (String k : stored.keySet()) {
+            actual.putIfAbsent(k, new double[] {0.0, 0.0});
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int corrected = 0;
+        for (Map.Entry<String, double[]> e : actual.entrySet()) {
+            double[] want = e.getValue();
+            double[] have = stored.get(e.getKey());
+            boolean drifted = have == null
+                    ? (want[0] != 0.0 || want[1] != 0.0)
+                    : Math.abs(have[0] - want[0]) > DRIFT_TOLERANCE || Math.abs(have[1] - want[1]) > DRIFT_TOLERANCE;
+            if (!drifted) {
+                continue;
+            }
+            if (have != null) {
+                log.warn("⚠️ Party balance drift {}: debit {} → {}, credit {} → {}",
+                        e.getKey(), have[0], want[0], have[1], want[1]);
+            }
+            String[] parts = e.getKey().split(":");
+            jdbcTemplate.update(SET_SQL, parts[0], Long.parseLong(parts[1]), want[0], want[1], now);
+            corrected++;
+        }
+
+        log.info("🔁 Reconciled {} party balances, {} corrected, in {} ms",
+                actual.size(), corrected, System.currentTimeMillis() - start);
+        return corrected;
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private static String partyType(FinancialAccount row) {
+        if ("CUSTOMER".equalsIgnoreCase(row.getEntityType())) return "CUSTOMER";
+        if ("SUPPLIER".equalsIgnoreCase(row.getEntityType())) return "SUPPLIER";
+        return null;
+    }
+
+    private static Long partyId(FinancialAccount row, String partyType) {
+        if ("CUSTOMER".equals(partyType)) {
+            return row.getCustomer() != null ? row.getCustomer().getId() : null;
+        }
+        return row.getSupplier() != null ? row.getSupplier().getId() : null;
+    }
+
+    private static String key(String partyType, long partyId) {
+        return partyType + ":" + partyId;
+    }
+}
@@ -0,0 +1,256 @@
+package com.business.salesync.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.business.salesync.event.PartyChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 👥 Party Name Index - customer and supplier names in memory.
+ *
+ * Backs name typeahead and turns a ledger name filter into customer/supplier ids,
+ * so ledger queries can use the party id indexes instead of LIKE '%name%' over every
+ * transaction. Names are kept sorted for prefix matches, with a trigram posting list
+ * for substring matches. Each party type is rebuilt as a whole and swapped in after a
+ * customer/supplier commit; masters are small next to the transaction table.
+ */
+@Service
+@Slf4j
+public class PartyNameIndex {
+
+    public static final String CUSTOMER = "CUSTOMER";
+    public static final String SUPPLIER = "SUPPLIER";
+
+    private static final String CUSTOMERS_SQL = "SELECT id, name FROM customers WHERE name IS NOT NULL";
+    private static final String SUPPLIERS_SQL = "SELECT id, supplier_name FROM suppliers WHERE supplier_name IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Names customers = Names.EMPTY;
+    private volatile Names suppliers = Names.EMPTY;
+
+    public PartyNameIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        reload(CUSTOMER);
+        reload(SUPPLIER);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPartyChanged(PartyChangedEvent event) {
+        reload(event.getPartyType());
+    }
+
+    /** 🔤 Up to limit names for a typeahead: prefix matches first, then other substring matches */
+    public List<String> suggest(String partyType, String query, int limit) {
+        Names index = index(partyType);
+        String q = fold(query);
+        if (q.isEmpty()) {
+            return index.names.length <= limit
+                    ? Arrays.asList(index.names)
+                    : Arrays.asList(index.names).subList(0, limit);
+        }
+        Set<Integer> hits = new LinkedHashSet<>();
+        index.prefix(q, limit, hits);
+        if (hits.size() < limit) {
+            List<Integer> contained = index.containing(q);
+            Collections.sort(contained); // positions are in name order
+            for (int pos : contained) {
+                if (hits.size() >= limit) break;
+                hits.add(pos);
+            }
+        }
+        List<String> result = new ArrayList<>(hits.size());
+        for (int pos : hits) {
+            result.add(index.names[pos]);
+        }
+        return result;
+    }
+
+    /** 🔍 Ids of every party whose name contains the text (case-insensitive), like the old LIKE filter */
+    public List<Long> idsMatching(String partyType, String text) {
+        Names index = index(partyType);
+        List<Integer> positions = index.containing(fold(text));
+        List<Long> ids = new ArrayList<>(positions.size());
+        for (int pos : positions) {
+            ids.add(index.ids[pos]);
+        }
+        return ids;
+    }
+
+    /**
+     * 🔍 Ledger filter for a name search, or null when there is no name to filter on.
+     * Rows not linked to a party (walk-in postings, names shared by two parties, rows
+     * posted under another name) are still matched on their own entity_name.
+     */
+    public PartyFilter filter(String partyType, String text) {
+        if (text == null || text.isBlank()) return null;
+        return new PartyFilter(idsMatching(partyType, text), "%" + fold(text) + "%");
+    }
+
+    /** Matching party ids, and the LIKE pattern for LOWER(entity_name) of unlinked rows */
+    public record PartyFilter(List<Long> ids, String namePattern) {
+
+        /** ids for an IN list: never empty, 0 is not a party id */
+        public List<Long> queryIds() {
+            return ids.isEmpty() ? List.of(0L) : ids;
+        }
+    }
+
+    /** 🎯 Id of the party with exactly this name, or null if there is none or more than one */
+    public Long exactId(String partyType, String name) {
+        if (name == null) return null;
+        Long id = index(partyType).exact.get(fold(name));
+        return id != null && id > 0 ? id : null;
+    }
+
+    public List<String> allNames(String partyType) {
+        return Arrays.asList(index(partyType).names);
+    }
+
+    public int size(String partyType) {
+        return index(partyType).names.length;
+    }
+
+    private synchronized void reload(String partyType) {
+        long start = System.currentTimeMillis();
+        List<Long> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        jdbcTemplate.query(SUPPLIER.equals(partyType) ? SUPPLIERS_SQL : CUSTOMERS_SQL, rs -> {
+            ids.add(rs.getLong(1));
+            names.add(rs.getString(2));
+        });
+        load(partyType, ids, names);
+        log.info("👥 Name index loaded {} {} names in {} ms",
+                names.size(), partyType.toLowerCase(), System.currentTimeMillis() - start);
+    }
+
+    /** Swap in a fresh index for one party type */
+    void load(String partyType, List<Long> ids, List<String> names) {
+        Names built = new Names(ids, names);
+        if (SUPPLIER.equals(partyType)) {
+            suppliers = built;
+        } else {
+            customers = built;
+        }
+    }
+
+    private Names index(String partyType) {
+        if (CUSTOMER.equalsIgnoreCase(partyType)) return customers;
+        if (SUPPLIER.equalsIgnoreCase(partyType)) return suppliers;
+        return Names.EMPTY;
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    /** Immutable index of one party type, positions ordered by folded name */
+    static final class Names {
+
+        static final Names EMPTY = new Names(List.of(), List.of());
+
+        final long[] ids;
+        final String[] names;
+        final String[] folded;
+        final Map<Long, int[]> trigrams = new HashMap<>();
+        final Map<String, Long> exact = new HashMap<>();   // -1 marks a name shared by several parties
+
+        Names(List<Long> idList, List<String> nameList) {
+            int n = idList.size();
+            Integer[] order = new Integer[n];
+            String[] keys = new String[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+                keys[i] = fold(nameList.get(i));
+            }
+            Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+
+            ids = new long[n];
+            names = new String[n];
+            folded = new String[n];
+            Map<Long, Postings> postings = new HashMap<>();
+            for (int pos = 0; pos < n; pos++) {
+                int src = order[pos];
+                ids[pos] = idList.get(src);
+                names[pos] = nameList.get(src);
+                folded[pos] = keys[src];
+                exact.merge(folded[pos], ids[pos], (a, b) -> -1L);
+                for (int i = 0; i + 3 <= folded[pos].length(); i++) {
+                    postings.computeIfAbsent(trigram(folded[pos], i), k -> new Postings()).add(pos);
+                }
+            }
+            postings.forEach((key, list) -> trigrams.put(key, Arrays.copyOf(list.positions, list.size)));
+        }
+
+        /** Growable int list; positions arrive in ascending order */
+        private static final class Postings {
+            int[] positions = new int[4];
+            int size;
+
+            void add(int pos) {
+                if (size > 0 && positions[size - 1] == pos) return;
+                if (size == positions.length) positions = Arrays.copyOf(positions, size * 2);
+                positions[size++] = pos;
+            }
+        }
+
+        /** Positions whose folded name starts with q, in name order */
+        void prefix(String q, int limit, Set<Integer> into) {
+            int lo = 0;
+            int hi = folded.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (folded[mid].compareTo(q) < 0) lo = mid + 1; else hi = mid;
+            }
+            for (int pos = lo; pos < folded.length && into.size() < limit && folded[pos].startsWith(q); pos++) {
+                into.add(pos);
+            }
+        }
+
+        /** Positions whose folded name contains q */
+        List<Integer> containing(String q) {
+            List<Integer> result = new ArrayList<>();
+            if (q.isEmpty()) return result;
+            if (q.length() < 3) {
+                for (int pos = 0; pos < folded.length; pos++) {
+                    if (folded[pos].contains(q)) result.add(pos);
+                }
+                return result;
+            }
+            // Verify candidates from the rarest trigram of the query
+            int[] candidates = null;
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                int[] list = trigrams.get(trigram(q, i));
+                if (list == null) return result;
+                if (candidates == null || list.length < candidates.length) candidates = list;
+            }
+            for (int pos : candidates) {
+                if (folded[pos].contains(q)) result.add(pos);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.business.salesync.dto.ScanResultDTO;
+import com.business.salesync.event.ProductChangedEvent;
+import com.business.salesync.event.StockChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔎 Product Scan Index - barcode/SKU → product in memory for the till.
+ *
+ * Numeric codes (EAN/UPC and numeric SKUs, up to 17 digits) are packed into a long
+ * with their digit count, so "0123" and "123" stay distinct and no String is kept per key.
+ * Other codes are kept as strings. Entries are refreshed from the database after a
+ * product commit (SKU/barcode may be filled in by a DB trigger, so entity values are not
+ * trusted) and available stock is refreshed after every stock change.
+ */
+@Service
+@Slf4j
+public class ProductScanIndex {
+
+    private static final String SELECT_SQL =
+            "SELECT id, name, sku, barcode, selling_price, vat_percent, quantity - reserved_quantity AS available FROM products";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CodeMap barcodes = new CodeMap();
+    private final CodeMap skus = new CodeMap();
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> available = new ConcurrentHashMap<>();
+
+    public ProductScanIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query(SELECT_SQL, (RowMapper<Void>) (rs, i) -> {
+            put(new Entry(rs.getLong("id"), rs.getString("name"), rs.getString("sku"), rs.getString("barcode"),
+                    rs.getBigDecimal("selling_price"), rs.getBigDecimal("vat_percent")), rs.getInt("available"));
+            return null;
+        });
+        log.info("🔎 Scan index loaded {} products in {} ms", byId.size(), System.currentTimeMillis() - start);
+    }
+
+    /** Barcode first, then SKU; null if nothing matches */
+    public ScanResultDTO lookup(String code) {
+        if (code == null) return null;
+        String trimmed = code.trim();
+        if (trimmed.isEmpty()) return null;
+
+        Entry entry = barcodes.get(trimmed);
+        if (entry == null) {
+            entry = skus.get(trimmed);
+        }
+        if (entry == null) return null;
+
+        return ScanResultDTO.builder()
+                .id(entry.id)
+                .name(entry.name)
+                .sku(entry.sku)
+                .barcode(entry.barcode)
+                .sellingPrice(entry.sellingPrice)
+                .vatPercent(entry.vatPercent)
+                .availableQuantity(available.getOrDefault(entry.id, 0))
+                .build();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /** Quantity minus reserved as of the last stock commit; null for an unknown product */
+    public Integer available(Long productId) {
+        return available.get(productId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            refresh(List.of(event.getProductId()), true);
+        }
+    }
+
+    // Ahead of LiveEventService, which pushes the figures read from here
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onStockChanged(StockChangedEvent event) {
+        refresh(event.getProductIds(), false);
+    }
+
+    private void refresh(Collection<Long> productIds, boolean reindex) {
+        if (productIds == null || productIds.isEmpty()) return;
+        String in = String.join(",", Collections.nCopies(productIds.size(), "?"));
+
+        if (!reindex) {
+            jdbcTemplate.query("SELECT id, quantity - reserved_quantity FROM products WHERE id IN (" + in + ")",
+                    rs -> { available.put(rs.getLong(1), rs.getInt(2)); }, productIds.toArray());
+            return;
+        }
+        jdbcTemplate.query(SELECT_SQL + " WHERE id IN (" + in + ")", (RowMapper<Void>) (rs, i) -> {
+            put(new Entry(rs.getLong("id"), rs.getString("name"), rs.getString("sku"), rs.getString("barcode"),
+                    rs.getBigDecimal("selling_price"), rs.getBigDecimal("vat_percent")), rs.getInt("available"));
+            return null;
+        }, productIds.toArray());
+    }
+
+    /** Index or re-index one product, dropping keys it no longer owns */
+    void put(Entry entry, int availableQuantity) {
+        Entry previous = byId.put(entry.id, entry);
+        if (previous != null) {
+            barcodes.remove(previous.barcode, previous);
+            skus.remove(previous.sku, previous);
+        }
+        barcodes.put(entry.barcode, entry);
+        skus.put(entry.sku, entry);
+        available.put(entry.id, availableQuantity);
+    }
+
+    void remove(Long productId) {
+        Entry previous = byId.remove(productId);
+        if (previous != null) {
+            barcodes.remove(previous.barcode, previous);
+            skus.remove(previous.sku, previous);
+        }
+        available.remove(productId);
+    }
+
+    /** Immutable index entry; replaced as a whole when the product changes */
+    static final class Entry {
+        final long id;
+        final String name;
+        final String sku;
+        final String barcode;
+        final BigDecimal sellingPrice;
+        final BigDecimal vatPercent;
+
+        Entry(long id, String name, String sku, String barcode, BigDecimal sellingPrice, BigDecimal vatPercent) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+            this.barcode = barcode;
+            this.sellingPrice = sellingPrice;
+            this.vatPercent = vatPercent;
+        }
+    }
+
+    /** Code → entry with numeric codes packed into a long key */
+    static final class CodeMap {
+        private static final int MAX_NUMERIC_DIGITS = 17; // 10^17 << 5 still fits in a long
+
+        private final Map<Long, Entry> numeric = new ConcurrentHashMap<>();
+        private final Map<String, Entry> text = new ConcurrentHashMap<>();
+
+        Entry get(String code) {
+            long key = pack(code);
+            return key >= 0 ? numeric.get(key) : text.get(code);
+        }
+
+        void put(String code, Entry entry) {
+            if (code == null || code.isEmpty()) return;
+            long key = pack(code);
+            if (key >= 0) numeric.put(key, entry);
+            else text.put(code, entry);
+        }
+
+        void remove(String code, Entry entry) {
+            if (code == null || code.isEmpty()) return;
+            long key = pack(code);
+            if (key >= 0) numeric.remove(key, entry);
+            else text.remove(code, entry);
+        }
+
+        /** digits + digit count, or -1 when the code is not a short all-digit string */
+        static long pack(String code) {
+            int len = code.length();
+            if (len == 0 || len > MAX_NUMERIC_DIGITS) return -1;
+            long value = 0;
+            for (int i = 0; i < len; i++) {
+                char c = code.charAt(i);
+                if (c < '0' || c > '9') return -1;
+                value = value * 10 + (c - '0');
+            }
+            return (value << 5) | len;
+        }
+    }
+}
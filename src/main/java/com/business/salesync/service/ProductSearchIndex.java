@@ -0,0 +1,427 @@
+package com.business.salesync.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.business.salesync.event.ProductChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🔍 Product Search Index - ranked product search by name, SKU and barcode, in memory.
+ *
+ * Names are split into words and SKUs / barcodes into code terms; each kind has a sorted
+ * term dictionary with posting lists, so a query word is matched exactly, as a prefix
+ * (typeahead) or, for words of four letters or more, within one typo. Every query word
+ * must match. Ranking per word: code exact 10, code prefix 4, name exact 3, name prefix 2,
+ * name typo 1; ties go to the shorter name.
+ *
+ * The main segment is immutable. A product commit re-reads that row into a small delta
+ * that overrides the segment, and the two are merged into a fresh segment once the delta
+ * passes REBUILD_THRESHOLD, so saves never rebuild 100k products one at a time.
+ *
+ * Results are capped (MAX_RESULTS for the product list); find() also reports how many
+ * products matched in all, so a capped list can say so.
+ */
+@Service
+@Slf4j
+public class ProductSearchIndex {
+
+    public static final int MAX_RESULTS = 1000;
+    static final int REBUILD_THRESHOLD = 256;
+    private static final int MAX_QUERY_WORDS = 8;
+
+    static final int CODE_EXACT = 10;
+    static final int CODE_PREFIX = 4;
+    static final int NAME_EXACT = 3;
+    static final int NAME_PREFIX = 2;
+    static final int NAME_TYPO = 1;
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private static final String SELECT_SQL = "SELECT id, name, sku, barcode FROM products";
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Segment segment = Segment.EMPTY;
+    // Products changed since the segment was built; a Doc with deleted = true hides the segment's copy
+    private final Map<Long, Doc> delta = new ConcurrentHashMap<>();
+
+    public ProductSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** 🔎 One ranked result */
+    public record Hit(long id, String name, String sku, String barcode, int score) {}
+
+    /** The best hits, at most the limit asked for, and how many products matched in all */
+    public record Result(List<Hit> hits, int matches) {
+        public boolean capped() {
+            return matches > hits.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.currentTimeMillis();
+        List<Doc> docs = new ArrayList<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            docs.add(new Doc(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), false));
+        });
+        load(docs);
+        log.info("🔍 Product search index built for {} products in {} ms", docs.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long id = event.getProductId();
+        if (id == null) return;
+        List<Doc> rows = event.isDeleted() ? List.of() : jdbcTemplate.query(SELECT_SQL + " WHERE id = ?",
+                (rs, i) -> new Doc(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), false), id);
+        put(rows.isEmpty() ? new Doc(id, null, null, null, true) : rows.get(0));
+    }
+
+    // ========================================
+    // 📊 SEARCH
+    // ========================================
+
+    /** Best matches first, at most limit */
+    public List<Hit> search(String query, int limit) {
+        return find(query, limit).hits();
+    }
+
+    /** Best matches first, at most limit, with the number of products that matched */
+    public Result find(String query, int limit) {
+        String[] words = queryWords(query);
+        if (words.length == 0 || limit <= 0) return new Result(List.of(), 0);
+
+        Segment current = segment;
+        List<Hit> hits = new ArrayList<>();
+        int matches = current.search(words, limit, delta, hits);
+        for (Doc doc : delta.values()) {
+            if (doc.deleted) continue;
+            int score = doc.score(words);
+            if (score > 0) {
+                hits.add(doc.hit(score));
+                matches++;
+            }
+        }
+        hits.sort(RANKING);
+        return new Result(hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits, matches);
+    }
+
+    /** Ids of the best matches, in rank order */
+    public List<Long> searchIds(String query, int limit) {
+        List<Hit> hits = search(query, limit);
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (Hit hit : hits) ids.add(hit.id());
+        return ids;
+    }
+
+    // ========================================
+    // ✏️ UPDATES
+    // ========================================
+
+    /** Replace the whole index */
+    synchronized void load(Collection<Doc> docs) {
+        segment = new Segment(docs);
+        delta.clear();
+    }
+
+    /** Add, replace or (deleted doc) remove one product */
+    void put(Doc doc) {
+        delta.put(doc.id, doc);
+        if (delta.size() > REBUILD_THRESHOLD) {
+            rebuild();
+        }
+    }
+
+    /** Fold the delta into a new segment; changes arriving meanwhile stay in the delta */
+    synchronized void rebuild() {
+        if (delta.size() <= REBUILD_THRESHOLD) return;
+        Map<Long, Doc> folded = new HashMap<>(delta);
+        List<Doc> docs = new ArrayList<>(segment.docs.length + folded.size());
+        for (Doc doc : segment.docs) {
+            if (!folded.containsKey(doc.id)) docs.add(doc);
+        }
+        for (Doc doc : folded.values()) {
+            if (!doc.deleted) docs.add(doc);
+        }
+        segment = new Segment(docs);
+        folded.forEach(delta::remove); // only entries not replaced since the snapshot
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparingInt(h -> h.name() == null ? Integer.MAX_VALUE : h.name().length())
+            .thenComparing(h -> h.name() == null ? "" : h.name())
+            .thenComparingLong(Hit::id);
+
+    private static final Comparator<Doc> TIE_BREAK =
+            Comparator.<Doc>comparingInt(d -> d.name == null ? Integer.MAX_VALUE : d.name.length())
+            .thenComparing(d -> d.name == null ? "" : d.name)
+            .thenComparingLong(d -> d.id);
+
+    static String fold(String text) {
+        if (text == null) return "";
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    static String[] words(String text) {
+        String folded = fold(text).trim();
+        if (folded.isEmpty()) return new String[0];
+        return Arrays.stream(NON_WORD.split(folded)).filter(w -> !w.isEmpty()).toArray(String[]::new);
+    }
+
+    private static String[] queryWords(String query) {
+        Set<String> unique = new LinkedHashSet<>(Arrays.asList(words(query)));
+        return unique.stream().limit(MAX_QUERY_WORDS).toArray(String[]::new);
+    }
+
+    /** Whole SKU / barcode with separators removed, plus its parts: "SKU-0042" → sku0042, sku, 0042 */
+    private static String[] codeTerms(String sku, String barcode) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String code : new String[] { sku, barcode }) {
+            String[] parts = words(code);
+            if (parts.length == 0) continue;
+            terms.add(String.join("", parts));
+            terms.addAll(Arrays.asList(parts));
+        }
+        return terms.toArray(String[]::new);
+    }
+
+    /** Levenshtein distance of at most one, with an adjacent swap counted as one edit */
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) return false;
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) i++;
+        if (i == la || i == lb) return true; // equal, or one trailing extra char
+        if (la == lb) {
+            if (a.regionMatches(i + 1, b, i + 1, la - i - 1)) return true;             // substitution
+            return i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, la - i - 2);                     // swap
+        }
+        return la > lb ? a.regionMatches(i + 1, b, i, lb - i)                           // extra char in a
+                       : b.regionMatches(i + 1, a, i, la - i);                           // extra char in b
+    }
+
+    /** One indexed product */
+    static final class Doc {
+        final long id;
+        final String name;
+        final String sku;
+        final String barcode;
+        final boolean deleted;
+        final String[] nameTerms;
+        final String[] codeTerms;
+
+        Doc(long id, String name, String sku, String barcode, boolean deleted) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+            this.barcode = barcode;
+            this.deleted = deleted;
+            this.nameTerms = deleted ? new String[0] : new LinkedHashSet<>(Arrays.asList(words(name))).toArray(String[]::new);
+            this.codeTerms = deleted ? new String[0] : codeTerms(sku, barcode);
+        }
+
+        Hit hit(int score) {
+            return new Hit(id, name, sku, barcode, score);
+        }
+
+        /** Same rules as the segment's posting lists, for the few products in the delta */
+        int score(String[] words) {
+            int total = 0;
+            for (String word : words) {
+                int best = 0;
+                for (String term : codeTerms) {
+                    if (term.equals(word)) best = Math.max(best, CODE_EXACT);
+                    else if (term.startsWith(word)) best = Math.max(best, CODE_PREFIX);
+                }
+                for (String term : nameTerms) {
+                    if (term.equals(word)) best = Math.max(best, NAME_EXACT);
+                    else if (term.startsWith(word)) best = Math.max(best, NAME_PREFIX);
+                    else if (word.length() >= MIN_TYPO_LENGTH && withinOneEdit(term, word)) best = Math.max(best, NAME_TYPO);
+                }
+                if (best == 0) return 0;
+                total += best;
+            }
+            return total;
+        }
+    }
+
+    /** Sorted terms with the ascending doc positions that contain each */
+    static final class Dictionary {
+        final String[] terms;
+        final int[][] postings;
+
+        Dictionary(TreeMap<String, int[]> sorted) {
+            terms = sorted.keySet().toArray(String[]::new);
+            postings = sorted.values().toArray(int[][]::new);
+        }
+
+        int find(String term) {
+            return Arrays.binarySearch(terms, term);
+        }
+
+        int lowerBound(String prefix) {
+            int lo = 0;
+            int hi = terms.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (terms[mid].compareTo(prefix) < 0) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /** Immutable index over a set of products */
+    static final class Segment {
+
+        static final Segment EMPTY = new Segment(List.of());
+
+        final Doc[] docs;
+        final Dictionary names;
+        final Dictionary codes;
+
+        Segment(Collection<Doc> docList) {
+            // Position order is the tie-break order, so ties at the cut-off need no sorting
+            docs = docList.toArray(Doc[]::new);
+            Arrays.sort(docs, TIE_BREAK);
+            Map<String, IntList> nameLists = new HashMap<>();
+            Map<String, IntList> codeLists = new HashMap<>();
+            for (int pos = 0; pos < docs.length; pos++) {
+                for (String term : docs[pos].nameTerms) nameLists.computeIfAbsent(term, t -> new IntList()).add(pos);
+                for (String term : docs[pos].codeTerms) codeLists.computeIfAbsent(term, t -> new IntList()).add(pos);
+            }
+            names = dictionary(nameLists);
+            codes = dictionary(codeLists);
+        }
+
+        private static Dictionary dictionary(Map<String, IntList> lists) {
+            TreeMap<String, int[]> sorted = new TreeMap<>();
+            lists.forEach((term, list) -> sorted.put(term, list.toArray()));
+            return new Dictionary(sorted);
+        }
+
+        /**
+         * Adds the best docs matching every word to hits, skipping products overridden by the
+         * delta, and returns how many docs matched in all.
+         * Per word, terms are visited best score first, so the first term that reaches a doc
+         * gives its score for that word; matched[doc] counts the words a doc has matched so far.
+         */
+        int search(String[] words, int limit, Map<Long, Doc> overridden, List<Hit> hits) {
+            int n = docs.length;
+            if (n == 0) return 0;
+            byte[] matched = new byte[n];
+            int[] score = new int[n];
+
+            for (int w = 0; w < words.length; w++) {
+                String word = words[w];
+                byte before = (byte) w;
+                byte after = (byte) (w + 1);
+
+                int exact = codes.find(word);
+                if (exact >= 0) credit(codes.postings[exact], matched, score, before, after, CODE_EXACT);
+                for (int t = codes.lowerBound(word); t < codes.terms.length && codes.terms[t].startsWith(word); t++) {
+                    credit(codes.postings[t], matched, score, before, after, CODE_PREFIX);
+                }
+                exact = names.find(word);
+                if (exact >= 0) credit(names.postings[exact], matched, score, before, after, NAME_EXACT);
+                for (int t = names.lowerBound(word); t < names.terms.length && names.terms[t].startsWith(word); t++) {
+                    credit(names.postings[t], matched, score, before, after, NAME_PREFIX);
+                }
+                if (word.length() >= MIN_TYPO_LENGTH) {
+                    for (int t = 0; t < names.terms.length; t++) {
+                        String term = names.terms[t];
+                        if (Math.abs(term.length() - word.length()) <= 1 && withinOneEdit(term, word)) {
+                            credit(names.postings[t], matched, score, before, after, NAME_TYPO);
+                        }
+                    }
+                }
+            }
+
+            // Keep only the top scores: find the lowest score that still fits within limit
+            byte all = (byte) words.length;
+            int maxScore = CODE_EXACT * words.length;
+            int[] histogram = new int[maxScore + 1];
+            int matches = 0;
+            for (int pos = 0; pos < n; pos++) {
+                if (matched[pos] != all) continue;
+                if (overridden.containsKey(docs[pos].id)) {
+                    matched[pos] = 0;   // the delta's copy is scored instead
+                    continue;
+                }
+                histogram[score[pos]]++;
+                matches++;
+            }
+            int threshold = 1;
+            int above = 0;
+            for (int s = maxScore; s >= 1; s--) {
+                if (above + histogram[s] >= limit) { threshold = s; break; }
+                above += histogram[s];
+            }
+            int ties = limit - above;
+            for (int pos = 0; pos < n; pos++) {
+                if (matched[pos] != all || score[pos] < threshold) continue;
+                if (score[pos] > threshold) {
+                    hits.add(docs[pos].hit(score[pos]));
+                } else if (ties > 0) {
+                    hits.add(docs[pos].hit(score[pos]));
+                    ties--;
+                }
+            }
+            return matches;
+        }
+
+        private static void credit(int[] postings, byte[] matched, int[] score, byte before, byte after, int points) {
+            for (int pos : postings) {
+                if (matched[pos] == before) {
+                    matched[pos] = after;
+                    score[pos] += points;
+                }
+            }
+        }
+    }
+
+    /** Growable int list; positions arrive in ascending order */
+    private static final class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
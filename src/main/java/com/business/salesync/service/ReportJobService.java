@@ -0,0 +1,412 @@
+package com.business.salesync.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.business.salesync.event.CategoryChangedEvent;
+import com.business.salesync.event.PartyChangedEvent;
+import com.business.salesync.event.ProductChangedEvent;
+import com.business.salesync.event.SalesChangedEvent;
+import com.business.salesync.event.StockChangedEvent;
+import com.business.salesync.repository.CustomerRepository;
+import com.business.salesync.repository.ProductRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 🗂️ Report Job Service - runs stock, sales and customer reports off the request thread.
+ *
+ * A job is submitted, polled for progress, its result fetched once DONE, or cancelled.
+ *   - jobs run on a fixed pool with a bounded queue; a full queue rejects the submit
+ *   - a sales job splits its range into chunks of chunk-days, summarised in parallel on a
+ *     separate small pool and merged (SalesReportService.merge)
+ *   - finished results are cached by type + range until a committed change touches that
+ *     data: a sale dated inside the range, a stock movement, or a product / category /
+ *     customer edit. A job that overlapped such a change is not cached.
+ * Identical submits while a job is queued or running share that job.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    public enum ReportType {
+        SALES, STOCK, CUSTOMER;
+
+        public static ReportType of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown report type: " + value);
+            }
+        }
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == DONE || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final SalesReportService salesReportService;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final int chunkDays;
+    private final long retentionMinutes;
+
+    private final ExecutorService jobExecutor;
+    private final ExecutorService chunkExecutor;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, CachedReport> cache;
+    // Bumped by every invalidation; a job only caches if nothing changed while it ran
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ReportJobService(SalesReportService salesReportService,
+                            ProductRepository productRepository,
+                            CustomerRepository customerRepository,
+                            @Value("${salesync.reports.job-threads:2}") int jobThreads,
+                            @Value("${salesync.reports.queue-capacity:20}") int queueCapacity,
+                            @Value("${salesync.reports.chunk-threads:3}") int chunkThreads,
+                            @Value("${salesync.reports.chunk-days:31}") int chunkDays,
+                            @Value("${salesync.reports.cache-size:50}") int cacheSize,
+                            @Value("${salesync.reports.job-retention-minutes:30}") long retentionMinutes) {
+        this.salesReportService = salesReportService;
+        this.productRepository = productRepository;
+        this.customerRepository = customerRepository;
+        this.chunkDays = Math.max(chunkDays, 1);
+        this.retentionMinutes = retentionMinutes;
+        this.jobExecutor = new ThreadPoolExecutor(jobThreads, jobThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threads("report-job"));
+        // Only running jobs submit chunks, so this queue is bounded by jobThreads x chunks per job
+        this.chunkExecutor = new ThreadPoolExecutor(chunkThreads, chunkThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threads("report-chunk"));
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedReport> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /** A finished report and the data it was built from */
+    record CachedReport(ReportType type, LocalDate from, LocalDate to, Object result) {}
+
+    // ========================================
+    // 🚀 SUBMIT / POLL / CANCEL
+    // ========================================
+
+    /**
+     * 🔹 Submit a report; returns a job that is already DONE when the result is cached.
+     * @throws IllegalArgumentException for a reversed date range
+     * @throws IllegalStateException    when the job queue is full
+     */
+    public ReportJob submit(ReportType type, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must be on or before 'to'");
+        }
+        String key = key(type, from, to);
+        int chunks = type == ReportType.SALES ? chunks(from, to, chunkDays).size() : 1;
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, type, from, to, chunks);
+
+        Object cached = cached(key);
+        if (cached != null) {
+            job.complete(cached, true);
+            jobs.put(job.id, job);
+            log.info("🗂️ Report {} served from cache", key);
+            return job;
+        }
+
+        synchronized (jobs) {
+            for (ReportJob existing : jobs.values()) {
+                if (existing.key.equals(key) && !existing.getStatus().isFinished()) {
+                    return existing;
+                }
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            job.future = jobExecutor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new IllegalStateException("Too many reports are running, please try again shortly");
+        }
+        log.info("🗂️ Report job {} queued: {} in {} chunk(s)", job.id, key, chunks);
+        return job;
+    }
+
+    public ReportJob get(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /** ❌ Cancel a queued or running job; returns false for an unknown job */
+    public boolean cancel(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null) return false;
+        if (job.cancel()) {
+            Future<?> future = job.future;
+            if (future != null) future.cancel(true);
+            log.info("🗂️ Report job {} cancelled", jobId);
+        }
+        return true;
+    }
+
+    // ========================================
+    // 🔁 CACHE INVALIDATION (after commit)
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesChanged(SalesChangedEvent event) {
+        invalidate(ReportType.SALES, event.getOldDate(), event.getNewDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        invalidate(ReportType.STOCK);
+    }
+
+    /** Product names feed the sales report too */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(ReportType.STOCK);
+        invalidate(ReportType.SALES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate(ReportType.SALES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPartyChanged(PartyChangedEvent event) {
+        if (PartyNameIndex.CUSTOMER.equals(event.getPartyType())) {
+            invalidate(ReportType.CUSTOMER);
+            invalidate(ReportType.SALES);
+        }
+    }
+
+    /** Drop cached reports of this type covering any of the dates (all of them when no date is given) */
+    void invalidate(ReportType type, LocalDate... dates) {
+        invalidations.incrementAndGet();
+        synchronized (cache) {
+            cache.values().removeIf(report -> report.type == type && covers(report, dates));
+        }
+    }
+
+    Object cached(String key) {
+        synchronized (cache) {
+            CachedReport report = cache.get(key);
+            return report != null ? report.result : null;
+        }
+    }
+
+    void cache(ReportJob job, Object result) {
+        synchronized (cache) {
+            cache.put(job.key, new CachedReport(job.type, job.from, job.to, result));
+        }
+    }
+
+    /** 🧹 Forget finished jobs nobody has collected */
+    @Scheduled(fixedDelayString = "${salesync.reports.job-sweep-ms:60000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private void run(ReportJob job) {
+        if (!job.start()) return; // cancelled while queued
+        long generation = invalidations.get();
+        long start = System.currentTimeMillis();
+        try {
+            Object result = switch (job.type) {
+                case SALES -> runSales(job);
+                case STOCK -> runSingle(job, productRepository::findAll);
+                case CUSTOMER -> runSingle(job, customerRepository::findAll);
+            };
+            if (job.complete(result, false)) {
+                if (invalidations.get() == generation) cache(job, result);
+                log.info("🗂️ Report job {} done: {} in {} ms", job.id, job.key, System.currentTimeMillis() - start);
+            }
+        } catch (InterruptedException | CancellationException e) {
+            Thread.currentThread().interrupt();
+            job.cancel();
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("❌ Report job {} failed: {}", job.id, cause.getMessage(), cause);
+            job.fail(cause.getMessage());
+        }
+    }
+
+    private Object runSales(ReportJob job) throws InterruptedException, ExecutionException {
+        List<Future<SalesReportService.SalesReport>> parts = new ArrayList<>();
+        try {
+            for (LocalDate[] chunk : chunks(job.from, job.to, chunkDays)) {
+                parts.add(chunkExecutor.submit(() -> {
+                    SalesReportService.SalesReport part = salesReportService.summarise(chunk[0], chunk[1]);
+                    job.chunksDone.incrementAndGet();
+                    return part;
+                }));
+            }
+            List<SalesReportService.SalesReport> reports = new ArrayList<>(parts.size());
+            for (Future<SalesReportService.SalesReport> part : parts) {
+                reports.add(part.get());
+            }
+            return SalesReportService.merge(reports);
+        } finally {
+            // No-op for finished chunks; stops the rest on cancel or failure
+            parts.forEach(part -> part.cancel(true));
+        }
+    }
+
+    private Object runSingle(ReportJob job, Supplier<Collection<?>> query) {
+        Collection<?> rows = query.get();
+        job.chunksDone.incrementAndGet();
+        return rows;
+    }
+
+    /** Split [from, to] into consecutive ranges of at most days days */
+    static List<LocalDate[]> chunks(LocalDate from, LocalDate to, int days) {
+        List<LocalDate[]> chunks = new ArrayList<>();
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(days)) {
+            LocalDate end = start.plusDays(days - 1L);
+            chunks.add(new LocalDate[] { start, end.isAfter(to) ? to : end });
+        }
+        return chunks;
+    }
+
+    /** Stock and customer reports list current rows whatever the range, so they share one key */
+    static String key(ReportType type, LocalDate from, LocalDate to) {
+        String name = type.name().toLowerCase();
+        return type == ReportType.SALES ? name + ":" + from + ":" + to : name;
+    }
+
+    private static boolean covers(CachedReport report, LocalDate[] dates) {
+        if (dates.length == 0) return true;
+        for (LocalDate date : dates) {
+            if (date != null && !date.isBefore(report.from) && !date.isAfter(report.to)) return true;
+        }
+        return false;
+    }
+
+    private static ThreadFactory threads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** 🗂️ One submitted report; status moves QUEUED → RUNNING → DONE / FAILED / CANCELLED */
+    @Getter
+    public static final class ReportJob {
+        private final String id;
+        private final String key;
+        private final ReportType type;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final int chunksTotal;
+        private final AtomicInteger chunksDone = new AtomicInteger();
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        private Status status = Status.QUEUED;
+        private boolean fromCache;
+        private String error;
+        private Object result;
+        private LocalDateTime finishedAt;
+        private volatile Future<?> future;
+
+        ReportJob(String id, String key, ReportType type, LocalDate from, LocalDate to, int chunksTotal) {
+            this.id = id;
+            this.key = key;
+            this.type = type;
+            this.from = from;
+            this.to = to;
+            this.chunksTotal = chunksTotal;
+        }
+
+        public synchronized Status getStatus() {
+            return status;
+        }
+
+        public synchronized Object getResult() {
+            return result;
+        }
+
+        /** 0-100, by chunks completed */
+        public int getProgress() {
+            Status current = getStatus();
+            if (current == Status.DONE) return 100;
+            return chunksTotal == 0 ? 0 : Math.min(100, chunksDone.get() * 100 / chunksTotal);
+        }
+
+        synchronized boolean start() {
+            if (status != Status.QUEUED) return false;
+            status = Status.RUNNING;
+            return true;
+        }
+
+        synchronized boolean complete(Object result, boolean fromCache) {
+            if (status.isFinished()) return false;
+            this.result = result;
+            this.fromCache = fromCache;
+            finish(Status.DONE);
+            return true;
+        }
+
+        synchronized void fail(String message) {
+            if (status.isFinished()) return;
+            this.error = message;
+            finish(Status.FAILED);
+        }
+
+        synchronized boolean cancel() {
+            if (status.isFinished()) return false;
+            finish(Status.CANCELLED);
+            return true;
+        }
+
+        private void finish(Status finalStatus) {
+            status = finalStatus;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+}
@@ -10,8 +10,8 @@ import com.business.salesync.models.*;
 import com.business.salesync.service.*;
 import com.business.salesync.repository.*;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
 import java.time.Year;
 
@@ -20,35 +20,33 @@ import java.time.Year;
 @RequiredArgsConstructor
 public class ReturnService {
 
-    private final ProductRepository productRepo;
-    private final CustomerLedgerRepository customerLedgerRepo;
-    private final SupplierLedgerRepository supplierLedgerRepo;
+    private final StockService stockService;
+    private final CostingService costingService;
+    private final LedgerService ledgerService;
     private final FinancialAccountService financialAccountService;
 
     /** ✅ Handles Sales Returns (Customer → Company) */
+    @Transactional
     public void processSalesReturn(SalesReturn salesReturn) {
         BigDecimal totalReturn = BigDecimal.ZERO;
+        // Returned units go back at the cost they were sold at
+        Map<Long, BigDecimal> soldAt = costingService.soldUnitCosts(
+                salesReturn.getSalesOrder() != null ? salesReturn.getSalesOrder().getId() : null);
 
         for (SalesReturnItem item : salesReturn.getItems()) {
             Product product = item.getProduct();
             if (product != null) {
-                int newStock = product.getQuantity() + item.getQuantityReturned();
-                product.setQuantity(newStock);
-                productRepo.save(product);
+                stockService.increment(product.getId(), item.getQuantityReturned(),
+                        StockMovement.Reason.SALE_RETURN, salesReturn.getReturnRefNo());
+                costingService.restore(product.getId(), item.getQuantityReturned(),
+                        soldAt.get(product.getId()), salesReturn.getReturnRefNo());
             }
             totalReturn = totalReturn.add(BigDecimal.valueOf(item.getUnitPrice() * item.getQuantityReturned()));
         }
 
         // ✅ Record in Customer Ledger
-        CustomerLedger ledger = new CustomerLedger();
-        ledger.setCustomer(salesReturn.getCustomer());
-        ledger.setTrnDate(LocalDateTime.now());
-        ledger.setTrnRefNo(salesReturn.getReturnRefNo());
-        ledger.setTrnType("SALE_RETURN");
-        ledger.setDebitAmount(0.0);
-        ledger.setCreditAmount(totalReturn.doubleValue());
-        ledger.setRemarks("Sales return processed");
-        customerLedgerRepo.save(ledger);
+        ledgerService.recordCustomerTransaction(salesReturn.getCustomer(), salesReturn.getReturnRefNo(),
+                "SALE_RETURN", 0.0, totalReturn.doubleValue(), "Sales return processed");
 
         // ✅ Record Financial Transaction
         financialAccountService.recordTransaction(
@@ -67,29 +65,27 @@ public class ReturnService {
     }
 
     /** ✅ Handles Purchase Returns (Company → Supplier) */
+    @Transactional
     public void processPurchaseReturn(PurchaseReturn purchaseReturn) {
         BigDecimal totalReturn = BigDecimal.ZERO;
 
         for (PurchaseReturnItem item : purchaseReturn.getItems()) {
             Product product = item.getProduct();
             if (product != null) {
-                int newStock = product.getQuantity() - item.getQuantityReturned();
-                product.setQuantity(newStock);
-                productRepo.save(product);
+                // Throws InsufficientStockException rather than letting stock go negative
+                stockService.decrement(product.getId(), item.getQuantityReturned(),
+                        StockMovement.Reason.PURCHASE_RETURN, purchaseReturn.getReturnRefNo());
+                // That receipt's cost layer goes back first, like a deleted purchase order
+                String poNumber = purchaseReturn.getPurchaseOrder() != null
+                        ? purchaseReturn.getPurchaseOrder().getPurchaseOrderNo() : null;
+                costingService.withdraw(product.getId(), item.getQuantityReturned(), poNumber);
             }
             totalReturn = totalReturn.add(BigDecimal.valueOf(item.getUnitCost() * item.getQuantityReturned()));
         }
 
         // ✅ Record in Supplier Ledger
-        SupplierLedger ledger = new SupplierLedger();
-        ledger.setSupplier(purchaseReturn.getSupplier());
-        ledger.setTrnDate(LocalDateTime.now());
-        ledger.setTrnRefNo(purchaseReturn.getReturnRefNo());
-        ledger.setTrnType("PURCHASE_RETURN");
-        ledger.setDebitAmount(totalReturn.doubleValue());
-        ledger.setCreditAmount(0.0);
-        ledger.setRemarks("Purchase return processed");
-        supplierLedgerRepo.save(ledger);
+        ledgerService.recordSupplierTransaction(purchaseReturn.getSupplier(), purchaseReturn.getReturnRefNo(),
+                "PURCHASE_RETURN", totalReturn.doubleValue(), 0.0, "Purchase return processed");
 
         // ✅ Record Financial Transaction
         financialAccountService.recordTransaction(
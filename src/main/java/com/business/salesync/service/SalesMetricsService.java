@@ -0,0 +1,176 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.business.salesync.event.SalesChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📈 Sales Metrics Service - today / this week / this month sales and the order count
+ * for the home dashboard, kept in memory.
+ *
+ * Sales are held in day buckets covering the current week and month. Order creates,
+ * edits, deletes and sales returns move amounts between buckets after commit
+ * (SalesChangedEvent), so the dashboard is served without aggregate queries.
+ * The buckets are seeded from the database at startup and re-checked periodically.
+ *
+ * Sales for a day = totalAmount of the live orders dated that day, less the sales
+ * returns made that day.
+ */
+@Service
+@Slf4j
+public class SalesMetricsService {
+
+    private static final double DRIFT_TOLERANCE = 0.005;
+
+    private static final String DAILY_SALES_SQL =
+            "SELECT d, SUM(amount) FROM (" +
+            "  SELECT date_ordered AS d, total_amount AS amount FROM orders WHERE deleted = 0 AND date_ordered >= ? " +
+            "  UNION ALL " +
+            "  SELECT DATE(return_date), -total_return_amount FROM sales_returns " +
+            "  WHERE return_date >= ? AND total_return_amount IS NOT NULL" +
+            ") x GROUP BY d";
+
+    private static final String ORDER_COUNT_SQL = "SELECT COUNT(*) FROM orders WHERE deleted = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guarded by this; dates before windowStart(today) are dropped
+    private final Map<LocalDate, BigDecimal> days = new HashMap<>();
+    private long orderCount;
+
+    public SalesMetricsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** 📊 Dashboard figures */
+    public record Totals(BigDecimal today, BigDecimal thisWeek, BigDecimal thisMonth, long orders) {}
+
+    public Totals totals() {
+        return totals(LocalDate.now());
+    }
+
+    synchronized Totals totals(LocalDate today) {
+        LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
+        LocalDate startOfMonth = today.withDayOfMonth(1);
+        BigDecimal week = BigDecimal.ZERO;
+        BigDecimal month = BigDecimal.ZERO;
+        for (Map.Entry<LocalDate, BigDecimal> day : days.entrySet()) {
+            LocalDate date = day.getKey();
+            if (date.isAfter(today)) continue; // post-dated orders count from their day on
+            if (!date.isBefore(startOfWeek)) week = week.add(day.getValue());
+            if (!date.isBefore(startOfMonth)) month = month.add(day.getValue());
+        }
+        return new Totals(days.getOrDefault(today, BigDecimal.ZERO), week, month, orderCount);
+    }
+
+    // ========================================
+    // ✏️ UPDATES
+    // ========================================
+
+    // Ahead of LiveEventService, which pushes the figures read from here
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSalesChanged(SalesChangedEvent event) {
+        apply(event, LocalDate.now());
+    }
+
+    synchronized void apply(SalesChangedEvent event, LocalDate today) {
+        LocalDate windowStart = windowStart(today);
+        if (event.getOldDate() != null && event.getOldAmount() != null && !event.getOldDate().isBefore(windowStart)) {
+            days.merge(event.getOldDate(), event.getOldAmount().negate(), BigDecimal::add);
+        }
+        if (event.getNewDate() != null && event.getNewAmount() != null && !event.getNewDate().isBefore(windowStart)) {
+            days.merge(event.getNewDate(), event.getNewAmount(), BigDecimal::add);
+        }
+        orderCount += event.getOrderDelta();
+        days.keySet().removeIf(date -> date.isBefore(windowStart));
+    }
+
+    // ========================================
+    // 🔁 SEEDING / RECONCILIATION
+    // ========================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    /**
+     * 🔁 Re-read the window from the database and replace the buckets, logging any drift.
+     * An order committed while this runs may be counted twice until the next pass.
+     */
+    @Scheduled(fixedDelayString = "${salesync.dashboard.reconcile-ms:600000}",
+               initialDelayString = "${salesync.dashboard.reconcile-ms:600000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        Date from = Date.valueOf(windowStart(today));
+
+        Map<LocalDate, BigDecimal> fresh = new HashMap<>();
+        jdbcTemplate.query(DAILY_SALES_SQL, rs -> {
+            BigDecimal amount = rs.getBigDecimal(2);
+            fresh.put(rs.getDate(1).toLocalDate(), amount != null ? amount : BigDecimal.ZERO);
+        }, from, from);
+        Long orders = jdbcTemplate.queryForObject(ORDER_COUNT_SQL, Long.class);
+
+        int drifted = load(fresh, orders != null ? orders : 0, today);
+        log.info("📈 Sales metrics reconciled: {} days, {} orders, {} drifted, in {} ms",
+                fresh.size(), orders, drifted, System.currentTimeMillis() - start);
+    }
+
+    /** Swap in database totals; returns how many figures differed from memory */
+    synchronized int load(Map<LocalDate, BigDecimal> fresh, long orders, LocalDate today) {
+        LocalDate windowStart = windowStart(today);
+        int drifted = 0;
+        Set<LocalDate> dates = new HashSet<>(fresh.keySet());
+        dates.addAll(days.keySet());
+        for (LocalDate date : dates) {
+            if (date.isBefore(windowStart)) continue;
+            BigDecimal had = days.getOrDefault(date, BigDecimal.ZERO);
+            BigDecimal actual = fresh.getOrDefault(date, BigDecimal.ZERO);
+            if (had.subtract(actual).abs().doubleValue() > DRIFT_TOLERANCE) {
+                if (!days.isEmpty()) {
+                    log.warn("⚠️ Sales drift on {}: {} in memory, {} in database", date, had, actual);
+                }
+                drifted++;
+            }
+        }
+        if (orderCount != orders) {
+            if (orderCount != 0) {
+                log.warn("⚠️ Order count drift: {} in memory, {} in database", orderCount, orders);
+            }
+            drifted++;
+        }
+        days.clear();
+        fresh.forEach((date, amount) -> {
+            if (!date.isBefore(windowStart)) days.put(date, amount);
+        });
+        orderCount = orders;
+        return drifted;
+    }
+
+    /** Earliest day the dashboard can ask for: start of this week or this month */
+    private static LocalDate windowStart(LocalDate today) {
+        LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
+        LocalDate startOfMonth = today.withDayOfMonth(1);
+        return startOfWeek.isBefore(startOfMonth) ? startOfWeek : startOfMonth;
+    }
+}
@@ -0,0 +1,158 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.dto.SalesReportLineDTO;
+import com.business.salesync.dto.SalesReportRowDTO;
+import com.business.salesync.models.OrderDetails;
+import com.business.salesync.models.Product;
+import com.business.salesync.repository.OrderDetailsRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📊 Sales Report Service - sales by day, product, category and customer for a date range.
+ *
+ * Each breakdown is one GROUP BY query returning compact rows; no order or line entity
+ * is loaded for the summary. Order lines are only fetched, a page at a time, when
+ * the user drills into a row. Soft-deleted orders are left out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesReportService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final OrderDetailsRepository orderDetailsRepository;
+
+    /** 📊 Summary figures and the four breakdowns */
+    public record SalesReport(List<SalesReportRowDTO> byDay,
+                              List<SalesReportRowDTO> byProduct,
+                              List<SalesReportRowDTO> byCategory,
+                              List<SalesReportRowDTO> byCustomer,
+                              long orders, long totalQuantity, BigDecimal totalSales, BigDecimal totalProfit) {}
+
+    @Transactional(readOnly = true)
+    public SalesReport summarise(LocalDate from, LocalDate to) {
+        long start = System.currentTimeMillis();
+        List<SalesReportRowDTO> byDay = orderDetailsRepository.salesByDay(from, to);
+
+        // An order has one date, so the day rows add up to the whole range
+        long orders = 0;
+        long quantity = 0;
+        BigDecimal sales = BigDecimal.ZERO;
+        BigDecimal profit = BigDecimal.ZERO;
+        for (SalesReportRowDTO day : byDay) {
+            orders += day.getOrders();
+            quantity += day.getQuantity();
+            sales = sales.add(day.getSales());
+            profit = profit.add(day.getProfit());
+        }
+
+        SalesReport report = new SalesReport(byDay,
+                orderDetailsRepository.salesByProduct(from, to),
+                orderDetailsRepository.salesByCategory(from, to),
+                orderDetailsRepository.salesByCustomer(from, to),
+                orders, quantity, sales, profit);
+        log.info("📊 Sales report {} → {}: {} orders, {} days in {} ms",
+                from, to, orders, byDay.size(), System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * 🧩 Combine reports of adjacent, non-overlapping date ranges into one.
+     * An order has a single date, so it is counted in exactly one part and
+     * per-row order counts can simply be added.
+     */
+    public static SalesReport merge(List<SalesReport> parts) {
+        List<SalesReportRowDTO> byDay = new ArrayList<>();
+        Map<Long, SalesReportRowDTO> byProduct = new HashMap<>();
+        Map<Long, SalesReportRowDTO> byCategory = new HashMap<>();
+        Map<Long, SalesReportRowDTO> byCustomer = new HashMap<>();
+        long orders = 0;
+        long quantity = 0;
+        BigDecimal sales = BigDecimal.ZERO;
+        BigDecimal profit = BigDecimal.ZERO;
+
+        for (SalesReport part : parts) {
+            byDay.addAll(part.byDay());
+            mergeRows(byProduct, part.byProduct());
+            mergeRows(byCategory, part.byCategory());
+            mergeRows(byCustomer, part.byCustomer());
+            orders += part.orders();
+            quantity += part.totalQuantity();
+            sales = sales.add(part.totalSales());
+            profit = profit.add(part.totalProfit());
+        }
+        byDay.sort(Comparator.comparing(SalesReportRowDTO::getDay));
+        return new SalesReport(byDay, bySalesDesc(byProduct), bySalesDesc(byCategory), bySalesDesc(byCustomer),
+                orders, quantity, sales, profit);
+    }
+
+    /** 🔍 One page of order lines behind a report row; null filters match everything */
+    @Transactional(readOnly = true)
+    public Page<SalesReportLineDTO> lines(LocalDate from, LocalDate to, Long productId, Long categoryId,
+                                          Long customerId, int page, int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return orderDetailsRepository.findSalesLines(from, to, productId, categoryId, customerId, pageable)
+                .map(SalesReportService::toLine);
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private static void mergeRows(Map<Long, SalesReportRowDTO> merged, List<SalesReportRowDTO> rows) {
+        for (SalesReportRowDTO row : rows) {
+            SalesReportRowDTO total = merged.get(row.getId());
+            if (total == null) {
+                merged.put(row.getId(), new SalesReportRowDTO(row.getId(), row.getLabel(), row.getCode(),
+                        row.getOrders(), row.getQuantity(), row.getSales(), row.getCost()));
+            } else {
+                total.setOrders(total.getOrders() + row.getOrders());
+                total.setQuantity(total.getQuantity() + row.getQuantity());
+                total.setSales(total.getSales().add(row.getSales()));
+                total.setCost(total.getCost().add(row.getCost()));
+            }
+        }
+    }
+
+    private static List<SalesReportRowDTO> bySalesDesc(Map<Long, SalesReportRowDTO> rows) {
+        List<SalesReportRowDTO> sorted = new ArrayList<>(rows.values());
+        sorted.sort(Comparator.comparing(SalesReportRowDTO::getSales).reversed());
+        return sorted;
+    }
+
+    private static SalesReportLineDTO toLine(OrderDetails d) {
+        Product product = d.getProduct();
+        BigDecimal quantity = BigDecimal.valueOf(d.getQuantity());
+        BigDecimal lineTotal = d.getUnitPrice().multiply(quantity);
+        BigDecimal cost = d.getCogsAmount() != null ? d.getCogsAmount() : BigDecimal.ZERO;
+        return SalesReportLineDTO.builder()
+                .orderId(d.getOrder().getId())
+                .invoiceNumber(d.getOrder().getInvoiceNumber())
+                .dateOrdered(d.getOrder().getDateOrdered())
+                .customerName(d.getOrder().getCustomer() != null ? d.getOrder().getCustomer().getName() : null)
+                .sku(product.getSku())
+                .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
+                .productName(product.getName())
+                .quantity(d.getQuantity())
+                .unitPrice(d.getUnitPrice())
+                .lineTotal(lineTotal)
+                .profit(lineTotal.subtract(cost))
+                .build();
+    }
+}
@@ -0,0 +1,215 @@
+package com.business.salesync.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.models.StockMovement;
+import com.business.salesync.models.StockMovement.Reason;
+import com.business.salesync.repository.StockMovementRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📒 Stock Journal Service - point-in-time stock from the movement journal.
+ *
+ * StockService appends a stock_movements row with every quantity change. A nightly job
+ * writes a stock_snapshots row for each product that moved since the last run, so stock
+ * at any time is the latest snapshot before it plus the few movements after; no order
+ * is ever replayed. The same job first compares the journal with products.quantity and
+ * appends a RECONCILE movement for any change made outside StockService (product form,
+ * manual SQL), so the journal and the live figure cannot drift apart for long.
+ *
+ * Snapshots stop short of the last few minutes (settle-seconds) so a slow transaction
+ * that has taken a movement id but not committed yet is never skipped.
+ */
+@Service
+@Slf4j
+public class StockJournalService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Journal balance per product: its latest snapshot plus every movement after it
+    private static final String BALANCE_SQL =
+            "SELECT p.id, p.quantity, COALESCE(s.quantity, 0) + COALESCE((" +
+            "  SELECT SUM(m.quantity_change) FROM stock_movements m " +
+            "  WHERE m.product_id = p.id AND m.id > COALESCE(s.last_movement_id, 0)), 0) " +
+            "FROM products p LEFT JOIN stock_snapshots s ON s.id = (" +
+            "  SELECT MAX(s2.id) FROM stock_snapshots s2 WHERE s2.product_id = p.id)";
+
+    // Products that moved since the previous run, rolled forward from their last snapshot.
+    // A movement can get a lower id than one stamped earlier, so a row is never dated
+    // before the latest movement it includes.
+    private static final String SNAPSHOT_SQL =
+            "INSERT INTO stock_snapshots (product_id, taken_at, last_movement_id, quantity) " +
+            "SELECT m.product_id, GREATEST(?, MAX(m.moved_at)), ?, COALESCE(s.quantity, 0) + SUM(m.quantity_change) " +
+            "FROM stock_movements m LEFT JOIN stock_snapshots s ON s.id = (" +
+            "  SELECT MAX(s2.id) FROM stock_snapshots s2 WHERE s2.product_id = m.product_id) " +
+            "WHERE m.id > ? AND m.id <= ? " +
+            "GROUP BY m.product_id, s.quantity";
+
+    private static final String QUANTITIES_AT_SQL =
+            "SELECT p.id, COALESCE(s.quantity, 0) + COALESCE((" +
+            "  SELECT SUM(m.quantity_change) FROM stock_movements m " +
+            "  WHERE m.product_id = p.id AND m.id > COALESCE(s.last_movement_id, 0) AND m.moved_at <= ?), 0) " +
+            "FROM products p LEFT JOIN stock_snapshots s ON s.id = (" +
+            "  SELECT MAX(s2.id) FROM stock_snapshots s2 WHERE s2.product_id = p.id AND s2.taken_at <= ?)";
+
+    private static final String JOURNAL_SQL =
+            "INSERT INTO stock_movements (product_id, quantity_change, reason, reference, moved_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockMovementRepository movementRepository;
+    private final long settleSeconds;
+
+    // Time of the first snapshot; nothing before it can be answered
+    private volatile LocalDateTime journalStart;
+
+    public StockJournalService(JdbcTemplate jdbcTemplate,
+                               StockMovementRepository movementRepository,
+                               @Value("${salesync.stock.snapshot-settle-seconds:300}") long settleSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movementRepository = movementRepository;
+        this.settleSeconds = settleSeconds;
+    }
+
+    /** 📜 Stock before and after a period with the movements in between */
+    public record MovementHistory(Long productId, LocalDateTime from, LocalDateTime to,
+                                  int openingQuantity, int closingQuantity, Page<StockMovement> movements) {}
+
+    // ========================================
+    // 📊 POINT-IN-TIME QUERIES
+    // ========================================
+
+    /** 📦 One product's quantity at a moment: its snapshot before then plus later movements */
+    @Transactional(readOnly = true)
+    public int quantityAt(Long productId, LocalDateTime at) {
+        checkCovered(at);
+        List<long[]> snapshot = jdbcTemplate.query(
+                "SELECT last_movement_id, quantity FROM stock_snapshots " +
+                "WHERE product_id = ? AND taken_at <= ? ORDER BY id DESC LIMIT 1",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)}, productId, Timestamp.valueOf(at));
+        long lastMovementId = snapshot.isEmpty() ? 0 : snapshot.get(0)[0];
+        long quantity = snapshot.isEmpty() ? 0 : snapshot.get(0)[1];
+
+        Long delta = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity_change), 0) FROM stock_movements " +
+                "WHERE product_id = ? AND id > ? AND moved_at <= ?",
+                Long.class, productId, lastMovementId, Timestamp.valueOf(at));
+        return (int) (quantity + (delta != null ? delta : 0));
+    }
+
+    /** 📦 Every product's quantity at a moment, by product id */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> quantitiesAt(LocalDateTime at) {
+        checkCovered(at);
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        Timestamp ts = Timestamp.valueOf(at);
+        jdbcTemplate.query(QUANTITIES_AT_SQL, rs -> {
+            quantities.put(rs.getLong(1), rs.getInt(2));
+        }, ts, ts);
+        return quantities;
+    }
+
+    /** 📜 Movements after `from` up to `to`, a page at a time, with the stock either side */
+    @Transactional(readOnly = true)
+    public MovementHistory history(Long productId, LocalDateTime from, LocalDateTime to, int page, int size) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End of period is before its start");
+        }
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return new MovementHistory(productId, from, to, quantityAt(productId, from), quantityAt(productId, to),
+                movementRepository.findHistory(productId, from, to, pageable));
+    }
+
+    // ========================================
+    // 🔁 SNAPSHOTS
+    // ========================================
+
+    /** First start with the journal: record opening stock and take the first snapshot now */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        Integer snapshots = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_snapshots", Integer.class);
+        if (snapshots != null && snapshots > 0) return;
+        LocalDateTime now = LocalDateTime.now();
+        reconcile(now);
+        snapshot(now);
+    }
+
+    /** 🌙 Nightly: correct the journal against products.quantity, then snapshot what moved */
+    @Scheduled(cron = "${salesync.stock.snapshot-cron:0 0 1 * * *}")
+    public void nightly() {
+        reconcile(LocalDateTime.now());
+        snapshot(LocalDateTime.now().minusSeconds(settleSeconds));
+    }
+
+    /**
+     * Append a RECONCILE movement for every product whose journal balance differs from
+     * products.quantity. Both figures come from one statement, so they agree on which
+     * commits they include. Returns how many products were corrected.
+     */
+    public int reconcile(LocalDateTime movedAt) {
+        long start = System.currentTimeMillis();
+        Timestamp ts = Timestamp.valueOf(movedAt);
+        List<Object[]> corrections = new ArrayList<>();
+        jdbcTemplate.query(BALANCE_SQL, rs -> {
+            int difference = (int) (rs.getInt(2) - rs.getLong(3));
+            if (difference != 0) {
+                corrections.add(new Object[]{rs.getLong(1), difference, Reason.RECONCILE.name(), null, ts});
+            }
+        });
+        if (!corrections.isEmpty()) {
+            jdbcTemplate.batchUpdate(JOURNAL_SQL, corrections);
+        }
+        log.info("📒 Stock journal reconciled: {} products corrected in {} ms",
+                corrections.size(), System.currentTimeMillis() - start);
+        return corrections.size();
+    }
+
+    /** Snapshot every product with movements up to takenAt that the last run did not cover */
+    public int snapshot(LocalDateTime takenAt) {
+        long start = System.currentTimeMillis();
+        Timestamp ts = Timestamp.valueOf(takenAt);
+        Long watermark = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM stock_movements WHERE moved_at <= ?", Long.class, ts);
+        Long previous = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(last_movement_id), 0) FROM stock_snapshots", Long.class);
+        if (watermark == null || watermark <= previous) return 0;
+
+        int written = jdbcTemplate.update(SNAPSHOT_SQL, ts, watermark, previous, watermark);
+        log.info("📸 Stock snapshot at {}: {} products up to movement {} in {} ms",
+                takenAt, written, watermark, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private void checkCovered(LocalDateTime at) {
+        LocalDateTime start = journalStart;
+        if (start == null) {
+            start = jdbcTemplate.queryForObject("SELECT MIN(taken_at) FROM stock_snapshots", LocalDateTime.class);
+            if (start == null) {
+                throw new IllegalStateException("Stock history is not available until the first snapshot is taken");
+            }
+            journalStart = start;
+        }
+        if (at.isBefore(start)) {
+            throw new IllegalArgumentException("Stock history starts at " + start);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.business.salesync.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.business.salesync.event.ProductChangedEvent;
+import com.business.salesync.event.StockChangedEvent;
+import com.business.salesync.event.StockThresholdEvent;
+import com.business.salesync.event.StockThresholdEvent.Level;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ⚠️ Stock Level Tracker - the low-stock and out-of-stock sets, kept in memory.
+ *
+ * Loaded once at startup, then only the products named by a stock or product commit
+ * are re-read, so the product list's counts and stock filters never scan the table.
+ * Out of stock is quantity <= 0; low stock is 0 < quantity <= min_stock_level.
+ * A product crossing between levels publishes a StockThresholdEvent.
+ */
+@Service
+@Slf4j
+public class StockLevelTracker {
+
+    private static final String SELECT_SQL = "SELECT id, quantity, min_stock_level FROM products";
+
+    public static final StockFilter ANY = new StockFilter("any", Set.of());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Level> levels = new ConcurrentHashMap<>();
+    private final Set<Long> low = ConcurrentHashMap.newKeySet();
+    private final Set<Long> out = ConcurrentHashMap.newKeySet();
+
+    public StockLevelTracker(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * A stock status filter. The repository applies the status (any, low, out, in) as a
+     * quantity condition in SQL; ids is the tracker's live set behind it, for filtering
+     * search hits in memory. Ids are never bound into a query, so no IN list grows with
+     * the catalogue.
+     */
+    public record StockFilter(String status, Set<Long> ids) {
+
+        public boolean matches(Long productId) {
+            switch (status) {
+                case "low":
+                case "out": return ids.contains(productId);
+                case "in": return !ids.contains(productId);
+                default: return true;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadAll() {
+        long start = System.currentTimeMillis();
+        levels.clear();
+        low.clear();
+        out.clear();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            apply(rs.getLong(1), rs.getInt(2), rs.getInt(3), false);
+        });
+        log.info("⚠️ Stock levels loaded for {} products in {} ms: {} low, {} out",
+                levels.size(), System.currentTimeMillis() - start, low.size(), out.size());
+    }
+
+    // ========================================
+    // 📊 COUNTS AND FILTERS
+    // ========================================
+
+    public int lowStockCount() {
+        return low.size();
+    }
+
+    public int outOfStockCount() {
+        return out.size();
+    }
+
+    public Set<Long> lowStockIds() {
+        return Collections.unmodifiableSet(low);
+    }
+
+    public Set<Long> outOfStockIds() {
+        return Collections.unmodifiableSet(out);
+    }
+
+    /** The product list's stockStatus parameter (low, out, in or blank) as a filter */
+    public StockFilter filter(String stockStatus) {
+        if (stockStatus == null) return ANY;
+        switch (stockStatus) {
+            case "low": return new StockFilter("low", lowStockIds());
+            case "out": return new StockFilter("out", outOfStockIds());
+            case "in": return new StockFilter("in", outOfStockIds());
+            default: return ANY;
+        }
+    }
+
+    // ========================================
+    // 🔔 DOMAIN EVENTS (after commit)
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        refresh(event.getProductIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            refresh(List.of(event.getProductId()));
+        }
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    /** Serialised so a slower re-read can never overwrite a newer one */
+    private synchronized void refresh(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) return;
+        String in = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query(SELECT_SQL + " WHERE id IN (" + in + ")", rs -> {
+            apply(rs.getLong(1), rs.getInt(2), rs.getInt(3), true);
+        }, productIds.toArray());
+    }
+
+    /** Move one product into the set for its level; true when its level changed */
+    synchronized boolean apply(long productId, int quantity, int minStockLevel, boolean publish) {
+        Level current = level(quantity, minStockLevel);
+        Level previous = levels.put(productId, current);
+        if (previous == current) return false;
+
+        low.remove(productId);
+        out.remove(productId);
+        if (current == Level.LOW) low.add(productId);
+        if (current == Level.OUT) out.add(productId);
+
+        // A new product arriving in stock is not a threshold crossing
+        if (publish && !(previous == null && current == Level.IN_STOCK)) {
+            eventPublisher.publishEvent(new StockThresholdEvent(productId, previous, current, quantity, minStockLevel));
+        }
+        return true;
+    }
+
+    synchronized void remove(Long productId) {
+        levels.remove(productId);
+        low.remove(productId);
+        out.remove(productId);
+    }
+
+    static Level level(int quantity, int minStockLevel) {
+        if (quantity <= 0) return Level.OUT;
+        if (quantity <= minStockLevel) return Level.LOW;
+        return Level.IN_STOCK;
+    }
+}
@@ -0,0 +1,266 @@
+package com.business.salesync.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.business.salesync.event.StockChangedEvent;
+import com.business.salesync.models.StockMovement.Reason;
+import com.business.salesync.models.StockReservation;
+import com.business.salesync.repository.StockReservationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 📦 Stock Service - every change to products.quantity goes through here.
+ *
+ * Stock is never read into Java, changed and saved back. Each change is a single
+ * conditional UPDATE, so two tills selling the last units of a SKU cannot both win,
+ * and the row lock is held only for the statement rather than a read-modify-write.
+ * Sellable stock is quantity - reserved_quantity; reservations let a cart hold
+ * units while the customer pays and expire on their own if the sale never happens.
+ * Every change to quantity also appends a row to the stock_movements journal in the
+ * same transaction, so past stock can be rebuilt (see StockJournalService).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockService {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET quantity = quantity - ?, updated_at = ? " +
+            "WHERE id = ? AND quantity - reserved_quantity >= ?";
+
+    // Consumes up to `reserved` units of the caller's own hold along with the sale
+    private static final String DECREMENT_WITH_RESERVED_SQL =
+            "UPDATE products SET quantity = quantity - ?, reserved_quantity = reserved_quantity - ?, updated_at = ? " +
+            "WHERE id = ? AND quantity - reserved_quantity + ? >= ?";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE products SET quantity = quantity + ?, updated_at = ? WHERE id = ?";
+
+    private static final String DECREMENT_UP_TO_SQL =
+            "UPDATE products SET quantity = GREATEST(quantity - ?, 0), updated_at = ? WHERE id = ?";
+
+    private static final String RESERVE_SQL =
+            "UPDATE products SET reserved_quantity = reserved_quantity + ? " +
+            "WHERE id = ? AND quantity - reserved_quantity >= ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE products SET reserved_quantity = GREATEST(reserved_quantity - ?, 0) WHERE id = ?";
+
+    private static final String JOURNAL_SQL =
+            "INSERT INTO stock_movements (product_id, quantity_change, reason, reference, moved_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${salesync.stock.reservation-ttl-seconds:300}")
+    private long reservationTtlSeconds;
+
+    /** ➖ Take qty units; fails instead of going below the unreserved stock */
+    @Transactional
+    public void decrement(Long productId, int qty, Reason reason, String reference) {
+        Timestamp now = now();
+        int updated = jdbcTemplate.update(DECREMENT_SQL, qty, now, productId, qty);
+        if (updated == 0) {
+            throw new InsufficientStockException(productId, qty);
+        }
+        journal(Map.of(productId, -qty), reason, reference, now);
+        changed(List.of(productId));
+    }
+
+    /**
+     * ➖ Take a whole basket in one JDBC batch. Units the cart reserved earlier are
+     * consumed first; if any line cannot be covered the caller's transaction rolls back.
+     */
+    @Transactional
+    public void decrementAll(Map<Long, Integer> quantities, String cartToken, Reason reason, String reference) {
+        if (quantities.isEmpty()) return;
+
+        Map<Long, Integer> held = claimReservations(cartToken);
+
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        List<Long> productIds = new ArrayList<>(quantities.size());
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        Timestamp now = now();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            int qty = line.getValue();
+            deltas.put(line.getKey(), -qty);
+            int reserved = Math.min(held.getOrDefault(line.getKey(), 0), qty);
+            held.computeIfPresent(line.getKey(), (id, h) -> h - reserved);
+            args.add(new Object[]{qty, reserved, now, line.getKey(), reserved, qty});
+            productIds.add(line.getKey());
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_WITH_RESERVED_SQL, args);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new InsufficientStockException(productIds.get(i), quantities.get(productIds.get(i)));
+            }
+        }
+
+        // Anything the cart held but did not buy goes back on the shelf
+        releaseHeld(held);
+        journal(deltas, reason, reference, now);
+        changed(productIds);
+    }
+
+    /** ➕ Put qty units back (sales return, purchase receipt) */
+    @Transactional
+    public void increment(Long productId, int qty, Reason reason, String reference) {
+        Timestamp now = now();
+        jdbcTemplate.update(INCREMENT_SQL, qty, now, productId);
+        journal(Map.of(productId, qty), reason, reference, now);
+        changed(List.of(productId));
+    }
+
+    /**
+     * ➕➖ Apply signed per-product deltas in one JDBC batch (sales order edit or delete
+     * putting back the old lines and taking the new ones). Unchecked, like the edit screen always was.
+     */
+    @Transactional
+    public void adjust(Map<Long, Integer> deltas, Reason reason, String reference) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        List<Long> productIds = new ArrayList<>(deltas.size());
+        Timestamp now = now();
+        deltas.forEach((productId, delta) -> {
+            if (delta != null && delta != 0) {
+                args.add(new Object[]{delta, now, productId});
+                productIds.add(productId);
+            }
+        });
+        if (args.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, args);
+        journal(deltas, reason, reference, now);
+        changed(productIds);
+    }
+
+    /**
+     * ➖ Remove up to qty units, stopping at zero (purchase order rollback). The row is
+     * locked first so the journal records how much actually came off.
+     */
+    @Transactional
+    public void decrementUpTo(Long productId, int qty, Reason reason, String reference) {
+        List<Integer> before = jdbcTemplate.queryForList(
+                "SELECT quantity FROM products WHERE id = ? FOR UPDATE", Integer.class, productId);
+        if (before.isEmpty()) return;
+
+        Timestamp now = now();
+        jdbcTemplate.update(DECREMENT_UP_TO_SQL, qty, now, productId);
+        int quantity = before.get(0);
+        journal(Map.of(productId, Math.max(quantity - qty, 0) - quantity), reason, reference, now);
+        changed(List.of(productId));
+    }
+
+    /** 📊 Sellable units per product, for the POS screen's live stock badges */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> availableQuantities() {
+        Map<Long, Integer> available = new HashMap<>();
+        jdbcTemplate.query("SELECT id, quantity - reserved_quantity FROM products",
+                rs -> { available.put(rs.getLong(1), rs.getInt(2)); });
+        return available;
+    }
+
+    // =======================
+    // 🛒 Cart reservations
+    // =======================
+
+    /** 🔒 Hold qty units for a cart until it checks out, is released, or expires */
+    @Transactional
+    public StockReservation reserve(String cartToken, Long productId, int qty) {
+        if (cartToken == null || cartToken.isBlank() || qty <= 0) {
+            throw new IllegalArgumentException("Cart token and a positive quantity are required");
+        }
+        int updated = jdbcTemplate.update(RESERVE_SQL, qty, productId, qty);
+        if (updated == 0) {
+            throw new InsufficientStockException(productId, qty);
+        }
+        changed(List.of(productId));
+        return reservationRepository.save(StockReservation.builder()
+                .cartToken(cartToken)
+                .productId(productId)
+                .quantity(qty)
+                .expiresAt(LocalDateTime.now().plusSeconds(reservationTtlSeconds))
+                .build());
+    }
+
+    /** 🔓 Drop every hold a cart has (cart cleared or abandoned) */
+    @Transactional
+    public void release(String cartToken) {
+        releaseHeld(claimReservations(cartToken));
+    }
+
+    /** ⏰ Sweep reservations whose cart never checked out */
+    @Scheduled(fixedDelayString = "${salesync.stock.reservation-sweep-ms:60000}")
+    @Transactional
+    public void releaseExpired() {
+        Map<Long, Integer> held = new HashMap<>();
+        for (StockReservation r : reservationRepository.findTop500ByExpiresAtBefore(LocalDateTime.now())) {
+            if (reservationRepository.claim(r.getId()) == 1) {
+                held.merge(r.getProductId(), r.getQuantity(), Integer::sum);
+            }
+        }
+        if (!held.isEmpty()) {
+            releaseHeld(held);
+            log.info("⏰ Released expired stock reservations for {} products", held.size());
+        }
+    }
+
+    private Map<Long, Integer> claimReservations(String cartToken) {
+        Map<Long, Integer> held = new HashMap<>();
+        if (cartToken == null || cartToken.isBlank()) return held;
+
+        for (StockReservation r : reservationRepository.findByCartToken(cartToken)) {
+            if (reservationRepository.claim(r.getId()) == 1) {
+                held.merge(r.getProductId(), r.getQuantity(), Integer::sum);
+            }
+        }
+        return held;
+    }
+
+    private void releaseHeld(Map<Long, Integer> held) {
+        List<Object[]> args = new ArrayList<>();
+        held.forEach((productId, qty) -> {
+            if (qty > 0) args.add(new Object[]{qty, productId});
+        });
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(RELEASE_SQL, args);
+            changed(new ArrayList<>(held.keySet()));
+        }
+    }
+
+    /** 📒 Append one movement per product with a non-zero change */
+    private void journal(Map<Long, Integer> deltas, Reason reason, String reference, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> {
+            if (delta != null && delta != 0) {
+                rows.add(new Object[]{productId, delta, reason.name(), reference, now});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(JOURNAL_SQL, rows);
+        }
+    }
+
+    private void changed(List<Long> productIds) {
+        eventPublisher.publishEvent(new StockChangedEvent(productIds));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
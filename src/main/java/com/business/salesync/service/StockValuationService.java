@@ -0,0 +1,256 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.business.salesync.event.ProductChangedEvent;
+import com.business.salesync.event.StockChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 💰 Stock Valuation Service - stock value at selling price and at cost, overall and
+ * per category and brand, kept as running totals.
+ *
+ * The last known quantity, prices, category and brand of every product are held in
+ * memory. A stock or product commit re-reads only the products involved and moves the
+ * difference between their old and new value into the totals, so the product list never
+ * sums the table. Only positive quantities count, as the old SUM query did.
+ * A nightly pass recomputes everything in SQL, logs any drift and reloads.
+ */
+@Service
+@Slf4j
+public class StockValuationService {
+
+    private static final double DRIFT_TOLERANCE = 0.005;
+
+    /** Key for products with no category or brand */
+    public static final long NONE = 0L;
+
+    private static final String SELECT_SQL =
+            "SELECT id, quantity, selling_price, cost_price, category_id, brand_id FROM products";
+
+    private static final String RECOMPUTE_SQL =
+            "SELECT category_id, brand_id, SUM(selling_price * quantity), SUM(cost_price * quantity) " +
+            "FROM products WHERE quantity > 0 GROUP BY category_id, brand_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guarded by this
+    private final Map<Long, Row> rows = new HashMap<>();
+    private final Sum total = new Sum();
+    private final Map<Long, Sum> byCategory = new HashMap<>();
+    private final Map<Long, Sum> byBrand = new HashMap<>();
+
+    public StockValuationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** 💰 Stock value of one group, or of everything */
+    public record Value(BigDecimal atSellingPrice, BigDecimal atCost) {}
+
+    /** 📊 Totals with the per-category and per-brand breakdowns (NONE = unassigned) */
+    public record Valuation(Value total, Map<Long, Value> byCategory, Map<Long, Value> byBrand) {}
+
+    /** What the totals know about one product */
+    record Row(long id, int quantity, BigDecimal sellingPrice, BigDecimal costPrice, Long categoryId, Long brandId) {}
+
+    public synchronized Value total() {
+        return total.value();
+    }
+
+    public synchronized Valuation valuation() {
+        return new Valuation(total.value(), values(byCategory), values(byBrand));
+    }
+
+    // ========================================
+    // ✏️ UPDATES
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        refresh(event.getProductIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            refresh(List.of(event.getProductId()));
+        }
+    }
+
+    /** Replace what is known about one product and move the difference into the totals */
+    synchronized void apply(Row row) {
+        Row previous = rows.put(row.id(), row);
+        if (previous != null) add(previous, -1);
+        add(row, 1);
+    }
+
+    synchronized void remove(Long productId) {
+        Row previous = rows.remove(productId);
+        if (previous != null) add(previous, -1);
+    }
+
+    // ========================================
+    // 🔁 SEEDING / VERIFICATION
+    // ========================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadAll() {
+        long start = System.currentTimeMillis();
+        rows.clear();
+        total.clear();
+        byCategory.clear();
+        byBrand.clear();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            apply(row(rs));
+        });
+        log.info("💰 Stock valuation loaded for {} products in {} ms: {} at selling price, {} at cost",
+                rows.size(), System.currentTimeMillis() - start, total.selling, total.cost);
+    }
+
+    /**
+     * 🔁 Recompute every figure in SQL, log the ones the running totals got wrong and
+     * reload if any did. The recompute runs outside the lock so readers and stock events
+     * are not kept waiting on it; a commit that lands before its event is applied shows
+     * up as drift, and the reload then picks it up from the database anyway.
+     */
+    @Scheduled(cron = "${salesync.stock.valuation-verify-cron:0 45 2 * * *}")
+    public void verify() {
+        long start = System.currentTimeMillis();
+        Sum freshTotal = new Sum();
+        Map<Long, Sum> freshCategories = new HashMap<>();
+        Map<Long, Sum> freshBrands = new HashMap<>();
+        jdbcTemplate.query(RECOMPUTE_SQL, rs -> {
+            BigDecimal selling = orZero(rs.getBigDecimal(3));
+            BigDecimal cost = orZero(rs.getBigDecimal(4));
+            freshTotal.add(selling, cost);
+            freshCategories.computeIfAbsent(key(rs, 1), k -> new Sum()).add(selling, cost);
+            freshBrands.computeIfAbsent(key(rs, 2), k -> new Sum()).add(selling, cost);
+        });
+
+        int drifted = drift(new Valuation(freshTotal.value(), values(freshCategories), values(freshBrands)));
+        if (drifted > 0) {
+            loadAll();
+        }
+        log.info("💰 Stock valuation verified: {} figures drifted, in {} ms", drifted, System.currentTimeMillis() - start);
+    }
+
+    /** How many figures differ from a full recompute, logging each one */
+    synchronized int drift(Valuation expected) {
+        int drifted = drifted("total", total.value(), expected.total()) ? 1 : 0;
+        drifted += drift("category", values(byCategory), expected.byCategory());
+        drifted += drift("brand", values(byBrand), expected.byBrand());
+        return drifted;
+    }
+
+    // ========================================
+    // 🛠️ PRIVATE HELPER METHODS
+    // ========================================
+
+    private synchronized void refresh(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) return;
+        String in = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query(SELECT_SQL + " WHERE id IN (" + in + ")", rs -> {
+            apply(row(rs));
+        }, productIds.toArray());
+    }
+
+    private void add(Row row, int sign) {
+        if (row.quantity() <= 0) return;
+        BigDecimal quantity = BigDecimal.valueOf((long) row.quantity() * sign);
+        BigDecimal selling = orZero(row.sellingPrice()).multiply(quantity);
+        BigDecimal cost = orZero(row.costPrice()).multiply(quantity);
+        total.add(selling, cost);
+        addTo(byCategory, row.categoryId() != null ? row.categoryId() : NONE, selling, cost);
+        addTo(byBrand, row.brandId() != null ? row.brandId() : NONE, selling, cost);
+    }
+
+    private static void addTo(Map<Long, Sum> sums, Long key, BigDecimal selling, BigDecimal cost) {
+        Sum sum = sums.computeIfAbsent(key, k -> new Sum());
+        sum.add(selling, cost);
+        if (sum.selling.signum() == 0 && sum.cost.signum() == 0) {
+            sums.remove(key);
+        }
+    }
+
+    private static int drift(String group, Map<Long, Value> have, Map<Long, Value> want) {
+        Set<Long> keys = new HashSet<>(have.keySet());
+        keys.addAll(want.keySet());
+        int drifted = 0;
+        for (Long key : keys) {
+            if (drifted(group + " " + key, have.get(key), want.get(key))) drifted++;
+        }
+        return drifted;
+    }
+
+    private static boolean drifted(String what, Value have, Value want) {
+        Value zero = new Value(BigDecimal.ZERO, BigDecimal.ZERO);
+        Value h = have != null ? have : zero;
+        Value w = want != null ? want : zero;
+        boolean drifted = h.atSellingPrice().subtract(w.atSellingPrice()).abs().doubleValue() > DRIFT_TOLERANCE
+                || h.atCost().subtract(w.atCost()).abs().doubleValue() > DRIFT_TOLERANCE;
+        if (drifted) {
+            log.warn("⚠️ Stock value drift on {}: {} / {} in memory, {} / {} in database",
+                    what, h.atSellingPrice(), h.atCost(), w.atSellingPrice(), w.atCost());
+        }
+        return drifted;
+    }
+
+    private static Map<Long, Value> values(Map<Long, Sum> sums) {
+        Map<Long, Value> values = new HashMap<>();
+        sums.forEach((key, sum) -> values.put(key, sum.value()));
+        return values;
+    }
+
+    private static Row row(ResultSet rs) throws SQLException {
+        return new Row(rs.getLong(1), rs.getInt(2), rs.getBigDecimal(3), rs.getBigDecimal(4),
+                rs.getObject(5, Long.class), rs.getObject(6, Long.class));
+    }
+
+    private static Long key(ResultSet rs, int column) throws SQLException {
+        Long id = rs.getObject(column, Long.class);
+        return id != null ? id : NONE;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /** Running pair of sums; only touched under the service lock */
+    private static final class Sum {
+        BigDecimal selling = BigDecimal.ZERO;
+        BigDecimal cost = BigDecimal.ZERO;
+
+        void add(BigDecimal sellingDelta, BigDecimal costDelta) {
+            selling = selling.add(sellingDelta);
+            cost = cost.add(costDelta);
+        }
+
+        void clear() {
+            selling = BigDecimal.ZERO;
+            cost = BigDecimal.ZERO;
+        }
+
+        Value value() {
+            return new Value(selling, cost);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.business.salesync.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * ⚖️ Weighted average: every unit leaves at products.cost_price. The average itself is
+ * moved on each purchase receipt by PurchaseOrderController, so receipts, returns and
+ * withdrawals need nothing more here.
+ */
+final class WeightedAverageCosting implements CostingMethod {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    WeightedAverageCosting(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<Long, BigDecimal> issue(Map<Long, Integer> quantities) {
+        return currentCosts(quantities.keySet());
+    }
+
+    @Override
+    public void receive(Long productId, int qty, BigDecimal unitCost, String reference) {
+    }
+
+    @Override
+    public void restore(Long productId, int qty, BigDecimal unitCost, String reference) {
+    }
+
+    @Override
+    public void withdraw(Long productId, int qty, String reference) {
+    }
+
+    /** products.cost_price per product, zero when not set */
+    Map<Long, BigDecimal> currentCosts(Collection<Long> productIds) {
+        Map<Long, BigDecimal> costs = new HashMap<>();
+        if (productIds.isEmpty()) return costs;
+        String in = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query("SELECT id, cost_price FROM products WHERE id IN (" + in + ")", rs -> {
+            BigDecimal cost = rs.getBigDecimal(2);
+            costs.put(rs.getLong(1), (cost != null ? cost : BigDecimal.ZERO).setScale(4, RoundingMode.HALF_UP));
+        }, productIds.toArray());
+        productIds.forEach(id -> costs.putIfAbsent(id, BigDecimal.ZERO.setScale(4)));
+        return costs;
+    }
+}
@@ -0,0 +1,150 @@
+package com.business.salesync.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * 📗 XLSX through POI's streaming workbook.
+ *
+ * Only the last {@link #ROW_WINDOW} rows stay on the heap; older rows are flushed to a
+ * compressed temp file and zipped into the response when the export finishes. A sheet
+ * holds at most 1,048,576 rows, so larger exports continue on "Sheet 2", "Sheet 3", ...
+ * each with its own header row.
+ */
+final class XlsxExportWriter implements ExportWriter {
+
+    static final int ROW_WINDOW = 100;
+
+    private final OutputStream out;
+    private final String sheetName;
+    private final int maxRowsPerSheet;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    private final CellStyle dateStyle;
+    private final CellStyle dateTimeStyle;
+    private final CellStyle amountStyle;
+
+    private List<String> columns = List.of();
+    private SXSSFSheet sheet;
+    private int sheetCount;
+    private int nextRow;
+
+    XlsxExportWriter(OutputStream out, String sheetName) {
+        this(out, sheetName, SpreadsheetVersion.EXCEL2007.getMaxRows());
+    }
+
+    XlsxExportWriter(OutputStream out, String sheetName, int maxRowsPerSheet) {
+        this.out = out;
+        this.sheetName = sheetName;
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(bold);
+        short dateFormat = workbook.createDataFormat().getFormat("yyyy-mm-dd");
+        dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(dateFormat);
+        short dateTimeFormat = workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss");
+        dateTimeStyle = workbook.createCellStyle();
+        dateTimeStyle.setDataFormat(dateTimeFormat);
+        short amountFormat = workbook.createDataFormat().getFormat("#,##0.00");
+        amountStyle = workbook.createCellStyle();
+        amountStyle.setDataFormat(amountFormat);
+    }
+
+    @Override
+    public void header(List<String> columns) {
+        this.columns = columns;
+        newSheet();
+    }
+
+    @Override
+    public void row(Object[] values) {
+        if (sheet == null || nextRow >= maxRowsPerSheet) {
+            newSheet();
+        }
+        Row row = sheet.createRow(nextRow++);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                writeCell(row.createCell(i), values[i]);
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (sheet == null) {
+            newSheet();
+        }
+        try {
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose(); // delete the temp files
+            workbook.close();
+        }
+    }
+
+    int sheetCount() {
+        return sheetCount;
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + " " + sheetCount);
+        nextRow = 0;
+        if (!columns.isEmpty()) {
+            Row row = sheet.createRow(nextRow++);
+            for (int i = 0; i < columns.size(); i++) {
+                Cell cell = row.createCell(i);
+                cell.setCellValue(columns.get(i));
+                cell.setCellStyle(headerStyle);
+            }
+            sheet.createFreezePane(0, 1);
+        }
+    }
+
+    private void writeCell(Cell cell, Object value) {
+        if (value instanceof BigDecimal d) {
+            cell.setCellValue(d.doubleValue());
+            cell.setCellStyle(amountStyle);
+        } else if (value instanceof Double || value instanceof Float) {
+            cell.setCellValue(((Number) value).doubleValue());
+            cell.setCellStyle(amountStyle);
+        } else if (value instanceof Number n) {
+            cell.setCellValue(n.doubleValue());
+        } else if (value instanceof Timestamp t) {
+            cell.setCellValue(t.toLocalDateTime());
+            cell.setCellStyle(dateTimeStyle);
+        } else if (value instanceof LocalDateTime t) {
+            cell.setCellValue(t);
+            cell.setCellStyle(dateTimeStyle);
+        } else if (value instanceof java.sql.Date d) {
+            cell.setCellValue(d.toLocalDate());
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof LocalDate d) {
+            cell.setCellValue(d);
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof Boolean b) {
+            cell.setCellValue(b);
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+}
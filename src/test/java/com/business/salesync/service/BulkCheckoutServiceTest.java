@@ -0,0 +1,58 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.business.salesync.dto.BulkCheckoutResultDTO;
+import com.business.salesync.dto.BulkCheckoutResultDTO.Status;
+import com.business.salesync.dto.CheckoutDTO;
+import com.business.salesync.models.SalesOrder;
+
+/**
+ * Bulk results line up with the submitted sales even when a chunk is replayed.
+ * Pure in-memory, no database needed.
+ */
+class BulkCheckoutServiceTest {
+
+    private int submitted;
+
+    @Test
+    void resultsComeBackInSubmissionOrder() {
+        CheckoutService checkout = new CheckoutService(null, null, null, null, null, null, null, null, null, null, null, null) {
+            @Override
+            public SalesOrder checkout(CheckoutDTO sale) {
+                if (sale.getIdempotencyKey().equals("bad")) throw new IllegalStateException("Insufficient stock");
+                SalesOrder order = new SalesOrder();
+                order.setId((long) sale.getInvoiceNumber().hashCode());
+                order.setInvoiceNumber(sale.getInvoiceNumber());
+                return order;
+            }
+        };
+        IdempotencyService idempotency = new IdempotencyService(null) {
+            @Override
+            public Optional<Long> find(String scope, String key) {
+                return key.equals("seen") ? Optional.of(99L) : Optional.empty();
+            }
+        };
+        BulkCheckoutService service = new BulkCheckoutService(checkout, idempotency, new NoTransactions(), 2);
+
+        // Chunks are [a, bad] and [d]; the first rolls back and is replayed one sale at a time
+        List<BulkCheckoutResultDTO> results = service.process(List.of(
+                sale("a"), sale("seen"), sale("bad"), sale(null), sale("d")));
+
+        assertEquals(List.of(Status.CREATED, Status.DUPLICATE, Status.FAILED, Status.FAILED, Status.CREATED),
+                results.stream().map(BulkCheckoutResultDTO::getStatus).toList());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals("INV-" + i, results.get(i).getInvoiceNumber());
+        }
+    }
+
+    private CheckoutDTO sale(String key) {
+        return CheckoutDTO.builder().idempotencyKey(key).invoiceNumber("INV-" + submitted++).build();
+    }
+}
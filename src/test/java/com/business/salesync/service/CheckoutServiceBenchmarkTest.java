@@ -0,0 +1,161 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.business.salesync.dto.CheckoutDTO;
+import com.business.salesync.dto.CheckoutItemDTO;
+import com.business.salesync.models.Customer;
+import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.models.Product;
+import com.business.salesync.models.SalesOrder;
+import com.business.salesync.repository.CustomerRepository;
+import com.business.salesync.repository.FinancialAccountRepository;
+import com.business.salesync.repository.ProductRepository;
+
+/**
+ * Statements and latency per checkout against basket size.
+ *
+ * Needs a scratch MySQL schema (it commits real orders), so it only runs with
+ * -Dsalesync.benchmark=true. Statement counts come from the server's global
+ * "Questions" counter, so nothing else should be talking to that server.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "salesync.benchmark", matches = "true")
+class CheckoutServiceBenchmarkTest {
+
+    private static final int[] BASKET_SIZES = {1, 5, 10, 30, 60};
+    private static final int RUNS_PER_SIZE = 20;
+    private static final String ACCOUNT_NAME = "Benchmark Till";
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private FinancialAccountRepository financialAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void statementsAndLatencyPerBasketSize() {
+        long runId = System.currentTimeMillis();
+        Customer customer = createCustomer(runId);
+        ensureAccount();
+        List<Product> products = createProducts(runId, BASKET_SIZES[BASKET_SIZES.length - 1]);
+
+        Map<Integer, Long> statementsBySize = new LinkedHashMap<>();
+        System.out.println("basket_size, statements_per_checkout, avg_ms, max_ms");
+
+        for (int size : BASKET_SIZES) {
+            long totalStatements = 0;
+            long totalNanos = 0;
+            long maxNanos = 0;
+
+            for (int run = 0; run < RUNS_PER_SIZE; run++) {
+                CheckoutDTO request = basket(customer, products.subList(0, size), "BENCH-" + runId + "-" + size + "-" + run);
+
+                long before = questions();
+                long start = System.nanoTime();
+                SalesOrder order = checkoutService.checkout(request);
+                long elapsed = System.nanoTime() - start;
+                long after = questions();
+                assertEquals(size, order.getOrderDetails().size(), "returned order should carry its lines");
+
+                totalStatements += after - before - 1; // minus the probe itself
+                totalNanos += elapsed;
+                maxNanos = Math.max(maxNanos, elapsed);
+            }
+
+            long statements = totalStatements / RUNS_PER_SIZE;
+            statementsBySize.put(size, statements);
+            System.out.printf("%d, %d, %.2f, %.2f%n", size, statements,
+                    totalNanos / (RUNS_PER_SIZE * 1_000_000.0), maxNanos / 1_000_000.0);
+        }
+
+        // The old per-line pipeline issued at least two statements per line
+        int largest = BASKET_SIZES[BASKET_SIZES.length - 1];
+        assertTrue(statementsBySize.get(largest) < statementsBySize.get(BASKET_SIZES[0]) + largest,
+                "statement count should not grow with every basket line: " + statementsBySize);
+    }
+
+    private CheckoutDTO basket(Customer customer, List<Product> lines, String invoiceNumber) {
+        List<CheckoutItemDTO> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Product p : lines) {
+            items.add(CheckoutItemDTO.builder().productId(p.getId()).quantity(1).unitPrice(p.getSellingPrice()).build());
+            total = total.add(p.getSellingPrice());
+        }
+        return CheckoutDTO.builder()
+                .invoiceNumber(invoiceNumber)
+                .customerId(customer.getId())
+                .subTotal(total)
+                .discount(BigDecimal.ZERO)
+                .grandTotal(total)
+                .amountPaid(total)
+                .amountDue(BigDecimal.ZERO)
+                .paymentMethod("CASH")
+                .finAccName(ACCOUNT_NAME)
+                .items(items)
+                .build();
+    }
+
+    private long questions() {
+        return Long.parseLong(jdbcTemplate.queryForMap("SHOW GLOBAL STATUS LIKE 'Questions'").get("Value").toString());
+    }
+
+    private Customer createCustomer(long runId) {
+        Customer customer = new Customer();
+        customer.setName("Benchmark Customer " + runId);
+        customer.setPhoneNumber("0000" + runId);
+        customer.setEmail("bench" + runId + "@example.com");
+        customer.setAddress("Benchmark");
+        return customerRepository.save(customer);
+    }
+
+    private void ensureAccount() {
+        if (financialAccountRepository.findByFinAccNameIgnoreCase(ACCOUNT_NAME).isEmpty()) {
+            financialAccountRepository.save(FinancialAccount.builder()
+                    .finAccId("FIN-BENCH-1")
+                    .finAccName(ACCOUNT_NAME)
+                    .finAccType("CASH")
+                    .openingBalance(0.0)
+                    .currentBalance(0.0)
+                    .build());
+        }
+    }
+
+    private List<Product> createProducts(long runId, int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .sku("BENCH-" + runId + "-" + i)
+                    .barcode("BENCH-" + runId + "-" + i)
+                    .name("Benchmark Product " + i)
+                    .costPrice(new BigDecimal("5.00"))
+                    .sellingPrice(new BigDecimal("10.00"))
+                    .quantity(1_000_000)
+                    .minStockLevel(0)
+                    .build());
+        }
+        return productRepository.saveAll(products);
+    }
+}
@@ -0,0 +1,101 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.business.salesync.models.OrderDetails;
+import com.business.salesync.models.Product;
+import com.business.salesync.service.FifoCosting.Layer;
+import com.business.salesync.service.FifoCosting.Taken;
+
+/**
+ * FIFO layer consumption and the cost frozen onto order lines.
+ * Pure in-memory, no database needed.
+ */
+class CostingServiceTest {
+
+    @Test
+    void fifoUsesOldestLayersFirst() {
+        List<Layer> open = List.of(
+                new Layer(1, new BigDecimal("2.00"), 3, "PO-1"),
+                new Layer(2, new BigDecimal("2.50"), 5, "PO-2"),
+                new Layer(3, new BigDecimal("3.00"), 4, "PO-3"));
+
+        Taken taken = FifoCosting.take(open, 6);
+
+        // 3 x 2.00 + 3 x 2.50
+        assertEquals(0, new BigDecimal("13.50").compareTo(taken.cost()));
+        assertEquals(0, taken.shortBy());
+        assertEquals(0, open.get(0).remaining);
+        assertEquals(2, open.get(1).remaining);
+        assertEquals(4, open.get(2).remaining);
+        assertTrue(open.get(1).taken);
+        assertFalse(open.get(2).taken);
+    }
+
+    @Test
+    void fifoReportsUnitsWithNoLayer() {
+        List<Layer> open = List.of(
+                new Layer(1, new BigDecimal("2.00"), 0, "PO-1"),
+                new Layer(2, new BigDecimal("4.00"), 2, "PO-2"));
+
+        Taken taken = FifoCosting.take(open, 5);
+
+        assertEquals(0, new BigDecimal("8.00").compareTo(taken.cost()));
+        assertEquals(3, taken.shortBy());
+        assertFalse(open.get(0).taken);
+    }
+
+    @Test
+    void purchaseReturnTakesFromItsOwnReceiptFirst() {
+        List<Layer> open = List.of(
+                new Layer(1, new BigDecimal("2.00"), 5, "PO-1"),
+                new Layer(2, new BigDecimal("3.00"), 4, "PO-2"));
+
+        // Returning 3 units of the second receipt leaves the older one untouched
+        Taken taken = FifoCosting.take(FifoCosting.preferring(open, "PO-2"), 3);
+
+        assertEquals(0, new BigDecimal("9.00").compareTo(taken.cost()));
+        assertEquals(5, open.get(0).remaining);
+        assertEquals(1, open.get(1).remaining);
+        assertFalse(open.get(0).taken);
+
+        // More than that receipt still holds spills over to the oldest layer
+        FifoCosting.take(FifoCosting.preferring(open, "PO-2"), 3);
+        assertEquals(0, open.get(1).remaining);
+        assertEquals(3, open.get(0).remaining);
+
+        // No receipt named: plain FIFO
+        assertEquals(open, FifoCosting.preferring(open, null));
+    }
+
+    @Test
+    void everyLineOfAProductGetsItsUnitCost() {
+        OrderDetails first = line(1L, 2);
+        OrderDetails second = line(1L, 3);
+        OrderDetails unknown = line(9L, 1);
+
+        CostingService.assign(List.of(first, second, unknown), Map.of(1L, new BigDecimal("2.3333")));
+
+        assertEquals(new BigDecimal("2.3333"), first.getUnitCost());
+        assertEquals(new BigDecimal("4.67"), first.getCogsAmount());
+        assertEquals(new BigDecimal("7.00"), second.getCogsAmount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(unknown.getCogsAmount()));
+    }
+
+    private static OrderDetails line(Long productId, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        OrderDetails line = new OrderDetails();
+        line.setProduct(product);
+        line.setQuantity(quantity);
+        return line;
+    }
+}
@@ -0,0 +1,84 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.business.salesync.service.DocumentNumberService.DocumentType;
+
+/**
+ * The first block of a day continues after numbers that already exist.
+ * Runs against an in-memory stand-in for document_sequences; no database needed.
+ */
+class DocumentNumberServiceTest {
+
+    private static final String TODAY = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+
+    @Test
+    void dayWithExistingDocumentsContinuesAfterTheHighestNumber() {
+        FakeSequences db = new FakeSequences();
+        db.lastIssued.put("INV-" + TODAY, 41L);                // issued earlier today by the old generator
+        DocumentNumberService service = new DocumentNumberService(db, new NoTransactions(), 2);
+
+        assertEquals("INV-" + TODAY + "-0042", service.next(DocumentType.SALE_INVOICE));
+        assertEquals("INV-" + TODAY + "-0043", service.next(DocumentType.SALE_INVOICE));
+        assertEquals("INV-" + TODAY + "-0044", service.next(DocumentType.SALE_INVOICE));   // second block
+
+        // Existing documents are looked at only when the day's counter is created
+        assertEquals(1, db.lastIssuedQueries);
+    }
+
+    @Test
+    void emptyDayStartsAtOne() {
+        FakeSequences db = new FakeSequences();
+        DocumentNumberService service = new DocumentNumberService(db, new NoTransactions(), 20);
+
+        assertEquals("PO-" + TODAY + "-001", service.next(DocumentType.PURCHASE_ORDER));
+        assertEquals("PAY-" + TODAY + "-0001", service.next(DocumentType.PAYMENT));
+    }
+
+    /** document_sequences upsert and LAST_INSERT_ID, plus a fixed highest number per day */
+    private static final class FakeSequences extends JdbcTemplate {
+        final Map<String, Long> sequences = new HashMap<>();
+        final Map<String, Long> lastIssued = new HashMap<>();
+        int lastIssuedQueries;
+        long lastInsertId;
+
+        @Override
+        public int update(String sql, Object... args) {
+            String seqKey = (String) args[0];
+            Long current = sequences.get(seqKey);
+            lastInsertId = current == null
+                    ? 1 + ((Number) args[1]).longValue()
+                    : current + ((Number) args[2]).longValue();
+            sequences.put(seqKey, lastInsertId);
+            return 1;
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            Object result;
+            if (sql.contains("COUNT(*)")) {
+                result = sequences.containsKey((String) args[0]) ? 1 : 0;
+            } else if (sql.contains("MAX(")) {
+                lastIssuedQueries++;
+                String like = (String) args[1];
+                result = lastIssued.getOrDefault(like.substring(0, like.length() - 2), 0L);
+            } else {
+                throw new IllegalArgumentException(sql);
+            }
+            return requiredType.cast(result);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            return requiredType.cast(lastInsertId);       // SELECT LAST_INSERT_ID()
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * CSV cells are quoted and leading =, +, - and @ are defused; XLSX rolls over
+ * to a new sheet once one is full. The million-row heap check needs
+ * -Dsalesync.benchmark=true.
+ */
+class ExportWritersTest {
+
+    private static final int MILLION = 1_000_000;
+
+    @Test
+    void csvQuotesAndDefusesFormulas() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvExportWriter writer = new CsvExportWriter(out);
+        writer.header(List.of("Date", "Party", "Amount", "Remarks"));
+        writer.row(new Object[] {LocalDateTime.of(2025, 3, 1, 9, 30), "Rahim \"Big\" Traders, Dhaka",
+                new BigDecimal("1250.50"), "=HYPERLINK(\"x\")"});
+        writer.row(new Object[] {LocalDate.of(2025, 3, 2), null, -20.0, "line1\nline2"});
+        writer.finish();
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals("\uFEFF" +
+                "Date,Party,Amount,Remarks\r\n" +
+                "2025-03-01 09:30:00,\"Rahim \"\"Big\"\" Traders, Dhaka\",1250.50,\"'=HYPERLINK(\"\"x\"\")\"\r\n" +
+                "2025-03-02,,-20.0,\"line1\nline2\"\r\n", csv);
+    }
+
+    @Test
+    void xlsxContinuesOnANewSheetWhenOneIsFull() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XlsxExportWriter writer = new XlsxExportWriter(out, "Payments", 4);
+        writer.header(List.of("No", "Amount"));
+        for (int i = 1; i <= 7; i++) {
+            writer.row(new Object[] {"PAY-" + i, new BigDecimal(i * 10)});
+        }
+        writer.finish();
+
+        assertEquals(3, writer.sheetCount());
+        try (XSSFWorkbook book = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("Payments", book.getSheetName(0));
+            assertEquals("Payments 3", book.getSheetName(2));
+            assertEquals("No", book.getSheetAt(1).getRow(0).getCell(0).getStringCellValue());
+            assertEquals("PAY-4", book.getSheetAt(1).getRow(1).getCell(0).getStringCellValue());
+            assertEquals(70.0, book.getSheetAt(2).getRow(1).getCell(1).getNumericCellValue());
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "salesync.benchmark", matches = "true")
+    void millionRowCsvKeepsHeapFlat() throws Exception {
+        CountingStream sink = new CountingStream();
+        CsvExportWriter writer = new CsvExportWriter(sink);
+        writer.header(List.of("Date", "Reference", "Customer", "Debit", "Credit", "Balance"));
+
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long before = rt.totalMemory() - rt.freeMemory();
+        long start = System.nanoTime();
+        LocalDateTime day = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < MILLION; i++) {
+            writer.row(new Object[] {day.plusMinutes(i), "INV-" + i, "Customer " + (i % 5000),
+                    new BigDecimal(i % 10_000).movePointLeft(2), 0.0, (double) i});
+        }
+        writer.finish();
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long after = rt.totalMemory() - rt.freeMemory();
+
+        assertTrue(sink.count > 50L * MILLION);
+        // Nothing of the million rows is retained once written
+        assertTrue(after - before < 16L << 20, "retained " + ((after - before) >> 20) + " MB after writing "
+                + (sink.count >> 20) + " MB in " + ms + " ms");
+    }
+
+    /** Discards the bytes, like a socket to a fast client */
+    private static final class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
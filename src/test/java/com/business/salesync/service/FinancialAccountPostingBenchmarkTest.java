@@ -0,0 +1,95 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.repository.FinancialAccountRepository;
+
+/**
+ * Concurrent payments into one hot account. Checks that no posting is lost and that
+ * the balance_after_trn values form an unbroken running total; reports postings/s.
+ *
+ * Needs a scratch MySQL schema, so it only runs with -Dsalesync.benchmark=true.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "salesync.benchmark", matches = "true")
+class FinancialAccountPostingBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int PAYMENTS_PER_THREAD = 50;
+    private static final double AMOUNT = 10.0;
+
+    @Autowired
+    private FinancialAccountService financialAccountService;
+
+    @Autowired
+    private FinancialAccountRepository financialAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentPaymentsIntoOneAccount() throws Exception {
+        String accountName = "Bench Till " + System.currentTimeMillis();
+        financialAccountRepository.save(FinancialAccount.builder()
+                .finAccId("FIN-BENCH-" + System.nanoTime())
+                .finAccName(accountName)
+                .finAccType("CASH")
+                .openingBalance(0.0)
+                .currentBalance(0.0)
+                .build());
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                start.await();
+                for (int n = 0; n < PAYMENTS_PER_THREAD; n++) {
+                    financialAccountService.recordTransaction(accountName, "CASH", AMOUNT, "CASH_IN",
+                            "PAYMENT", "CUSTOMER", "Bench", "BENCH-" + thread + "-" + n, null,
+                            "benchmark", "PAID");
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+        int postings = THREADS * PAYMENTS_PER_THREAD;
+        double expected = postings * AMOUNT;
+
+        Double master = jdbcTemplate.queryForObject(
+                "SELECT current_balance FROM app_acct_financial_accounts WHERE fin_acc_name = ? ORDER BY id LIMIT 1",
+                Double.class, accountName);
+        assertEquals(expected, master, 0.0001, "lost balance updates");
+
+        // Every entry's balance_after_trn must be a distinct step of the running total
+        List<Double> after = jdbcTemplate.queryForList(
+                "SELECT balance_after_trn FROM app_acct_financial_accounts " +
+                "WHERE fin_acc_name = ? AND trn_ref_no IS NOT NULL ORDER BY balance_after_trn",
+                Double.class, accountName);
+        assertEquals(postings, after.size());
+        for (int i = 0; i < after.size(); i++) {
+            assertEquals((i + 1) * AMOUNT, after.get(i), 0.0001, "balance_after_trn out of sequence");
+        }
+
+        System.out.printf("postings: %d threads, %d payments into one account, %.2fs, %.0f payments/s%n",
+                THREADS, postings, seconds, postings / seconds);
+    }
+}
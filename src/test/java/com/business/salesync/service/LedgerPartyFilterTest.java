@@ -0,0 +1,106 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.business.salesync.dto.LedgerSummaryDTO;
+import com.business.salesync.models.Customer;
+import com.business.salesync.models.FinancialAccount;
+import com.business.salesync.repository.CustomerRepository;
+import com.business.salesync.repository.FinancialAccountRepository;
+
+/**
+ * A customer name filter finds the customer's linked postings and the postings with no
+ * customer id that carry the name, in the ledger rows, the totals, the receivable and
+ * the opening balance read from month-end snapshots.
+ *
+ * Needs a scratch MySQL schema (it rebuilds the snapshots), so it only runs with
+ * -Dsalesync.benchmark=true.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "salesync.benchmark", matches = "true")
+class LedgerPartyFilterTest {
+
+    @Autowired
+    private FinancialAccountService financialAccountService;
+
+    @Autowired
+    private FinancialAccountRepository financialAccountRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PartyNameIndex partyNameIndex;
+
+    @Autowired
+    private LedgerSnapshotService ledgerSnapshotService;
+
+    @Autowired
+    private LedgerSummaryService ledgerSummaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void unlinkedRowsAreFoundByName() {
+        String token = "Lpf" + System.nanoTime();
+        String customerName = token + " Traders";
+        String accountName = token + " Till";
+
+        Customer customer = new Customer();
+        customer.setName(customerName);
+        customer.setPhoneNumber("0");
+        customer.setEmail(token + "@example.com");
+        customer.setAddress("-");
+        customerRepository.save(customer);
+        partyNameIndex.loadAll();
+
+        financialAccountRepository.save(FinancialAccount.builder()
+                .finAccId("FIN-" + token)
+                .finAccName(accountName)
+                .finAccType("CASH")
+                .openingBalance(0.0)
+                .currentBalance(0.0)
+                .build());
+
+        FinancialAccount linked = post(accountName, customerName, 100.0);
+        // Posted under a name no master has, like a walk-in sale: no customer id
+        FinancialAccount unlinked = post(accountName, customerName + " (walk-in)", 40.0);
+        assertNotNull(linked.getCustomer());
+        assertNull(unlinked.getCustomer());
+
+        LedgerSummaryDTO ledger = ledgerSummaryService.getCustomerLedger(token, null, 50);
+        assertEquals(2, ledger.getTotalTransactions());
+        assertEquals(140.0, ledger.getTotalDebit(), 0.0001);
+        assertEquals(140.0, ledgerSummaryService.getCustomerTotalReceivable(token), 0.0001);
+
+        // Move both into a closed month: the opening balance now comes from its snapshot
+        LocalDateTime lastMonth = YearMonth.now().minusMonths(1).atDay(1).atTime(12, 0);
+        jdbcTemplate.update("UPDATE app_acct_financial_accounts SET trn_date = ? WHERE id IN (?, ?)",
+                lastMonth, linked.getId(), unlinked.getId());
+        ledgerSnapshotService.rebuild();
+        post(accountName, customerName, 10.0);
+
+        LedgerSummaryDTO range = ledgerSummaryService.getCustomerLedgerByDateRange(
+                token, YearMonth.now().atDay(1).atStartOfDay(), null, null, 50);
+        assertEquals(1, range.getTotalTransactions());
+        assertEquals(-140.0, range.getOpeningBalance(), 0.0001);
+        assertEquals(-150.0, range.getClosingBalance(), 0.0001);
+    }
+
+    private FinancialAccount post(String accountName, String entityName, double amount) {
+        return financialAccountService.recordTransaction(accountName, "CASH", amount, "CASH_IN",
+                "SALE_ORDER", "CUSTOMER", entityName, "LPF-" + System.nanoTime(), null, "ledger filter test", "PAID");
+    }
+}
@@ -0,0 +1,105 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.event.TransactionalApplicationListenerMethodAdapter;
+
+import com.business.salesync.event.SalesChangedEvent;
+import com.business.salesync.event.StockChangedEvent;
+import com.business.salesync.service.LiveEventService.Client;
+import com.business.salesync.service.LiveEventService.LiveEvent;
+
+/**
+ * Per-client queue of the live event stream: coalescing, overflow, drain scheduling and
+ * stalled writes, and the after-commit order that lets the stream read figures already updated.
+ * No emitter is written to.
+ */
+class LiveEventServiceTest {
+
+    private static Client client() {
+        return new Client(1, null, LiveEventService.ALL_TOPICS);
+    }
+
+    private static LiveEvent stock(long productId, int available) {
+        return new LiveEvent(LiveEventService.STOCK, "stock", "stock:" + productId,
+                new LiveEventService.StockLevel(productId, available));
+    }
+
+    @Test
+    void sameKeyCoalescesToTheLatestValueInItsOriginalPlace() {
+        Client client = client();
+        assertTrue(client.offer(stock(1, 10)));     // first event schedules a drain
+        assertFalse(client.offer(stock(2, 5)));     // drain already pending
+        assertFalse(client.offer(stock(1, 9)));
+        assertFalse(client.offer(stock(1, 8)));
+
+        List<LiveEvent> batch = client.take();
+        assertEquals(2, batch.size());
+        assertEquals("stock:1", batch.get(0).key());
+        assertEquals(8, ((LiveEventService.StockLevel) batch.get(0).data()).available());
+        assertEquals("stock:2", batch.get(1).key());
+    }
+
+    @Test
+    void emptyTakeEndsTheDrainSoTheNextOfferSchedulesAgain() {
+        Client client = client();
+        assertTrue(client.offer(stock(1, 10)));
+        assertEquals(1, client.take().size());
+        assertFalse(client.offer(stock(1, 9)));     // drain still running: picked up by its next take()
+        assertEquals(1, client.take().size());
+        assertTrue(client.take().isEmpty());
+        assertTrue(client.offer(stock(1, 7)));
+    }
+
+    @Test
+    void clientTooFarBehindGetsAResyncInsteadOfTheBacklog() {
+        Client client = client();
+        for (int i = 0; i < LiveEventService.MAX_PENDING; i++) {
+            client.offer(stock(i, i));
+        }
+        assertEquals(LiveEventService.MAX_PENDING, client.pendingCount());
+
+        // Coalescing into a queued key does not overflow
+        client.offer(stock(0, 99));
+        assertEquals(LiveEventService.MAX_PENDING, client.pendingCount());
+
+        client.offer(stock(LiveEventService.MAX_PENDING, 1));
+        List<LiveEvent> batch = client.take();
+        assertEquals(2, batch.size());
+        assertEquals(LiveEventService.RESYNC, batch.get(0));
+        assertEquals("stock:" + LiveEventService.MAX_PENDING, batch.get(1).key());
+    }
+
+    @Test
+    void onlyAWriteBlockedPastTheTimeoutCountsAsStalled() {
+        Client client = client();
+        assertFalse(client.stalled(50_000, 10_000));  // idle, however long
+
+        client.sending(1_000);
+        assertFalse(client.stalled(11_000, 10_000));
+        assertTrue(client.stalled(11_001, 10_000));
+
+        client.sent();
+        assertFalse(client.stalled(60_000, 10_000));
+    }
+
+    @Test
+    void projectionsApplyACommitBeforeTheStreamReadsThem() throws Exception {
+        assertTrue(order(SalesMetricsService.class.getMethod("onSalesChanged", SalesChangedEvent.class))
+                < order(LiveEventService.class.getMethod("onSalesChanged", SalesChangedEvent.class)));
+        assertTrue(order(ProductScanIndex.class.getMethod("onStockChanged", StockChangedEvent.class))
+                < order(LiveEventService.class.getMethod("onStockChanged", StockChangedEvent.class)));
+    }
+
+    // The order Spring gives the after-commit synchronization of a listener method
+    private static int order(Method listener) {
+        return new TransactionalApplicationListenerMethodAdapter(
+                listener.getDeclaringClass().getSimpleName(), listener.getDeclaringClass(), listener).getOrder();
+    }
+}
@@ -0,0 +1,94 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Customer lookups by name: prefix matches rank ahead of substring matches,
+ * a shared name links to no party, a name filter keeps its text for unlinked
+ * ledger rows, and each of 100k customers is found by its own name. The
+ * typeahead timing needs -Dsalesync.benchmark=true.
+ */
+class PartyNameIndexTest {
+
+    private static final int CUSTOMERS = 100_000;
+    private static final int LOOKUPS = 100_000;
+
+    @Test
+    void prefixFirstThenSubstringAndIdsLikeTheOldLikeFilter() {
+        PartyNameIndex index = new PartyNameIndex(null);
+        index.load(PartyNameIndex.CUSTOMER,
+                List.of(1L, 2L, 3L, 4L, 5L),
+                List.of("Rahim Traders", "Abdur Rahim", "rahman store", "Karim & Sons", "Rahim Traders"));
+
+        assertEquals(List.of("Rahim Traders", "Rahim Traders", "rahman store", "Abdur Rahim"),
+                index.suggest(PartyNameIndex.CUSTOMER, "RAH", 10));
+        assertEquals(List.of(2L, 1L, 5L), index.idsMatching(PartyNameIndex.CUSTOMER, "rahim"));
+        assertEquals(List.of(4L), index.idsMatching(PartyNameIndex.CUSTOMER, "&"));
+        assertTrue(index.idsMatching(PartyNameIndex.CUSTOMER, "zzz").isEmpty());
+
+        // Shared names are ambiguous, so they are not linked to either party
+        assertNull(index.exactId(PartyNameIndex.CUSTOMER, "rahim traders"));
+        assertEquals(4L, index.exactId(PartyNameIndex.CUSTOMER, " karim & sons "));
+        assertTrue(index.idsMatching(PartyNameIndex.SUPPLIER, "rahim").isEmpty());
+
+        // A name filter keeps the text for rows with no party id, even when no master matches
+        PartyNameIndex.PartyFilter filter = index.filter(PartyNameIndex.CUSTOMER, " Walk-in ");
+        assertEquals("%walk-in%", filter.namePattern());
+        assertEquals(List.of(0L), filter.queryIds());
+        assertEquals(List.of(2L, 1L, 5L), index.filter(PartyNameIndex.CUSTOMER, "Rahim").queryIds());
+        assertNull(index.filter(PartyNameIndex.CUSTOMER, " "));
+    }
+
+    @Test
+    void everyCustomerIsFoundAt100kCustomers() {
+        PartyNameIndex index = loaded();
+
+        for (int i = 0; i < CUSTOMERS; i += 97) {
+            String token = Integer.toString(i * 7919, 36);
+            assertTrue(index.idsMatching(PartyNameIndex.CUSTOMER, "Customer " + token + " ").contains(i + 1L),
+                    "customer " + (i + 1) + " should match its own name");
+        }
+        assertEquals(20, index.suggest(PartyNameIndex.CUSTOMER, "cust", 20).size());
+        assertTrue(index.suggest(PartyNameIndex.CUSTOMER, "supplier", 20).isEmpty());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "salesync.benchmark", matches = "true")
+    void typeaheadLatencyAt100kCustomers() {
+        long buildStart = System.nanoTime();
+        PartyNameIndex index = loaded();
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        long start = System.nanoTime();
+        int hits = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            String typed = Integer.toString((i % CUSTOMERS) * 7919, 36);
+            hits += index.suggest(PartyNameIndex.CUSTOMER, typed.substring(0, Math.min(4, typed.length())), 20).size();
+        }
+        double avgMicros = (System.nanoTime() - start) / 1_000.0 / LOOKUPS;
+
+        assertTrue(hits > 0);
+        assertTrue(avgMicros < 5_000, "typeahead should stay in the microsecond range: avg " + avgMicros
+                + " µs, built in " + buildMs + " ms");
+    }
+
+    private static PartyNameIndex loaded() {
+        PartyNameIndex index = new PartyNameIndex(null);
+        List<Long> ids = new ArrayList<>(CUSTOMERS);
+        List<String> names = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            ids.add((long) i + 1);
+            names.add("Customer " + Integer.toString(i * 7919, 36) + " Store " + (i % 500));
+        }
+        index.load(PartyNameIndex.CUSTOMER, ids, names);
+        return index;
+    }
+}
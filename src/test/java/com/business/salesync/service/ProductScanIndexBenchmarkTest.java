@@ -0,0 +1,112 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.business.salesync.dto.ScanResultDTO;
+
+/**
+ * Every barcode and SKU of a 100k-product catalogue resolves to its own product,
+ * re-indexing a product forgets its old codes, and "0123" and "123" stay two
+ * different barcodes. The p99 lookup timing needs -Dsalesync.benchmark=true.
+ */
+class ProductScanIndexBenchmarkTest {
+
+    private static final int SKUS = 100_000;
+    private static final int LOOKUPS = 1_000_000;
+
+    @Test
+    void everyBarcodeAndSkuResolvesAt100kSkus() {
+        String[] barcodes = barcodes();
+        ProductScanIndex index = index(barcodes);
+        assertEquals(SKUS, index.size());
+
+        for (int i = 0; i < SKUS; i++) {
+            assertEquals(i + 1L, index.lookup(barcodes[i]).getId());
+            assertEquals(i + 1L, index.lookup("SKU-" + i).getId());
+        }
+        assertNull(index.lookup("8999999999999"));
+        assertNull(index.lookup("SKU-" + SKUS));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "salesync.benchmark", matches = "true")
+    void lookupLatencyAndMemoryPer100kSkus() {
+        long before = usedHeap();
+        String[] barcodes = barcodes();
+        ProductScanIndex index = index(barcodes);
+        long after = usedHeap();
+
+        // Warm up, then time individual lookups for percentiles
+        for (int i = 0; i < LOOKUPS; i++) {
+            index.lookup(barcodes[i % SKUS]);
+        }
+        long[] nanos = new long[LOOKUPS];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < LOOKUPS; i++) {
+            String code = random.nextBoolean() ? barcodes[random.nextInt(SKUS)] : "SKU-" + random.nextInt(SKUS);
+            long start = System.nanoTime();
+            ScanResultDTO result = index.lookup(code);
+            nanos[i] = System.nanoTime() - start;
+            assertNotNull(result);
+        }
+        Arrays.sort(nanos);
+
+        long p50 = nanos[LOOKUPS / 2];
+        long p99 = nanos[(int) (LOOKUPS * 0.99)];
+        assertTrue(p99 < 1_000_000, "p99 lookup should be well under a millisecond: p50 " + p50 + " ns, p99 "
+                + p99 + " ns, ~" + (after - before) / SKUS + " bytes/SKU");
+    }
+
+    @Test
+    void reindexDropsOldCodesAndKeepsLeadingZerosDistinct() {
+        ProductScanIndex index = new ProductScanIndex(null);
+        index.put(new ProductScanIndex.Entry(1, "A", "SKU-A", "0123", BigDecimal.ONE, BigDecimal.ZERO), 5);
+        index.put(new ProductScanIndex.Entry(2, "B", "SKU-B", "123", BigDecimal.ONE, BigDecimal.ZERO), 5);
+
+        assertEquals(1L, index.lookup("0123").getId());
+        assertEquals(2L, index.lookup("123").getId());
+
+        index.put(new ProductScanIndex.Entry(1, "A", "SKU-A2", "999", BigDecimal.TEN, BigDecimal.ZERO), 3);
+        assertNull(index.lookup("0123"));
+        assertNull(index.lookup("SKU-A"));
+        assertEquals(3, index.lookup("999").getAvailableQuantity());
+
+        index.remove(1L);
+        assertNull(index.lookup("SKU-A2"));
+    }
+
+    private static String[] barcodes() {
+        String[] barcodes = new String[SKUS];
+        for (int i = 0; i < SKUS; i++) {
+            barcodes[i] = String.format("8%012d", i * 7L);             // EAN-13 style
+        }
+        return barcodes;
+    }
+
+    private static ProductScanIndex index(String[] barcodes) {
+        ProductScanIndex index = new ProductScanIndex(null);
+        for (int i = 0; i < SKUS; i++) {
+            index.put(new ProductScanIndex.Entry(i + 1, "Product " + i, "SKU-" + i, barcodes[i],
+                    new BigDecimal("10.00"), new BigDecimal("5.00")), 100);
+        }
+        return index;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
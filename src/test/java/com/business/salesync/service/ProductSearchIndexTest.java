@@ -0,0 +1,165 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.business.salesync.service.ProductSearchIndex.Doc;
+
+/**
+ * Product search: prefix, one-typo and SKU/barcode matches rank in that order,
+ * saved and deleted products show up before and after a rebuild, a capped
+ * result still reports every match, and every SKU and barcode finds its own
+ * product first. The 100k-SKU query timing needs -Dsalesync.benchmark=true.
+ */
+class ProductSearchIndexTest {
+
+    private static ProductSearchIndex index(Doc... docs) {
+        ProductSearchIndex index = new ProductSearchIndex(null);
+        index.load(List.of(docs));
+        return index;
+    }
+
+    private static Doc product(long id, String name, String sku, String barcode) {
+        return new Doc(id, name, sku, barcode, false);
+    }
+
+    @Test
+    void prefixTypoAndCodeMatchesAreRanked() {
+        ProductSearchIndex index = index(
+                product(1, "Green Tea 100g", "TEA-001", "8901234567890"),
+                product(2, "Green Tea Premium Box", "TEA-002", "8901234567891"),
+                product(3, "Teapot Ceramic", "POT-010", null),
+                product(4, "Café Crème Biscuits", "BIS-777", null));
+
+        // Every word must match; the shorter name wins a tie
+        assertEquals(List.of(1L, 2L), index.searchIds("green tea", 10));
+        // "tea" is an exact word of 1 and 2 but only a prefix of "teapot"
+        assertEquals(List.of(1L, 2L, 3L), index.searchIds("tea", 10));
+        // Typo tolerance: one substitution, one swap
+        assertEquals(List.of(1L, 2L), index.searchIds("gren tea", 10));
+        assertEquals(List.of(3L), index.searchIds("taepot", 10));
+        // Accents and case are folded
+        assertEquals(List.of(4L), index.searchIds("CAFE creme", 10));
+        // SKU with or without separator, and a barcode prefix
+        assertEquals(List.of(2L), index.searchIds("TEA-002", 10));
+        assertEquals(List.of(2L), index.searchIds("tea002", 10));
+        assertEquals(List.of(1L, 2L), index.searchIds("89012345678", 10));
+        // Short words are never fuzzy-matched
+        assertTrue(index.searchIds("tex", 10).isEmpty());
+    }
+
+    @Test
+    void savesAndDeletesShowUpBeforeAndAfterARebuild() {
+        ProductSearchIndex index = index(product(1, "Green Tea", "TEA-001", null));
+
+        index.put(product(1, "Black Coffee", "COF-001", null));
+        index.put(product(2, "Green Apple", "APL-001", null));
+        assertEquals(List.of(2L), index.searchIds("green", 10));
+        assertEquals(List.of(1L), index.searchIds("coffee", 10));
+
+        index.put(new Doc(2, null, null, null, true));
+        assertTrue(index.searchIds("green", 10).isEmpty());
+
+        // Push the delta over the threshold: results are unchanged by the rebuild
+        for (int i = 0; i <= ProductSearchIndex.REBUILD_THRESHOLD; i++) {
+            index.put(product(1000 + i, "Filler " + i, "FIL-" + i, null));
+        }
+        assertEquals(List.of(1L), index.searchIds("coffee", 10));
+        assertTrue(index.searchIds("green", 10).isEmpty());
+        assertEquals(ProductSearchIndex.REBUILD_THRESHOLD + 1, index.searchIds("filler", 1000).size());
+    }
+
+    @Test
+    void cappedResultsStillCountEveryMatch() {
+        ProductSearchIndex index = index(
+                product(1, "Green Tea", "TEA-001", null),
+                product(2, "Black Tea", "TEA-002", null),
+                product(3, "Herbal Tea", "TEA-003", null),
+                product(4, "Lemon Tea", "TEA-004", null),
+                product(5, "Coffee", "COF-001", null));
+
+        ProductSearchIndex.Result result = index.find("tea", 2);
+        assertEquals(2, result.hits().size());
+        assertEquals(4, result.matches());
+        assertTrue(result.capped());
+
+        // A saved product is counted once, from the delta, and only if it still matches
+        index.put(product(1, "Green Coffee", "COF-002", null));
+        index.put(product(5, "Iced Tea", "TEA-005", null));
+        assertEquals(4, index.find("tea", 2).matches());
+        assertFalse(index.find("tea", 10).capped());
+    }
+
+    @Test
+    void withinOneEdit() {
+        assertTrue(ProductSearchIndex.withinOneEdit("biscuit", "biscuit"));
+        assertTrue(ProductSearchIndex.withinOneEdit("biscuit", "bisciut"));  // swap
+        assertTrue(ProductSearchIndex.withinOneEdit("biscuit", "biscuits")); // insert
+        assertTrue(ProductSearchIndex.withinOneEdit("biscuit", "bscuit"));   // delete
+        assertTrue(ProductSearchIndex.withinOneEdit("biscuit", "biskuit"));  // substitute
+        assertFalse(ProductSearchIndex.withinOneEdit("biscuit", "bsicuti"));
+        assertFalse(ProductSearchIndex.withinOneEdit("biscuit", "biscuitss"));
+    }
+
+    @Test
+    void everySkuAndBarcodeFindsItsProductFirst() {
+        ProductSearchIndex index = catalogue(10_000);
+
+        for (int i = 0; i < 10_000; i += 97) {
+            assertEquals((long) i, index.searchIds("SKU-" + i, 10).get(0));
+            assertEquals((long) i, index.searchIds(String.valueOf(8_900_000_000_000L + i), 10).get(0));
+        }
+        assertEquals(50, index.search("b", 50).size());
+        assertTrue(index.searchIds("zzzz qqqq", 50).isEmpty());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "salesync.benchmark", matches = "true")
+    void hundredThousandSkusAnswerInMilliseconds() {
+        ProductSearchIndex index = catalogue(100_000);
+
+        String[] queries = { "green tea", "bisc", "chocolat milk", "sku-4242", "89000000123", "mustrad oil", "b" };
+        for (int warmUp = 0; warmUp < 20; warmUp++) {
+            for (String query : queries) index.search(query, 50);
+        }
+
+        long[] nanos = new long[queries.length * 10];
+        int n = 0;
+        for (int round = 0; round < 10; round++) {
+            for (String query : queries) {
+                long start = System.nanoTime();
+                assertFalse(index.search(query, 50).isEmpty(), query);
+                nanos[n++] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        long median = nanos[nanos.length / 2];
+        assertTrue(median < 50_000_000L, "median query took " + median / 1_000_000 + " ms, slowest "
+                + nanos[nanos.length - 1] / 1_000_000 + " ms");
+    }
+
+    private static ProductSearchIndex catalogue(int skus) {
+        String[] words = { "green", "black", "herbal", "tea", "coffee", "rice", "basmati", "oil", "mustard",
+                "sugar", "brown", "salt", "flour", "wheat", "biscuit", "chocolate", "milk", "powder", "soap",
+                "shampoo", "detergent", "noodles", "chilli", "sauce", "honey", "lentil", "ghee", "butter" };
+        Random random = new Random(42);
+        List<Doc> docs = new ArrayList<>(skus);
+        for (int i = 0; i < skus; i++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " "
+                    + (random.nextInt(900) + 100) + "g pack " + i;
+            docs.add(product(i, name, "SKU-" + i, String.valueOf(8_900_000_000_000L + i)));
+        }
+        ProductSearchIndex index = new ProductSearchIndex(null);
+        index.load(docs);
+        return index;
+    }
+}
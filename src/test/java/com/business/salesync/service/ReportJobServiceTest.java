@@ -0,0 +1,99 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.business.salesync.dto.SalesReportRowDTO;
+import com.business.salesync.service.ReportJobService.ReportJob;
+import com.business.salesync.service.ReportJobService.ReportType;
+import com.business.salesync.service.SalesReportService.SalesReport;
+
+/**
+ * Chunking, merging and cache invalidation of report jobs.
+ * Pure in-memory, no database needed.
+ */
+class ReportJobServiceTest {
+
+    @Test
+    void rangeIsSplitIntoConsecutiveChunksEndingOnTheLastDay() {
+        List<LocalDate[]> chunks = ReportJobService.chunks(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 10), 31);
+
+        assertEquals(3, chunks.size());
+        assertEquals(LocalDate.of(2025, 1, 31), chunks.get(0)[1]);
+        assertEquals(LocalDate.of(2025, 2, 1), chunks.get(1)[0]);
+        assertEquals(LocalDate.of(2025, 3, 4), chunks.get(2)[0]);
+        assertEquals(LocalDate.of(2025, 3, 10), chunks.get(2)[1]);
+
+        assertEquals(1, ReportJobService.chunks(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1), 31).size());
+    }
+
+    @Test
+    void chunkReportsMergeIntoTheWholeRange() {
+        SalesReport january = new SalesReport(
+                List.of(new SalesReportRowDTO(LocalDate.of(2025, 1, 5), 2L, 3L, new BigDecimal("30.00"), new BigDecimal("20.00"))),
+                List.of(new SalesReportRowDTO(7L, "Tea", "SKU7", 2L, 3L, new BigDecimal("30.00"), new BigDecimal("20.00"))),
+                List.of(new SalesReportRowDTO(1L, "Drinks", 2L, 3L, new BigDecimal("30.00"), new BigDecimal("20.00"))),
+                List.of(new SalesReportRowDTO(4L, "Rahim", 2L, 3L, new BigDecimal("30.00"), new BigDecimal("20.00"))),
+                2, 3, new BigDecimal("30.00"), new BigDecimal("10.00"));
+        SalesReport february = new SalesReport(
+                List.of(new SalesReportRowDTO(LocalDate.of(2025, 2, 1), 1L, 2L, new BigDecimal("60.00"), new BigDecimal("42.00"))),
+                List.of(new SalesReportRowDTO(7L, "Tea", "SKU7", 1L, 1L, new BigDecimal("10.00"), new BigDecimal("7.00")),
+                        new SalesReportRowDTO(8L, "Coffee", "SKU8", 1L, 1L, new BigDecimal("50.00"), new BigDecimal("35.00"))),
+                List.of(new SalesReportRowDTO(1L, "Drinks", 1L, 2L, new BigDecimal("60.00"), new BigDecimal("42.00"))),
+                List.of(new SalesReportRowDTO(null, null, 1L, 2L, new BigDecimal("60.00"), new BigDecimal("42.00"))),
+                1, 2, new BigDecimal("60.00"), new BigDecimal("18.00"));
+
+        SalesReport merged = SalesReportService.merge(List.of(february, january));
+
+        assertEquals(3, merged.orders());
+        assertEquals(5, merged.totalQuantity());
+        assertEquals(0, new BigDecimal("90.00").compareTo(merged.totalSales()));
+        assertEquals(0, new BigDecimal("28.00").compareTo(merged.totalProfit()));
+        assertEquals(LocalDate.of(2025, 1, 5), merged.byDay().get(0).getDay());
+
+        // Coffee 50 ranks above Tea 30 + 10
+        assertEquals(2, merged.byProduct().size());
+        assertEquals(8L, merged.byProduct().get(0).getId());
+        assertEquals(3, merged.byProduct().get(1).getOrders());
+        assertEquals(0, new BigDecimal("13.00").compareTo(merged.byProduct().get(1).getProfit()));
+        assertEquals(1, merged.byCategory().size());
+        assertEquals(2, merged.byCustomer().size());   // walk-in sales keep their own row
+    }
+
+    @Test
+    void saleInsideTheRangeDropsOnlyThatCachedReport() {
+        ReportJobService service = new ReportJobService(null, null, null, 1, 1, 1, 31, 10, 30);
+        try {
+            ReportJob q1 = job(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31));
+            ReportJob q2 = job(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 6, 30));
+            service.cache(q1, "q1");
+            service.cache(q2, "q2");
+
+            // An order moved from 10 May to 12 May touches only the second quarter
+            service.invalidate(ReportType.SALES, LocalDate.of(2025, 5, 10), LocalDate.of(2025, 5, 12));
+            assertNotNull(service.cached(ReportJobService.key(ReportType.SALES, q1.getFrom(), q1.getTo())));
+            assertNull(service.cached(ReportJobService.key(ReportType.SALES, q2.getFrom(), q2.getTo())));
+
+            // A stock movement leaves sales reports alone
+            service.invalidate(ReportType.STOCK);
+            assertNotNull(service.cached(ReportJobService.key(ReportType.SALES, q1.getFrom(), q1.getTo())));
+
+            // A product edit drops every sales report
+            service.invalidate(ReportType.SALES);
+            assertNull(service.cached(ReportJobService.key(ReportType.SALES, q1.getFrom(), q1.getTo())));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static ReportJob job(LocalDate from, LocalDate to) {
+        return new ReportJob("test", ReportJobService.key(ReportType.SALES, from, to), ReportType.SALES, from, to, 1);
+    }
+}
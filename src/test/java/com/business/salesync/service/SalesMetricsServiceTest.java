@@ -0,0 +1,84 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.business.salesync.event.SalesChangedEvent;
+
+/**
+ * Day/week/month sales buckets of the dashboard counters.
+ * Pure in-memory, no database needed.
+ */
+class SalesMetricsServiceTest {
+
+    @Test
+    void weekAndMonthAreSeparateFiguresAcrossAMonthBoundary() {
+        // Wednesday 1 October: this week started on Monday 29 September
+        LocalDate wednesday = LocalDate.of(2025, 10, 1);
+        LocalDate monday = LocalDate.of(2025, 9, 29);
+        SalesMetricsService metrics = new SalesMetricsService(null);
+
+        Map<LocalDate, BigDecimal> seeded = new HashMap<>();
+        seeded.put(monday, new BigDecimal("100.00"));
+        seeded.put(wednesday, new BigDecimal("40.00"));
+        metrics.load(seeded, 2, wednesday);
+
+        SalesMetricsService.Totals totals = metrics.totals(wednesday);
+        assertEquals(new BigDecimal("40.00"), totals.today());
+        assertEquals(new BigDecimal("140.00"), totals.thisWeek());
+        assertEquals(new BigDecimal("40.00"), totals.thisMonth());
+        assertEquals(2, totals.orders());
+    }
+
+    @Test
+    void checkoutEditDeleteAndReturnMoveTheBuckets() {
+        LocalDate today = LocalDate.of(2025, 10, 15);   // Wednesday
+        LocalDate monday = LocalDate.of(2025, 10, 13);
+        SalesMetricsService metrics = new SalesMetricsService(null);
+        metrics.load(new HashMap<>(), 0, today);
+
+        // Checkout today, then an order entered for Monday
+        metrics.apply(new SalesChangedEvent(null, null, today, new BigDecimal("250.00"), 1), today);
+        metrics.apply(new SalesChangedEvent(null, null, monday, new BigDecimal("80.00"), 1), today);
+        // Monday's order edited: amount and date change
+        metrics.apply(new SalesChangedEvent(monday, new BigDecimal("80.00"), today, new BigDecimal("90.00"), 0), today);
+        // Sales return today
+        metrics.apply(new SalesChangedEvent(null, null, today, new BigDecimal("-30.00"), 0), today);
+
+        SalesMetricsService.Totals totals = metrics.totals(today);
+        assertEquals(0, new BigDecimal("310.00").compareTo(totals.today()));
+        assertEquals(0, new BigDecimal("310.00").compareTo(totals.thisWeek()));
+        assertEquals(2, totals.orders());
+
+        // First order deleted
+        metrics.apply(new SalesChangedEvent(today, new BigDecimal("250.00"), null, null, -1), today);
+        totals = metrics.totals(today);
+        assertEquals(0, new BigDecimal("60.00").compareTo(totals.thisMonth()));
+        assertEquals(1, totals.orders());
+
+        // Edits to orders older than the window leave the buckets alone
+        metrics.apply(new SalesChangedEvent(LocalDate.of(2025, 8, 1), new BigDecimal("500.00"),
+                LocalDate.of(2025, 8, 2), new BigDecimal("500.00"), 0), today);
+        assertEquals(0, new BigDecimal("60.00").compareTo(metrics.totals(today).thisMonth()));
+    }
+
+    @Test
+    void reconcileReportsDriftAndReplacesTheBuckets() {
+        LocalDate today = LocalDate.of(2025, 10, 15);
+        SalesMetricsService metrics = new SalesMetricsService(null);
+        metrics.load(new HashMap<>(Map.of(today, new BigDecimal("10.00"))), 1, today);
+        metrics.apply(new SalesChangedEvent(null, null, today, new BigDecimal("5.00"), 1), today);
+
+        // Database says one order of 10.00: the second posting never committed
+        int drifted = metrics.load(new HashMap<>(Map.of(today, new BigDecimal("10.00"))), 1, today);
+        assertEquals(2, drifted);
+        assertEquals(0, new BigDecimal("10.00").compareTo(metrics.totals(today).today()));
+        assertEquals(1, metrics.totals(today).orders());
+    }
+}
@@ -0,0 +1,81 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.business.salesync.event.StockThresholdEvent;
+import com.business.salesync.event.StockThresholdEvent.Level;
+import com.business.salesync.service.StockLevelTracker.StockFilter;
+
+/**
+ * Set membership, filters and threshold events of the stock level tracker.
+ * Pure in-memory, no database needed.
+ */
+class StockLevelTrackerTest {
+
+    private final List<StockThresholdEvent> events = new ArrayList<>();
+    private final StockLevelTracker tracker = new StockLevelTracker(null, event -> events.add((StockThresholdEvent) event));
+
+    @Test
+    void productsMoveBetweenSetsAndPublishOnlyCrossings() {
+        tracker.apply(1, 10, 2, false);
+        tracker.apply(2, 2, 2, false);
+        tracker.apply(3, 0, 2, false);
+        assertEquals(1, tracker.lowStockCount());
+        assertEquals(1, tracker.outOfStockCount());
+        assertTrue(events.isEmpty());
+
+        // 10 → 5 stays in stock: no event
+        assertFalse(tracker.apply(1, 5, 2, true));
+        // 5 → 1 crosses the minimum
+        assertTrue(tracker.apply(1, 1, 2, true));
+        // Restock of the empty product
+        assertTrue(tracker.apply(3, 20, 2, true));
+
+        assertEquals(Set.of(1L, 2L), tracker.lowStockIds());
+        assertTrue(tracker.outOfStockIds().isEmpty());
+        assertEquals(2, events.size());
+        assertEquals(Level.IN_STOCK, events.get(0).getPrevious());
+        assertEquals(Level.LOW, events.get(0).getCurrent());
+        assertEquals(Level.OUT, events.get(1).getPrevious());
+        assertEquals(Level.IN_STOCK, events.get(1).getCurrent());
+
+        // A new product only reports if it arrives below its minimum
+        tracker.apply(4, 50, 2, true);
+        tracker.apply(5, 0, 2, true);
+        assertEquals(3, events.size());
+        assertNull(events.get(2).getPrevious());
+
+        tracker.remove(5L);
+        assertEquals(0, tracker.outOfStockCount());
+    }
+
+    @Test
+    void stockStatusFiltersByLevel() {
+        tracker.apply(1, 10, 2, false);
+        tracker.apply(2, 1, 2, false);
+        tracker.apply(3, 0, 2, false);
+
+        StockFilter low = tracker.filter("low");
+        StockFilter out = tracker.filter("out");
+        StockFilter in = tracker.filter("in");
+        assertTrue(low.matches(2L) && !low.matches(1L) && !low.matches(3L));
+        assertTrue(out.matches(3L) && !out.matches(2L));
+        assertTrue(in.matches(1L) && in.matches(2L) && !in.matches(3L));
+        assertTrue(tracker.filter("").matches(3L));
+
+        // The repository gets only the status; the ids stay in memory and follow later changes
+        assertEquals("in", in.status());
+        tracker.apply(3, 5, 2, false);
+        assertFalse(out.matches(3L));
+        assertTrue(in.matches(3L));
+    }
+}
@@ -0,0 +1,161 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.business.salesync.models.Product;
+import com.business.salesync.models.StockMovement.Reason;
+import com.business.salesync.repository.ProductRepository;
+
+/**
+ * Many tills selling a few hot SKUs at once. Proves stock never goes below zero
+ * and reports decrements per second.
+ *
+ * Needs a scratch MySQL schema, so it only runs with -Dsalesync.benchmark=true.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "salesync.benchmark", matches = "true")
+class StockServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int HOT_SKUS = 3;
+    private static final int STOCK_PER_SKU = 500;
+    private static final int ATTEMPTS_PER_THREAD = 100; // 3200 attempts for 1500 units
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentSalesNeverOversell() throws Exception {
+        List<Product> products = createProducts("HOT", STOCK_PER_SKU);
+        AtomicIntegerArray sold = new AtomicIntegerArray(HOT_SKUS);
+        AtomicInteger rejected = new AtomicInteger();
+
+        long elapsed = runConcurrently(() -> {
+            int i = ThreadLocalRandom.current().nextInt(HOT_SKUS);
+            try {
+                stockService.decrement(products.get(i).getId(), 1, Reason.SALE, null);
+                sold.incrementAndGet(i);
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        int totalSold = 0;
+        for (int i = 0; i < HOT_SKUS; i++) {
+            int remaining = quantityOf(products.get(i).getId());
+            assertEquals(STOCK_PER_SKU - sold.get(i), remaining, "stock and successful sales disagree");
+            assertTrue(remaining >= 0, "stock went negative");
+            totalSold += sold.get(i);
+        }
+        // More attempts than units: every unit must be sold exactly once
+        assertEquals(HOT_SKUS * STOCK_PER_SKU, totalSold);
+
+        report("decrement", THREADS * ATTEMPTS_PER_THREAD, totalSold, rejected.get(), elapsed);
+    }
+
+    @Test
+    void reservationsAndSalesTogetherNeverOversell() throws Exception {
+        List<Product> products = createProducts("HOTRES", STOCK_PER_SKU);
+        AtomicIntegerArray sold = new AtomicIntegerArray(HOT_SKUS);
+        AtomicInteger rejected = new AtomicInteger();
+
+        // Half the attempts reserve then check out, half sell straight off the shelf
+        long elapsed = runConcurrently(() -> {
+            int i = ThreadLocalRandom.current().nextInt(HOT_SKUS);
+            Long productId = products.get(i).getId();
+            try {
+                if (ThreadLocalRandom.current().nextBoolean()) {
+                    String cart = "cart-" + Thread.currentThread().getId() + "-" + System.nanoTime();
+                    stockService.reserve(cart, productId, 2);
+                    stockService.decrementAll(Map.of(productId, 1), cart, Reason.SALE, null); // buys 1, releases the other
+                } else {
+                    stockService.decrement(productId, 1, Reason.SALE, null);
+                }
+                sold.incrementAndGet(i);
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < HOT_SKUS; i++) {
+            Long id = products.get(i).getId();
+            assertEquals(STOCK_PER_SKU - sold.get(i), quantityOf(id));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT reserved_quantity FROM products WHERE id = ?", Integer.class, id));
+        }
+
+        report("reserve+checkout", THREADS * ATTEMPTS_PER_THREAD,
+                sold.get(0) + sold.get(1) + sold.get(2), rejected.get(), elapsed);
+    }
+
+    private long runConcurrently(Runnable attempt) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int n = 0; n < ATTEMPTS_PER_THREAD; n++) {
+                    attempt.run();
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        return System.nanoTime() - begin;
+    }
+
+    private void report(String label, int attempts, int sold, int rejected, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%s: %d threads, %d attempts, %d sold, %d rejected, %.2fs, %.0f ops/s%n",
+                label, THREADS, attempts, sold, rejected, seconds, attempts / seconds);
+    }
+
+    private int quantityOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private List<Product> createProducts(String prefix, int stock) {
+        long runId = System.currentTimeMillis();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < HOT_SKUS; i++) {
+            products.add(Product.builder()
+                    .sku(prefix + "-" + runId + "-" + i)
+                    .barcode(prefix + "-" + runId + "-" + i)
+                    .name("Hot SKU " + i)
+                    .costPrice(new BigDecimal("5.00"))
+                    .sellingPrice(new BigDecimal("10.00"))
+                    .quantity(stock)
+                    .minStockLevel(0)
+                    .build());
+        }
+        return productRepository.saveAll(products);
+    }
+}
@@ -0,0 +1,70 @@
+package com.business.salesync.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.business.salesync.service.StockValuationService.Row;
+import com.business.salesync.service.StockValuationService.Valuation;
+import com.business.salesync.service.StockValuationService.Value;
+
+/**
+ * Running stock value totals and their breakdowns against a full recompute.
+ * Pure in-memory, no database needed.
+ */
+class StockValuationServiceTest {
+
+    private final StockValuationService service = new StockValuationService(null);
+
+    @Test
+    void stockAndPriceChangesMoveOnlyTheDifference() {
+        service.apply(row(1, 10, "5.00", "3.00", 1L, 7L));
+        service.apply(row(2, 4, "2.50", null, 1L, null));
+        service.apply(row(3, -2, "9.00", "6.00", 2L, 7L));     // negative stock is not valued
+
+        assertValue("60.00", "30.00", service.total());
+
+        // Sale of 3, then a price rise, then a move to another category
+        service.apply(row(1, 7, "5.00", "3.00", 1L, 7L));
+        service.apply(row(1, 7, "6.00", "3.00", 1L, 7L));
+        service.apply(row(1, 7, "6.00", "3.00", 2L, 7L));
+
+        Valuation valuation = service.valuation();
+        assertValue("52.00", "21.00", valuation.total());
+        assertValue("10.00", "0.00", valuation.byCategory().get(1L));
+        assertValue("42.00", "21.00", valuation.byCategory().get(2L));
+        assertValue("42.00", "21.00", valuation.byBrand().get(7L));
+        assertValue("10.00", "0.00", valuation.byBrand().get(StockValuationService.NONE));
+
+        // Deleting the last product of a category drops the group
+        service.remove(2L);
+        assertFalse(service.valuation().byCategory().containsKey(1L));
+        assertValue("42.00", "21.00", service.total());
+    }
+
+    @Test
+    void driftCountsEveryFigureThatDiffers() {
+        service.apply(row(1, 10, "5.00", "3.00", 1L, 7L));
+
+        Value right = new Value(new BigDecimal("50.00"), new BigDecimal("30.00"));
+        assertEquals(0, service.drift(new Valuation(right, Map.of(1L, right), Map.of(7L, right))));
+
+        // A sale the totals never heard about
+        Value wrong = new Value(new BigDecimal("45.00"), new BigDecimal("27.00"));
+        assertEquals(3, service.drift(new Valuation(wrong, Map.of(1L, wrong), Map.of(7L, wrong))));
+    }
+
+    private static Row row(long id, int quantity, String selling, String cost, Long categoryId, Long brandId) {
+        return new Row(id, quantity, selling != null ? new BigDecimal(selling) : null,
+                cost != null ? new BigDecimal(cost) : null, categoryId, brandId);
+    }
+
+    private static void assertValue(String selling, String cost, Value value) {
+        assertEquals(0, new BigDecimal(selling).compareTo(value.atSellingPrice()), "selling " + value);
+        assertEquals(0, new BigDecimal(cost).compareTo(value.atCost()), "cost " + value);
+    }
+}